@@ -0,0 +1,62 @@
+package com.github.crob1140.confluence;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class generates the JSON representations of responses from the Confluence Cloud server
+ * that are used by the benchmarks.
+ */
+public class BenchmarkPayloads {
+
+  private BenchmarkPayloads() {
+  }
+
+  /**
+   * This method generates the JSON representation of a page of content, similar to those returned
+   * for a request for content with an expanded version, space and storage body.
+   *
+   * @param resultCount The number of results in the page.
+   * @param bodyLength The approximate number of characters in the body of each result.
+   * @return The UTF-8 encoded JSON representation of the page.
+   */
+  public static byte[] contentPage(int resultCount, int bodyLength) {
+    StringBuilder json = new StringBuilder("{\"results\": [");
+    for (int i = 0; i < resultCount; i++) {
+      if (i > 0) {
+        json.append(',');
+      }
+      appendContent(json, Integer.toString(100000 + i), bodyLength);
+    }
+    json.append("], \"start\": 0, \"limit\": ").append(resultCount)
+        .append(", \"size\": ").append(resultCount)
+        .append(", \"_links\": {\"base\": \"http://localhost/wiki\", \"context\": \"/wiki\"}}");
+    return json.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * This method generates the JSON representation of a single piece of content.
+   *
+   * @param id The ID of the content.
+   * @param bodyLength The approximate number of characters in the body of the content.
+   * @return The UTF-8 encoded JSON representation of the content.
+   */
+  public static byte[] content(String id, int bodyLength) {
+    StringBuilder json = new StringBuilder();
+    appendContent(json, id, bodyLength);
+    return json.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void appendContent(StringBuilder json, String id, int bodyLength) {
+    json.append("{\"id\": \"").append(id).append("\",")
+        .append(" \"type\": \"page\", \"status\": \"current\",")
+        .append(" \"title\": \"Benchmark Page ").append(id).append("\",")
+        .append(" \"space\": {\"key\": \"BENCH\", \"name\": \"Benchmarks\"},")
+        .append(" \"version\": {\"number\": 3},")
+        .append(" \"body\": {\"storage\": {\"representation\": \"storage\", \"value\": \"");
+    String paragraph = "<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>";
+    for (int length = 0; length < bodyLength; length += paragraph.length()) {
+      json.append(paragraph);
+    }
+    json.append("\"}}}");
+  }
+}
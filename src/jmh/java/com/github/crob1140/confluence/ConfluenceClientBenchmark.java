@@ -0,0 +1,98 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.StandardContentType;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.requests.GetContentByIdRequest;
+import com.github.crob1140.confluence.requests.GetContentRequest;
+import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class measures the time taken by {@link ConfluenceClient#performRequest} to send requests
+ * to a local stub server and de-serialize its responses, which includes the overhead of Jersey,
+ * the pooled connections and Jackson.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfluenceClientBenchmark {
+
+  @Param({"25", "100"})
+  public int pageSize;
+
+  private StubConfluenceServer server;
+  private ConfluenceClient client;
+  private GetContentRequest getContentRequest;
+  private GetContentByIdRequest getContentByIdRequest;
+  private UpdateContentRequest updateContentRequest;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.server = new StubConfluenceServer(BenchmarkPayloads.contentPage(this.pageSize, 2000),
+        BenchmarkPayloads.content("100000", 2000));
+    this.client = new ConfluenceClient.Builder()
+        .setWikiUrl(this.server.getUrl())
+        .build();
+
+    ExpandedContentProperties expandedProperties = new ExpandedContentProperties.Builder()
+        .addVersion()
+        .addSpace()
+        .build();
+    this.getContentRequest = new GetContentRequest.Builder()
+        .setSpaceKey("BENCH")
+        .setLimit(this.pageSize)
+        .setExpandedProperties(expandedProperties)
+        .build();
+    this.getContentByIdRequest = new GetContentByIdRequest.Builder()
+        .setId("100000")
+        .setExpandedProperties(expandedProperties)
+        .build();
+    this.updateContentRequest = new UpdateContentRequest.Builder()
+        .setId("100000")
+        .setType(StandardContentType.PAGE)
+        .setTitle("Benchmark Page")
+        .setBody(ContentBodyType.STORAGE, "<p>Updated body</p>")
+        .setVersion(4)
+        .build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    this.client.close();
+    this.server.close();
+  }
+
+  @Benchmark
+  public Object getContent() throws ConfluenceRequestException {
+    return this.client.performRequest(this.getContentRequest);
+  }
+
+  @Benchmark
+  public Object getContentById() throws ConfluenceRequestException {
+    return this.client.performRequest(this.getContentByIdRequest);
+  }
+
+  @Benchmark
+  public Object updateContent() throws ConfluenceRequestException {
+    return this.client.performRequest(this.updateContentRequest);
+  }
+}
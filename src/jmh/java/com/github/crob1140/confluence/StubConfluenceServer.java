@@ -0,0 +1,81 @@
+package com.github.crob1140.confluence;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>This class is a minimal HTTP server that responds to content requests with fixed payloads,
+ * so that the overhead of the client can be measured without the latency of a real Confluence
+ * Cloud server.</p>
+ *
+ * <p>Requests for "/rest/api/content" receive a page of content, and requests for
+ * "/rest/api/content/{id}" receive a single piece of content. Any request body is read and
+ * discarded, and POST and PUT requests receive the single piece of content.</p>
+ */
+public class StubConfluenceServer implements AutoCloseable {
+
+  private static final String CONTENT_PATH = "/rest/api/content";
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final byte[] contentPage;
+  private final byte[] content;
+
+  /**
+   * This constructor starts a server on an ephemeral port of the loopback address.
+   *
+   * @param contentPage The JSON representation of the page of content to respond with.
+   * @param content The JSON representation of the single piece of content to respond with.
+   * @throws IOException If the server could not be started.
+   */
+  public StubConfluenceServer(byte[] contentPage, byte[] content) throws IOException {
+    this.contentPage = contentPage;
+    this.content = content;
+    // Without this, small responses can be delayed by Nagle's algorithm for several milliseconds
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+    this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    this.executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    this.server.setExecutor(this.executor);
+    this.server.createContext(CONTENT_PATH, this::handle);
+    this.server.start();
+  }
+
+  /**
+   * This method returns the URL that the server can be reached at.
+   *
+   * @return The base URL of the server.
+   */
+  public String getUrl() {
+    return "http://127.0.0.1:" + this.server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (InputStream requestBody = exchange.getRequestBody()) {
+      byte[] buffer = new byte[8192];
+      while (requestBody.read(buffer) != -1) {
+        // Discard the request body so that the connection can be reused
+      }
+    }
+
+    boolean isPage = "GET".equals(exchange.getRequestMethod())
+        && CONTENT_PATH.equals(exchange.getRequestURI().getPath());
+    byte[] responseBody = isPage ? this.contentPage : this.content;
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, responseBody.length);
+    try (OutputStream output = exchange.getResponseBody()) {
+      output.write(responseBody);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.github.crob1140.confluence.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.crob1140.confluence.BenchmarkPayloads;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.requests.GetContentResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class measures the time taken to encode and decode a large sequence of content with each
+ * {@link ContentCodec} format, so that the binary formats can be compared against JSON.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentCodecBenchmark {
+
+  @Param({"json", "smile", "smile-shared"})
+  public String format;
+
+  @Param({"500"})
+  public int resultCount;
+
+  @Param({"200", "20000"})
+  public int bodyLength;
+
+  private ContentCodec codec;
+  private List<Content> contents;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    ContentCodec.Builder builder = new ContentCodec.Builder();
+    if (this.format.equals("json")) {
+      builder.setFormat(CodecFormat.JSON);
+    } else {
+      builder.setFormat(CodecFormat.SMILE).setSharedStrings(this.format.equals("smile-shared"));
+    }
+    this.codec = builder.build();
+
+    byte[] payload = BenchmarkPayloads.contentPage(this.resultCount, this.bodyLength);
+    this.contents = new ObjectMapper().readValue(payload, GetContentResponse.class).getResults();
+    this.encoded = encodeAll();
+  }
+
+  @Benchmark
+  public byte[] encodeAll() throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    this.codec.encodeAll(this.contents.iterator(), output);
+    return output.toByteArray();
+  }
+
+  @Benchmark
+  public void decodeAll(Blackhole blackhole) throws IOException {
+    this.codec.decodeAll(new ByteArrayInputStream(this.encoded), Content.class,
+        blackhole::consume);
+  }
+}
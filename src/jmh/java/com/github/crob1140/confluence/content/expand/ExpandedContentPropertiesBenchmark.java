@@ -0,0 +1,52 @@
+package com.github.crob1140.confluence.content.expand;
+
+import com.github.crob1140.confluence.content.ContentBodyType;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class measures the time taken to construct the sets of properties to expand in a response,
+ * which are typically constructed once for every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpandedContentPropertiesBenchmark {
+
+  @Benchmark
+  public ExpandedContentProperties buildVersion() {
+    return new ExpandedContentProperties.Builder()
+        .addVersion()
+        .build();
+  }
+
+  @Benchmark
+  public ExpandedContentProperties buildNested() {
+    return new ExpandedContentProperties.Builder()
+        .addVersion()
+        .addSpace()
+        .addAncestors()
+        .addContainer()
+        .addHistory(new ExpandedHistoryProperties.Builder()
+            .addLastUpdated()
+            .addPreviousVersion()
+            .addContributors()
+            .build())
+        .addBody(ContentBodyType.STORAGE, new ExpandedBodyFormatProperties.Builder()
+            .addValue()
+            .addRepresentation()
+            .build())
+        .addBody(ContentBodyType.VIEW, new ExpandedBodyFormatProperties.Builder()
+            .addValue()
+            .build())
+        .build();
+  }
+}
@@ -0,0 +1,57 @@
+package com.github.crob1140.confluence.requests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.crob1140.confluence.BenchmarkPayloads;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * This class measures the time taken to de-serialize large pages of content, both into a complete
+ * {@link GetContentResponse} and one result at a time with {@link GetContentResponseParser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetContentResponseBenchmark {
+
+  @Param({"25", "500"})
+  public int resultCount;
+
+  @Param({"200", "20000"})
+  public int bodyLength;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private byte[] payload;
+
+  @Setup
+  public void setUp() {
+    this.payload = BenchmarkPayloads.contentPage(this.resultCount, this.bodyLength);
+  }
+
+  @Benchmark
+  public GetContentResponse readValue() throws IOException {
+    return this.mapper.readValue(this.payload, GetContentResponse.class);
+  }
+
+  @Benchmark
+  public GetContentResponse parseStreaming(Blackhole blackhole) throws IOException {
+    return GetContentResponseParser.parse(new ByteArrayInputStream(this.payload),
+        blackhole::consume);
+  }
+}
@@ -0,0 +1,103 @@
+package com.github.crob1140.confluence.requests;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.ContentStatus;
+import com.github.crob1140.confluence.content.StandardContentType;
+import com.github.crob1140.confluence.content.expand.ExpandedBodyFormatProperties;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.content.expand.ExpandedHistoryProperties;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class measures the time taken to generate the query parameters and serialize the bodies of
+ * requests before they are sent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBenchmark {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private GetContentRequest getContentRequest;
+  private CreateContentRequest createContentRequest;
+  private UpdateContentRequest updateContentRequest;
+
+  @Setup
+  public void setUp() {
+    ExpandedContentProperties expandedProperties = new ExpandedContentProperties.Builder()
+        .addVersion()
+        .addSpace()
+        .addAncestors()
+        .addHistory(new ExpandedHistoryProperties.Builder().addLastUpdated().build())
+        .addBody(ContentBodyType.STORAGE,
+            new ExpandedBodyFormatProperties.Builder().addValue().build())
+        .build();
+
+    this.getContentRequest = new GetContentRequest.Builder()
+        .setSpaceKey("BENCH")
+        .setTitle("Benchmark Page")
+        .setType(StandardContentType.PAGE)
+        .setStatus(ContentStatus.CURRENT)
+        .setPostingDay(LocalDate.of(2019, 1, 1))
+        .setStartPosition(100)
+        .setLimit(25)
+        .setExpandedProperties(expandedProperties)
+        .build();
+
+    StringBuilder body = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      body.append("<p>Lorem ipsum dolor sit amet, consectetur adipiscing elit.</p>");
+    }
+
+    this.createContentRequest = new CreateContentRequest.Builder()
+        .setType(StandardContentType.PAGE)
+        .setSpaceKey("BENCH")
+        .setTitle("Benchmark Page")
+        .setAncestor("12345")
+        .setBody(ContentBodyType.STORAGE, body.toString())
+        .addLabel("benchmark")
+        .setExpandedResponseProperties(expandedProperties)
+        .build();
+
+    this.updateContentRequest = new UpdateContentRequest.Builder()
+        .setId("100000")
+        .setType(StandardContentType.PAGE)
+        .setTitle("Benchmark Page")
+        .setStatus(ContentStatus.CURRENT)
+        .setBody(ContentBodyType.STORAGE, body.toString())
+        .setVersion(4)
+        .build();
+  }
+
+  @Benchmark
+  public Map<String, String> getContentQueryParams() {
+    return this.getContentRequest.getQueryParams();
+  }
+
+  @Benchmark
+  public byte[] serializeCreateContentBody() throws JsonProcessingException {
+    return this.mapper.writeValueAsBytes(this.createContentRequest.getBodyEntity().get());
+  }
+
+  @Benchmark
+  public byte[] serializeUpdateContentBody() throws JsonProcessingException {
+    return this.mapper.writeValueAsBytes(this.updateContentRequest.getBodyEntity().get());
+  }
+}
@@ -0,0 +1,266 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.batch.BulkCreateItem;
+import com.github.crob1140.confluence.batch.BulkCreateResult;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.requests.CreateContentRequest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>This class creates every item of a bulk creation, with up to a fixed number of requests in
+ * progress at any time.</p>
+ *
+ * <p>Items are taken from their iterator only when there is capacity to create them, so that the
+ * items do not all need to be held in memory at once. An item whose parent has not yet been
+ * created waits until it has, and is then created before any further items are taken. If an item
+ * cannot be created, the error is recorded in its result and every item that depends on it fails
+ * without being sent, but the remaining items are still created.</p>
+ */
+class BulkContentCreator {
+
+  private final ConfluenceClient client;
+  private final Iterator<BulkCreateItem> items;
+  private final int parallelism;
+  private final List<BulkCreateResult> results = new ArrayList<>();
+  private final Deque<PendingItem> readyItems = new ArrayDeque<>();
+  private final Map<String, List<PendingItem>> waitingItems = new HashMap<>();
+  private final Map<String, String> createdIds = new HashMap<>();
+  private final Set<String> failedKeys = new HashSet<>();
+  private final Set<String> seenKeys = new HashSet<>();
+  private final CompletableFuture<List<BulkCreateResult>> completion = new CompletableFuture<>();
+  private final AtomicInteger drainRequests = new AtomicInteger();
+  private int inProgress;
+
+  /**
+   * This constructor creates a bulk creation of the given items.
+   *
+   * @param client The client to send the create requests with.
+   * @param items The items to create.
+   * @param parallelism The maximum number of create requests to have in progress at once.
+   */
+  BulkContentCreator(ConfluenceClient client, Iterator<BulkCreateItem> items, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be a positive number");
+    }
+
+    this.client = client;
+    this.items = items;
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * This method starts creating the items.
+   *
+   * @return A future that completes with the result of each item, in the order in which the items
+   * were given, once every item has either been created or failed. The future only completes
+   * exceptionally if the items themselves could not be iterated.
+   */
+  CompletableFuture<List<BulkCreateResult>> start() {
+    drain();
+    return this.completion;
+  }
+
+  /**
+   * <p>This method creates the items that can be created now, repeating until no request to do so
+   * arrived in the meantime.</p>
+   *
+   * <p>A create request that fails straight away completes on the calling thread, inside {@link
+   * #createAvailableItems()}. Rather than recursing, which would deepen the stack with every
+   * item that fails in a row, such a completion only records that the items must be checked again,
+   * and the thread that is already draining does so once it returns to this loop.</p>
+   */
+  private void drain() {
+    if (this.drainRequests.getAndIncrement() != 0) {
+      return;
+    }
+
+    do {
+      createAvailableItems();
+    } while (this.drainRequests.decrementAndGet() != 0);
+  }
+
+  /**
+   * This method sends the create request of each item that can be created, until the maximum
+   * number of requests are in progress.
+   */
+  private void createAvailableItems() {
+    List<PendingItem> itemsToCreate = new ArrayList<>();
+    synchronized (this) {
+      if (this.completion.isDone()) {
+        return;
+      }
+
+      try {
+        while (this.inProgress + itemsToCreate.size() < this.parallelism) {
+          if (!this.readyItems.isEmpty()) {
+            itemsToCreate.add(this.readyItems.poll());
+          } else if (this.items.hasNext()) {
+            PendingItem pendingItem = new PendingItem(this.results.size(), this.items.next());
+            this.results.add(null);
+            if (isReady(pendingItem)) {
+              itemsToCreate.add(pendingItem);
+            }
+          } else {
+            break;
+          }
+        }
+      } catch (RuntimeException e) {
+        this.completion.completeExceptionally(e);
+        return;
+      }
+
+      // The loop only stops short of the parallelism once every item has been taken
+      this.inProgress += itemsToCreate.size();
+      if (this.inProgress == 0) {
+        // Any items that are still waiting refer to a parent that is not part of the creation
+        new ArrayList<>(this.waitingItems.keySet()).forEach(parentKey -> failChildren(parentKey,
+            new IllegalStateException("The parent '" + parentKey + "' is not being created")));
+        this.completion.complete(new ArrayList<>(this.results));
+        return;
+      }
+    }
+
+    itemsToCreate.forEach(this::create);
+  }
+
+  /**
+   * This method returns whether or not the given item can be created now. Items that cannot be
+   * created yet are either failed or left waiting for their parent to be created.
+   *
+   * @param pendingItem The item to check.
+   * @return True if the item can be created now.
+   */
+  private boolean isReady(PendingItem pendingItem) {
+    BulkCreateItem item = pendingItem.item;
+    if (item.getKey() != null && !this.seenKeys.add(item.getKey())) {
+      fail(pendingItem, new IllegalStateException("The key '" + item.getKey()
+          + "' is used by more than one item"), false);
+      return false;
+    }
+
+    String parentKey = item.getParentKey();
+    if (parentKey == null || this.createdIds.containsKey(parentKey)) {
+      return true;
+    }
+
+    if (this.failedKeys.contains(parentKey)) {
+      fail(pendingItem, new IllegalStateException("The parent '" + parentKey
+          + "' was not created"), true);
+    } else {
+      this.waitingItems.computeIfAbsent(parentKey, key -> new ArrayList<>()).add(pendingItem);
+    }
+    return false;
+  }
+
+  /**
+   * This method sends the create request of the given item, setting its ancestor to the created
+   * parent if it has one.
+   *
+   * @param pendingItem The item to create.
+   */
+  private void create(PendingItem pendingItem) {
+    CompletableFuture<Content> pendingContent;
+    try {
+      CreateContentRequest request = pendingItem.item.getRequest();
+      String parentKey = pendingItem.item.getParentKey();
+      if (parentKey != null) {
+        String parentId;
+        synchronized (this) {
+          parentId = this.createdIds.get(parentKey);
+        }
+        request = request.withAncestor(parentId);
+      }
+      pendingContent = this.client.createContentAsync(request);
+    } catch (RuntimeException e) {
+      pendingContent = new CompletableFuture<>();
+      pendingContent.completeExceptionally(e);
+    }
+
+    pendingContent.whenComplete((content, error) -> {
+      synchronized (this) {
+        this.inProgress--;
+        if (error != null) {
+          fail(pendingItem, error instanceof CompletionException && error.getCause() != null
+              ? error.getCause() : error, true);
+        } else {
+          onCreated(pendingItem, content);
+        }
+      }
+      drain();
+    });
+  }
+
+  /**
+   * This method records that the given item was created, and makes any items that were waiting for
+   * it ready to be created.
+   *
+   * @param pendingItem The item that was created.
+   * @param content The content that was created.
+   */
+  private void onCreated(PendingItem pendingItem, Content content) {
+    this.results.set(pendingItem.index, new BulkCreateResult(pendingItem.item, content, null));
+    String key = pendingItem.item.getKey();
+    if (key != null) {
+      this.createdIds.put(key, content.getId());
+      List<PendingItem> children = this.waitingItems.remove(key);
+      if (children != null) {
+        children.forEach(this.readyItems::addFirst);
+      }
+    }
+  }
+
+  /**
+   * This method records that the given item could not be created.
+   *
+   * @param pendingItem The item that could not be created.
+   * @param error The error that prevented the item from being created.
+   * @param failChildren Whether or not the items that depend on the item should also fail.
+   */
+  private void fail(PendingItem pendingItem, Throwable error, boolean failChildren) {
+    this.results.set(pendingItem.index, new BulkCreateResult(pendingItem.item, null, error));
+    String key = pendingItem.item.getKey();
+    if (failChildren && key != null) {
+      this.failedKeys.add(key);
+      failChildren(key, new IllegalStateException("The parent '" + key + "' was not created"));
+    }
+  }
+
+  /**
+   * This method fails every item that is waiting for the item with the given key, along with any
+   * items that depend on them.
+   *
+   * @param parentKey The key of the parent item.
+   * @param error The error to record for each waiting item.
+   */
+  private void failChildren(String parentKey, Throwable error) {
+    List<PendingItem> children = this.waitingItems.remove(parentKey);
+    if (children != null) {
+      children.forEach(child -> fail(child, error, true));
+    }
+  }
+
+  /**
+   * This class represents an item along with its position in the bulk creation.
+   */
+  private static class PendingItem {
+
+    private final int index;
+    private final BulkCreateItem item;
+
+    private PendingItem(int index, BulkCreateItem item) {
+      this.index = index;
+      this.item = item;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package com.github.crob1140.confluence;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * <p>This class measures the bodies of the requests and responses that pass through the message
+ * body readers and writers of the HTTP client, recording the measurements in the counters that are
+ * set as a property of the request.</p>
+ *
+ * <p>As the body of each request is measured while the client's own writer serializes it, what is
+ * sent is exactly what would be sent if it were not being measured. If a request is sent more than
+ * once, the measurements of its body are those of the final attempt.</p>
+ */
+class ByteCountingInterceptor implements ReaderInterceptor, WriterInterceptor {
+
+  static final String COUNTERS_PROPERTY = ByteCountingInterceptor.class.getName() + ".counters";
+
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException {
+    Object counters = context.getProperty(COUNTERS_PROPERTY);
+    if (counters instanceof Counters) {
+      context.setInputStream(new CountingInputStream(context.getInputStream(),
+          ((Counters) counters).bytesReceived));
+    }
+    return context.proceed();
+  }
+
+  @Override
+  public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+    Object counters = context.getProperty(COUNTERS_PROPERTY);
+    if (!(counters instanceof Counters)) {
+      context.proceed();
+      return;
+    }
+
+    AtomicLong bytesSent = new AtomicLong();
+    context.setOutputStream(new CountingOutputStream(context.getOutputStream(), bytesSent));
+    long writeStart = System.nanoTime();
+    context.proceed();
+    ((Counters) counters).writeTime.set(System.nanoTime() - writeStart);
+    ((Counters) counters).bytesSent.set(bytesSent.get());
+  }
+
+  /**
+   * This class holds the measurements of a single request.
+   */
+  static class Counters {
+
+    final AtomicLong bytesReceived = new AtomicLong();
+    final AtomicLong bytesSent = new AtomicLong();
+    final AtomicLong writeTime = new AtomicLong();
+  }
+
+  /**
+   * This class adds the number of bytes that are read from a stream to a counter.
+   */
+  private static class CountingInputStream extends FilterInputStream {
+
+    private final AtomicLong counter;
+
+    private CountingInputStream(InputStream inputStream, AtomicLong counter) {
+      super(inputStream);
+      this.counter = counter;
+    }
+
+    @Override
+    public int read() throws IOException {
+      int value = super.read();
+      if (value != -1) {
+        this.counter.incrementAndGet();
+      }
+      return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int count = super.read(buffer, offset, length);
+      if (count > 0) {
+        this.counter.addAndGet(count);
+      }
+      return count;
+    }
+
+    @Override
+    public long skip(long count) throws IOException {
+      long skipped = super.skip(count);
+      this.counter.addAndGet(skipped);
+      return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+      return false;
+    }
+  }
+
+  /**
+   * This class adds the number of bytes that are written to a stream to a counter.
+   */
+  private static class CountingOutputStream extends FilterOutputStream {
+
+    private final AtomicLong counter;
+
+    private CountingOutputStream(OutputStream outputStream, AtomicLong counter) {
+      super(outputStream);
+      this.counter = counter;
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+      this.out.write(value);
+      this.counter.incrementAndGet();
+    }
+
+    @Override
+    public void write(byte[] buffer, int offset, int length) throws IOException {
+      this.out.write(buffer, offset, length);
+      this.counter.addAndGet(length);
+    }
+  }
+}
@@ -1,31 +1,112 @@
 package com.github.crob1140.confluence;
 
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static javax.ws.rs.core.Response.Status.NOT_MODIFIED;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+import static javax.ws.rs.core.Response.Status.TOO_MANY_REQUESTS;
+
 import com.github.crob1140.confluence.auth.AuthMethod;
+import com.github.crob1140.confluence.batch.BulkCreateItem;
+import com.github.crob1140.confluence.batch.BulkCreateResult;
+import com.github.crob1140.confluence.batch.ContentBatchResult;
+import com.github.crob1140.confluence.cache.ContentCache;
+import com.github.crob1140.confluence.cache.ValidatorCache;
+import com.github.crob1140.confluence.cache.ValidatorCache.CachedResponse;
+import com.github.crob1140.confluence.cache.VersionRegistry;
 import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentObserver;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
 import com.github.crob1140.confluence.errors.ConfluenceRequestException;
 import com.github.crob1140.confluence.errors.ErrorResponse;
+import com.github.crob1140.confluence.limiter.AdaptiveConcurrencyLimiter;
+import com.github.crob1140.confluence.limiter.AdaptiveConcurrencyLimiter.Permit;
+import com.github.crob1140.confluence.metrics.RequestListener;
+import com.github.crob1140.confluence.metrics.RequestMetrics;
 import com.github.crob1140.confluence.requests.ConfluenceRequest;
 import com.github.crob1140.confluence.requests.CreateContentRequest;
+import com.github.crob1140.confluence.requests.GetContentByIdRequest;
 import com.github.crob1140.confluence.requests.GetContentRequest;
 import com.github.crob1140.confluence.requests.GetContentResponse;
+import com.github.crob1140.confluence.requests.GetContentResponseParser;
+import com.github.crob1140.confluence.requests.SearchContentRequest;
 import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import com.github.crob1140.confluence.retry.ConflictStrategy;
+import com.github.crob1140.confluence.retry.RetryPolicy;
+import com.github.crob1140.confluence.util.Futures;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.glassfish.jersey.apache.connector.ApacheConnectorProvider;
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
 
 /**
  * This class sends requests to a Confluence Cloud server.
  */
-public class ConfluenceClient {
+public class ConfluenceClient implements AutoCloseable {
+
+  private static final ConflictStrategy NEXT_VERSION_CONFLICT_STRATEGY =
+      new ConflictStrategy.Builder()
+          .setMergeFunction(ConfluenceClient::resendUnchanged)
+          .setMaxAttempts(2)
+          .build();
 
   private AuthMethod authMethod;
   private WebTarget wikiTarget;
+  private Executor executor = ForkJoinPool.commonPool();
+  private Client ownedClient;
+  private IdleConnectionEvictor connectionEvictor;
+  private ContentCache contentCache;
+  private ValidatorCache validatorCache;
+  private RetryPolicy retryPolicy;
+  private ScheduledExecutorService retryScheduler;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private Map<List<Object>, CompletableFuture<Object>> inFlightRequests;
+  private List<RequestListener> requestListeners = Collections.emptyList();
+  private VersionRegistry versionRegistry;
+  private List<ContentObserver> contentObservers = Collections.emptyList();
+  private KeyedSerialExecutor contentWriteExecutor;
 
   /**
    * <p>This constructor creates a client that can send requests to the Confluence Cloud server
@@ -37,7 +118,7 @@ public class ConfluenceClient {
    * @param wikiTarget The resource target pointing to the location of the Confluence Cloud server.
    */
   public ConfluenceClient(WebTarget wikiTarget) {
-    this.wikiTarget = wikiTarget;
+    this.wikiTarget = registerInterceptors(wikiTarget);
   }
 
   /**
@@ -56,6 +137,100 @@ public class ConfluenceClient {
     this.authMethod = authMethod;
   }
 
+  /**
+   * <p>This constructor creates a client that can send requests to the Confluence Cloud server
+   * located at the given target.</p>
+   *
+   * <p>The requests generated by a client created through this constructor will use the
+   * credentials defined by the given {@link AuthMethod}, if any. Responses to asynchronous requests
+   * will be de-serialized, and any errors mapped, on the given {@link Executor}.</p>
+   *
+   * @param wikiTarget The resource target pointing to the location of the Confluence Cloud server.
+   * @param authMethod The authorization method to use for all requests generated by this client,
+   * or null if the requests should not include any authorisation.
+   * @param executor The executor used to process the responses to asynchronous requests.
+   */
+  public ConfluenceClient(WebTarget wikiTarget, AuthMethod authMethod, Executor executor) {
+    this(wikiTarget, authMethod);
+    this.executor = executor;
+  }
+
+  private ConfluenceClient(Builder builder) {
+    this.authMethod = builder.authMethod;
+    this.contentCache = builder.contentCache;
+    this.validatorCache = builder.validatorCache;
+    this.retryPolicy = builder.retryPolicy;
+    this.concurrencyLimiter = builder.concurrencyLimiter;
+    this.requestListeners = new ArrayList<>(builder.requestListeners);
+    this.versionRegistry = builder.versionRegistry;
+    this.contentObservers = new ArrayList<>(builder.contentObservers);
+    if (this.versionRegistry != null) {
+      this.contentObservers.add(this.versionRegistry);
+    }
+    if (this.contentCache != null) {
+      this.contentObservers.add(this.contentCache);
+    }
+    if (builder.serializeWritesPerContent) {
+      this.contentWriteExecutor = new KeyedSerialExecutor();
+    }
+    if (builder.requestCoalescing) {
+      this.inFlightRequests = new ConcurrentHashMap<>();
+    }
+    if (this.retryPolicy != null) {
+      this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "confluence-client-retry");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    if (builder.executor != null) {
+      this.executor = builder.executor;
+    }
+
+    if (builder.wikiTarget != null) {
+      this.wikiTarget = registerInterceptors(builder.wikiTarget);
+      return;
+    }
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(
+        builder.connectionTimeToLive.toMillis(), TimeUnit.MILLISECONDS);
+    connectionManager.setMaxTotal(builder.maxConnections);
+    connectionManager.setDefaultMaxPerRoute(builder.maxConnectionsPerRoute);
+
+    ClientConfig clientConfig = new ClientConfig()
+        .connectorProvider(new ApacheConnectorProvider())
+        .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+        .property(ClientProperties.CONNECT_TIMEOUT, (int) builder.connectTimeout.toMillis())
+        .property(ClientProperties.READ_TIMEOUT, (int) builder.readTimeout.toMillis())
+        .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.BUFFERED);
+    this.ownedClient = ClientBuilder.newClient(clientConfig);
+    this.wikiTarget = registerInterceptors(this.ownedClient.target(builder.wikiUrl));
+
+    if (!builder.idleConnectionTimeout.isNegative() && !builder.idleConnectionTimeout.isZero()) {
+      long idleMillis = builder.idleConnectionTimeout.toMillis();
+      this.connectionEvictor = new IdleConnectionEvictor(connectionManager, idleMillis,
+          TimeUnit.MILLISECONDS, idleMillis, TimeUnit.MILLISECONDS);
+      this.connectionEvictor.start();
+    }
+  }
+
+  /**
+   * This method returns a target for the same location as the given target, with the interceptors
+   * that this client requires registered on it. The interceptors are registered on a copy of the
+   * target, so that the configuration of the given target, which may be shared with other code, is
+   * left unchanged.
+   *
+   * @param target The target that requests are sent to
+   * @return The target that this client should send requests to
+   */
+  private WebTarget registerInterceptors(WebTarget target) {
+    if (!this.requestListeners.isEmpty() || RequestEventRecorder.isAvailable()) {
+      // A derived target has its own copy of the configuration of the target it was derived from
+      return target.path("").register(ByteCountingInterceptor.class);
+    }
+    return target;
+  }
+
   /**
    * This method sends a request to the Confluence Cloud server to retrieve content matching the
    * conditions set in the given {@link GetContentRequest}.
@@ -70,8 +245,170 @@ public class ConfluenceClient {
   }
 
   /**
-   * This method sends a request to the Confluence Cloud server to update content the content as
-   * defined in the given {@link UpdateContentRequest}.
+   * This method sends a request to the Confluence Cloud server to retrieve a page of content
+   * matching the CQL query set in the given {@link SearchContentRequest}.
+   *
+   * @param request The request defining the query, and which page of results should be returned.
+   * @return The page of content in the Confluence Cloud server that matches the query, along with
+   * its pagination details.
+   * @throws ConfluenceRequestException if an error response is returned from the server
+   */
+  public GetContentResponse searchContent(SearchContentRequest request)
+      throws ConfluenceRequestException {
+    return (GetContentResponse) performRequest(request);
+  }
+
+  /**
+   * <p>This method sends a request to the Confluence Cloud server to retrieve content matching the
+   * conditions set in the given {@link GetContentRequest}, passing each result to the given
+   * consumer as soon as it has been parsed.</p>
+   *
+   * <p>Unlike {@link #getContent(GetContentRequest)}, the page of results is never held in memory
+   * as a whole, which limits the memory used by pages containing large expanded properties, such
+   * as the body of each result.</p>
+   *
+   * @param request The request defining the conditions for the Content that should be returned.
+   * @param consumer The consumer to pass each result to.
+   * @return The pagination details of the response. The results of this response will always be
+   * empty, as they are passed to the given consumer instead.
+   * @throws ConfluenceRequestException if an error response is returned from the server
+   */
+  public GetContentResponse getContent(GetContentRequest request,
+      Consumer<? super Content> consumer) throws ConfluenceRequestException {
+    // The results are never held as a whole, so there is no cached response to fall back on
+    PreparedRequest preparedRequest = prepareRequest(request, false);
+    Response response = null;
+    try {
+      response = sendRequestWithRetries(preparedRequest);
+      preparedRequest.responseTime = System.nanoTime();
+      checkResponseStatus(response);
+      GetContentResponse contentResponse;
+      Consumer<? super Content> observingConsumer = this.contentObservers.isEmpty() ? consumer
+          : content -> {
+            observeContent(content);
+            consumer.accept(content);
+          };
+      try (InputStream entityStream = response.readEntity(InputStream.class)) {
+        contentResponse = GetContentResponseParser.parse(entityStream, observingConsumer);
+      } catch (IOException e) {
+        throw new ProcessingException("Failed to parse the response", e);
+      }
+      onRequestCompleted(preparedRequest, response, null);
+      return contentResponse;
+    } catch (ConfluenceRequestException | RuntimeException e) {
+      onRequestCompleted(preparedRequest, response, e);
+      throw e;
+    }
+  }
+
+  /**
+   * <p>This method lazily retrieves every page of content matching the conditions set in the given
+   * {@link GetContentRequest}, starting from the page defined by the request.</p>
+   *
+   * <p>Each page is requested in the background as soon as the previous page has been received,
+   * so that the next page is usually available by the time the current page has been consumed.
+   * The returned stream should be closed if it is not fully consumed, so that any pending page
+   * request is cancelled.</p>
+   *
+   * @param request The request defining the conditions for the Content that should be returned,
+   * and the size of each page.
+   * @return A stream of all content in the Confluence Cloud server that matches the conditions set
+   * in the given {@link GetContentRequest}. Consuming the stream throws an {@link
+   * com.github.crob1140.confluence.errors.UncheckedConfluenceRequestException} if an error
+   * response is returned from the server.
+   */
+  public Stream<Content> streamContent(GetContentRequest request) {
+    ContentPageIterator iterator = new ContentPageIterator(this, request);
+    return streamPages(iterator, iterator::close);
+  }
+
+  /**
+   * <p>This method lazily retrieves every page of content matching the conditions set in the given
+   * {@link GetContentRequest}, requesting up to the given number of pages concurrently.</p>
+   *
+   * <p>The first page is requested on its own to determine the size of each page, after which the
+   * following pages are requested by start position. The results are returned in the same order
+   * as they would be by {@link #streamContent(GetContentRequest)}. The returned stream should be
+   * closed if it is not fully consumed, so that any pending page requests are cancelled.</p>
+   *
+   * @param request The request defining the conditions for the Content that should be returned,
+   * and the size of each page.
+   * @param parallelism The maximum number of page requests to have in progress at once.
+   * @return A stream of all content in the Confluence Cloud server that matches the conditions set
+   * in the given {@link GetContentRequest}. Consuming the stream throws an {@link
+   * com.github.crob1140.confluence.errors.UncheckedConfluenceRequestException} if an error
+   * response is returned from the server.
+   */
+  public Stream<Content> streamContent(GetContentRequest request, int parallelism) {
+    ParallelContentPageIterator iterator = new ParallelContentPageIterator(this, request,
+        parallelism, true);
+    return streamPages(iterator, iterator::close);
+  }
+
+  /**
+   * <p>This method lazily retrieves every page of content matching the conditions set in the given
+   * {@link GetContentRequest}, requesting up to the given number of pages concurrently.</p>
+   *
+   * <p>This method behaves the same as {@link #streamContent(GetContentRequest, int)}, except that
+   * the results of each page are returned as soon as that page is received, regardless of whether
+   * the pages before it have been received yet. This should be preferred when the order of the
+   * results does not matter.</p>
+   *
+   * @param request The request defining the conditions for the Content that should be returned,
+   * and the size of each page.
+   * @param parallelism The maximum number of page requests to have in progress at once.
+   * @return A stream of all content in the Confluence Cloud server that matches the conditions set
+   * in the given {@link GetContentRequest}, in no particular order. Consuming the stream throws an
+   * {@link com.github.crob1140.confluence.errors.UncheckedConfluenceRequestException} if an error
+   * response is returned from the server.
+   */
+  public Stream<Content> streamContentUnordered(GetContentRequest request, int parallelism) {
+    ParallelContentPageIterator iterator = new ParallelContentPageIterator(this, request,
+        parallelism, false);
+    return streamPages(iterator, iterator::close);
+  }
+
+  /**
+   * <p>This method sends a request to the Confluence Cloud server to retrieve the content with the
+   * ID set in the given {@link GetContentByIdRequest}.</p>
+   *
+   * <p>If this client has a {@link ContentCache}, the latest version of the content is returned
+   * from the cache when it is present, and is added to the cache when it is not. If the cached
+   * content was loaded from a snapshot and has not been revalidated since, only the version of the
+   * content is requested, and the cached content is returned if it is still the latest
+   * version.</p>
+   *
+   * @param request The request defining the content that should be returned.
+   * @return The content with the ID set in the given {@link GetContentByIdRequest}.
+   * @throws ConfluenceRequestException if an error response is returned from the server
+   */
+  public Content getContentById(GetContentByIdRequest request) throws ConfluenceRequestException {
+    Optional<Content> cachedContent = getCachedContent(request);
+    if (cachedContent.isPresent()) {
+      return cachedContent.get();
+    }
+
+    if (needsRevalidation(request)) {
+      cachedContent = revalidateCachedContent(request,
+          (Content) performRequest(createVersionRequest(request.getId())));
+      if (cachedContent.isPresent()) {
+        return cachedContent.get();
+      }
+    }
+    return cacheContent(request, (Content) performRequest(request));
+  }
+
+  /**
+   * <p>This method sends a request to the Confluence Cloud server to update content the content as
+   * defined in the given {@link UpdateContentRequest}.</p>
+   *
+   * <p>If the request updates the content to its next version, the latest version of the content
+   * is taken from the {@link VersionRegistry} of this client when it is known, and is requested
+   * otherwise. If the server responds that the version conflicts with a newer version, the latest
+   * version is requested and the update is sent once more.</p>
+   *
+   * <p>If this client sends writes to the same content one at a time, this method waits until
+   * every earlier update to the same content has completed before sending the update.</p>
    *
    * @param request The request defining what updates to apply, and which content to apply them to.
    * @return The new state of the content after the updates in the given {@link
@@ -79,7 +416,54 @@ public class ConfluenceClient {
    * @throws ConfluenceRequestException if an error response is returned from the server
    */
   public Content updateContent(UpdateContentRequest request) throws ConfluenceRequestException {
-    return (Content) performRequest(request);
+    return updateContent(request, getDefaultConflictStrategy(request));
+  }
+
+  /**
+   * <p>This method sends a request to the Confluence Cloud server to update the content as defined
+   * in the given {@link UpdateContentRequest}, resolving any version conflicts with the given
+   * {@link ConflictStrategy}.</p>
+   *
+   * <p>If the server responds that the update conflicts with a newer version of the content, the
+   * latest state of the content is requested and merged with the update by the strategy, and the
+   * merged update is sent with the version following the latest version. This is repeated until
+   * the update succeeds, the strategy gives up, or its maximum number of attempts is reached.
+   * Updates to the next version of the content determine their first version in the same way as
+   * {@link #updateContent(UpdateContentRequest)}.</p>
+   *
+   * @param request The request defining what updates to apply, and which content to apply them to.
+   * @param conflictStrategy The strategy that resolves version conflicts, or null if conflicts
+   * should not be resolved.
+   * @return The new state of the content after the updates were applied.
+   * @throws ConfluenceRequestException if an error response is returned from the server, including
+   * the last conflict if it could not be resolved
+   */
+  public Content updateContent(UpdateContentRequest request, ConflictStrategy conflictStrategy)
+      throws ConfluenceRequestException {
+    if (this.contentWriteExecutor != null) {
+      return awaitResult(updateContentAsync(request, conflictStrategy));
+    }
+
+    UpdateContentRequest attempt = request.isNextVersion()
+        ? request.withVersion(getLatestVersion(request.getId()) + 1) : request;
+    for (int attemptCount = 1; ; attemptCount++) {
+      try {
+        return onContentModified((Content) performRequest(attempt));
+      } catch (ConfluenceRequestException e) {
+        if (!shouldResolveConflict(e, conflictStrategy, attemptCount)) {
+          throw e;
+        }
+
+        Content latestContent = (Content) performRequest(
+            createLatestContentRequest(request.getId(), conflictStrategy));
+        Optional<UpdateContentRequest> mergedRequest = conflictStrategy.merge(latestContent,
+            request);
+        if (!mergedRequest.isPresent()) {
+          throw e;
+        }
+        attempt = mergedRequest.get().withVersion(getVersionNumber(latestContent) + 1);
+      }
+    }
   }
 
   /**
@@ -92,16 +476,475 @@ public class ConfluenceClient {
    * @throws ConfluenceRequestException If the server responses with an error status code
    */
   public Content createContent(CreateContentRequest request) throws ConfluenceRequestException {
-    return (Content) performRequest(request);
+    return onContentModified((Content) performRequest(request));
+  }
+
+  /**
+   * <p>This method retrieves the content with each of the given IDs, using as few requests to the
+   * Confluence Cloud server as possible.</p>
+   *
+   * <p>Rather than sending a request for each ID, the IDs are split into chunks that are each
+   * retrieved by a single CQL search of the form {@code id in (...)}, where each chunk is sized so
+   * that its request does not exceed the length limits on URLs. The chunks are requested
+   * concurrently. If this client has a {@link ContentCache}, the latest version of any content
+   * that is present in the cache is returned from it, and the retrieved content is added to
+   * it.</p>
+   *
+   * <p>As the content is found by searching, only current content that the user has permission
+   * to view is returned. The IDs of any other content are reported as missing.</p>
+   *
+   * @param ids The IDs of the content to retrieve. Duplicate IDs are only retrieved once.
+   * @param expandedProperties The properties to expand in the retrieved content, or null if no
+   * properties should be expanded.
+   * @return The content that was found, keyed by its ID, along with the IDs that were not found.
+   * @throws ConfluenceRequestException if an error response is returned from the server
+   * @throws IllegalArgumentException If any of the IDs are not numeric.
+   */
+  public ContentBatchResult getContentByIds(Collection<String> ids,
+      ExpandedContentProperties expandedProperties) throws ConfluenceRequestException {
+    return awaitResult(getContentByIdsAsync(ids, expandedProperties));
+  }
+
+  /**
+   * <p>This method creates every item in the given stream, with up to the given number of create
+   * requests in progress at once.</p>
+   *
+   * <p>Items are taken from the stream only as there is capacity to create them. An item that
+   * refers to the key of another item as its parent is only created once its parent has been
+   * created, under the content that was created for it. A failure to create one item does not stop
+   * the others from being created, although any items that depend on it fail without being
+   * sent.</p>
+   *
+   * @param items The items to create.
+   * @param parallelism The maximum number of create requests to have in progress at once.
+   * @return The result of each item, in the order of the stream, containing either the content
+   * that was created or the error that prevented it from being created.
+   * @throws IllegalArgumentException If the parallelism is not a positive number.
+   */
+  public List<BulkCreateResult> createContentInBulk(Stream<BulkCreateItem> items,
+      int parallelism) {
+    try {
+      return createContentInBulkAsync(items, parallelism).join();
+    } catch (CompletionException e) {
+      Throwable cause = unwrapCompletionException(e);
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * This method asynchronously sends a request to the Confluence Cloud server to retrieve content
+   * matching the conditions set in the given {@link GetContentRequest}.
+   *
+   * @param request The request defining the conditions for the Content that should be returned.
+   * @return A future that completes with the content in the Confluence Cloud server that matches
+   * the conditions set in the given {@link GetContentRequest}, or completes exceptionally with a
+   * {@link ConfluenceRequestException} if an error response is returned from the server.
+   */
+  public CompletableFuture<List<Content>> getContentAsync(GetContentRequest request) {
+    return performRequestAsync(request)
+        .thenApply(response -> ((GetContentResponse) response).getResults());
+  }
+
+  /**
+   * This method asynchronously sends a request to the Confluence Cloud server to retrieve the
+   * content with the ID set in the given {@link GetContentByIdRequest}. If this client has a {@link
+   * ContentCache}, the cache is used in the same way as by {@link
+   * #getContentById(GetContentByIdRequest)}.
+   *
+   * @param request The request defining the content that should be returned.
+   * @return A future that completes with the content with the ID set in the given {@link
+   * GetContentByIdRequest}, or completes exceptionally with a {@link ConfluenceRequestException}
+   * if an error response is returned from the server.
+   */
+  public CompletableFuture<Content> getContentByIdAsync(GetContentByIdRequest request) {
+    Optional<Content> cachedContent = getCachedContent(request);
+    if (cachedContent.isPresent()) {
+      return CompletableFuture.completedFuture(cachedContent.get());
+    }
+
+    if (needsRevalidation(request)) {
+      return performRequestAsync(createVersionRequest(request.getId()))
+          .thenCompose(response -> {
+            Optional<Content> revalidatedContent = revalidateCachedContent(request,
+                (Content) response);
+            if (revalidatedContent.isPresent()) {
+              return CompletableFuture.completedFuture(revalidatedContent.get());
+            }
+            return performRequestAsync(request)
+                .thenApply(fullResponse -> cacheContent(request, (Content) fullResponse));
+          });
+    }
+    return performRequestAsync(request)
+        .thenApply(response -> cacheContent(request, (Content) response));
+  }
+
+  /**
+   * This method asynchronously retrieves the content with each of the given IDs, in the same way
+   * as {@link #getContentByIds(Collection, ExpandedContentProperties)}.
+   *
+   * @param ids The IDs of the content to retrieve. Duplicate IDs are only retrieved once.
+   * @param expandedProperties The properties to expand in the retrieved content, or null if no
+   * properties should be expanded.
+   * @return A future that completes with the content that was found, keyed by its ID, along with
+   * the IDs that were not found, or completes exceptionally with a {@link
+   * ConfluenceRequestException} if an error response is returned from the server. Cancelling the
+   * future stops any following pages of search results from being requested.
+   * @throws IllegalArgumentException If any of the IDs are not numeric.
+   */
+  public CompletableFuture<ContentBatchResult> getContentByIdsAsync(Collection<String> ids,
+      ExpandedContentProperties expandedProperties) {
+    if (this.contentCache == null) {
+      return new ContentBatchFetcher(this).fetch(ids, expandedProperties);
+    }
+
+    Map<String, Content> cachedContent = new LinkedHashMap<>();
+    List<String> uncachedIds = new ArrayList<>();
+    for (String id : new LinkedHashSet<>(ids)) {
+      Optional<Content> content = this.contentCache.get(id, expandedProperties);
+      if (content.isPresent()) {
+        cachedContent.put(id, content.get());
+      } else {
+        uncachedIds.add(id);
+      }
+    }
+
+    if (uncachedIds.isEmpty()) {
+      return CompletableFuture.completedFuture(
+          new ContentBatchResult(cachedContent, Collections.emptySet()));
+    }
+
+    CompletableFuture<ContentBatchResult> pendingFetch =
+        new ContentBatchFetcher(this).fetch(uncachedIds, expandedProperties);
+    CompletableFuture<ContentBatchResult> combinedResult = pendingFetch.thenApply(result -> {
+      Map<String, Content> content = new LinkedHashMap<>();
+      for (String id : new LinkedHashSet<>(ids)) {
+        Content found = cachedContent.containsKey(id) ? cachedContent.get(id)
+            : result.getContent().get(id);
+        if (found != null) {
+          content.put(id, found);
+        }
+      }
+      result.getContent().values()
+          .forEach(found -> this.contentCache.put(found, expandedProperties));
+      return new ContentBatchResult(content, result.getMissingIds());
+    });
+    combinedResult.whenComplete((result, error) -> {
+      if (combinedResult.isCancelled()) {
+        pendingFetch.cancel(false);
+      }
+    });
+    return combinedResult;
+  }
+
+  /**
+   * This method asynchronously sends a request to the Confluence Cloud server to update the content
+   * as defined in the given {@link UpdateContentRequest}. Updates to the next version of the
+   * content are handled in the same way as by {@link #updateContent(UpdateContentRequest)}.
+   *
+   * @param request The request defining what updates to apply, and which content to apply them to.
+   * @return A future that completes with the new state of the content after the updates were
+   * applied, or completes exceptionally with a {@link ConfluenceRequestException} if an error
+   * response is returned from the server.
+   */
+  public CompletableFuture<Content> updateContentAsync(UpdateContentRequest request) {
+    return updateContentAsync(request, getDefaultConflictStrategy(request));
+  }
+
+  /**
+   * This method asynchronously sends a request to the Confluence Cloud server to update the content
+   * as defined in the given {@link UpdateContentRequest}, resolving any version conflicts with the
+   * given {@link ConflictStrategy} in the same way as {@link #updateContent(UpdateContentRequest,
+   * ConflictStrategy)}.
+   *
+   * @param request The request defining what updates to apply, and which content to apply them to.
+   * @param conflictStrategy The strategy that resolves version conflicts, or null if conflicts
+   * should not be resolved.
+   * @return A future that completes with the new state of the content after the updates were
+   * applied, or completes exceptionally with a {@link ConfluenceRequestException} if an error
+   * response is returned from the server, including the last conflict if it could not be resolved.
+   */
+  public CompletableFuture<Content> updateContentAsync(UpdateContentRequest request,
+      ConflictStrategy conflictStrategy) {
+    if (this.contentWriteExecutor != null) {
+      return this.contentWriteExecutor.submit(request.getId(),
+          () -> sendUpdateAsync(request, conflictStrategy));
+    }
+    return sendUpdateAsync(request, conflictStrategy);
+  }
+
+  /**
+   * This method asynchronously sends the given update, determining the next version of the
+   * content first if the request requires it.
+   *
+   * @param request The request defining what updates to apply, and which content to apply them to.
+   * @param conflictStrategy The strategy that resolves version conflicts, or null if conflicts
+   * should not be resolved.
+   * @return A future that completes with the new state of the content after the updates were
+   * applied.
+   */
+  private CompletableFuture<Content> sendUpdateAsync(UpdateContentRequest request,
+      ConflictStrategy conflictStrategy) {
+    CompletableFuture<UpdateContentRequest> firstAttempt = request.isNextVersion()
+        ? getLatestVersionAsync(request.getId())
+        .thenApply(latestVersion -> request.withVersion(latestVersion + 1))
+        : CompletableFuture.completedFuture(request);
+    return firstAttempt
+        .thenCompose(attempt -> sendUpdateAttemptAsync(request, attempt, conflictStrategy, 1))
+        .thenApply(response -> onContentModified((Content) response));
+  }
+
+  /**
+   * This method asynchronously sends an attempt at the given update, and resolves any conflict
+   * with the given strategy by sending another attempt.
+   *
+   * @param request The update as it was originally given.
+   * @param attempt The update to send for this attempt.
+   * @param conflictStrategy The strategy that resolves version conflicts, or null if conflicts
+   * should not be resolved.
+   * @param attemptCount The number of this attempt, starting from 1.
+   * @return A future that completes with the servers response to the attempt that succeeded.
+   */
+  private CompletableFuture<Object> sendUpdateAttemptAsync(UpdateContentRequest request,
+      UpdateContentRequest attempt, ConflictStrategy conflictStrategy, int attemptCount) {
+    return performRequestAsync(attempt)
+        .handle((response, error) -> {
+          if (error == null) {
+            return CompletableFuture.completedFuture(response);
+          }
+
+          Throwable cause = unwrapCompletionException(error);
+          if (!shouldResolveConflict(cause, conflictStrategy, attemptCount)) {
+            return failedFuture(cause);
+          }
+
+          return performRequestAsync(createLatestContentRequest(request.getId(), conflictStrategy))
+              .thenCompose(latestResponse -> {
+                Content latestContent = (Content) latestResponse;
+                Optional<UpdateContentRequest> mergedRequest = conflictStrategy.merge(
+                    latestContent, request);
+                if (!mergedRequest.isPresent()) {
+                  return failedFuture(cause);
+                }
+                return sendUpdateAttemptAsync(request,
+                    mergedRequest.get().withVersion(getVersionNumber(latestContent) + 1),
+                    conflictStrategy, attemptCount + 1);
+              });
+        })
+        .thenCompose(result -> result);
+  }
+
+  /**
+   * This method asynchronously sends a request to the Confluence Cloud server to create the content
+   * defined in the given {@link CreateContentRequest}.
+   *
+   * @param request The request defining the content that should be created, and what fields should
+   * be returned in the response.
+   * @return A future that completes with the content that was created, or completes exceptionally
+   * with a {@link ConfluenceRequestException} if an error response is returned from the server.
+   */
+  public CompletableFuture<Content> createContentAsync(CreateContentRequest request) {
+    return performRequestAsync(request)
+        .thenApply(response -> onContentModified((Content) response));
+  }
+
+  /**
+   * This method asynchronously creates every item in the given stream, in the same way as {@link
+   * #createContentInBulk(Stream, int)}.
+   *
+   * @param items The items to create.
+   * @param parallelism The maximum number of create requests to have in progress at once.
+   * @return A future that completes with the result of each item, in the order of the stream, once
+   * every item has either been created or failed.
+   * @throws IllegalArgumentException If the parallelism is not a positive number.
+   */
+  public CompletableFuture<List<BulkCreateResult>> createContentInBulkAsync(
+      Stream<BulkCreateItem> items, int parallelism) {
+    return new BulkContentCreator(this, items.iterator(), parallelism).start();
+  }
+
+  /**
+   * This method releases the HTTP client and the pooled connections owned by this client, if it
+   * was created through a {@link Builder} with a wiki URL, along with any thread used to schedule
+   * retries. Clients that were given a {@link WebTarget} do not own the underlying HTTP client, so
+   * it is left open.
+   */
+  @Override
+  public void close() {
+    if (this.retryScheduler != null) {
+      this.retryScheduler.shutdown();
+    }
+
+    if (this.connectionEvictor != null) {
+      this.connectionEvictor.shutdown();
+    }
+
+    if (this.ownedClient != null) {
+      this.ownedClient.close();
+    }
   }
 
   /**
-   * This method performs the given request and returns the servers response.
+   * This method performs the given request and returns the servers response. If request
+   * coalescing is enabled and an identical GET request is already in progress, this method waits
+   * for its result instead of sending another request.
    *
    * @param request The request to perform
    * @throws ConfluenceRequestException If the server responses with an error status code
    */
   Object performRequest(ConfluenceRequest request) throws ConfluenceRequestException {
+    List<Object> coalescingKey = getCoalescingKey(request);
+    if (coalescingKey == null) {
+      return executeRequest(request);
+    }
+
+    CompletableFuture<Object> pendingResult = new CompletableFuture<>();
+    CompletableFuture<Object> inFlightResult =
+        this.inFlightRequests.putIfAbsent(coalescingKey, pendingResult);
+    if (inFlightResult != null) {
+      return awaitResult(inFlightResult);
+    }
+
+    try {
+      Object result = executeRequest(request);
+      this.inFlightRequests.remove(coalescingKey, pendingResult);
+      pendingResult.complete(result);
+      return result;
+    } catch (ConfluenceRequestException | RuntimeException | Error e) {
+      this.inFlightRequests.remove(coalescingKey, pendingResult);
+      pendingResult.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  /**
+   * This method sends the given request and returns the servers response.
+   *
+   * @param request The request to send
+   * @throws ConfluenceRequestException If the server responses with an error status code
+   */
+  private Object executeRequest(ConfluenceRequest request) throws ConfluenceRequestException {
+    PreparedRequest preparedRequest = prepareRequest(request);
+    Response response = null;
+    try {
+      response = sendRequestWithRetries(preparedRequest);
+      preparedRequest.responseTime = System.nanoTime();
+      Object entity = readResponse(preparedRequest, response);
+      onRequestCompleted(preparedRequest, response, null);
+      return entity;
+    } catch (ConfluenceRequestException | RuntimeException e) {
+      onRequestCompleted(preparedRequest, response, e);
+      throw e;
+    }
+  }
+
+  /**
+   * This method performs the given request without blocking the calling thread. The response is
+   * de-serialized on the executor configured for this client.
+   *
+   * If request coalescing is enabled and an identical GET request is already in progress, the
+   * returned future completes with its result instead of sending another request.
+   *
+   * @param request The request to perform
+   * @return A future that completes with the servers response, or completes exceptionally with a
+   * {@link ConfluenceRequestException} if the server responds with an error status code.
+   */
+  CompletableFuture<Object> performRequestAsync(ConfluenceRequest request) {
+    List<Object> coalescingKey = getCoalescingKey(request);
+    if (coalescingKey == null) {
+      return executeRequestAsync(request);
+    }
+
+    CompletableFuture<Object> pendingResult = new CompletableFuture<>();
+    CompletableFuture<Object> inFlightResult =
+        this.inFlightRequests.putIfAbsent(coalescingKey, pendingResult);
+    if (inFlightResult == null) {
+      inFlightResult = pendingResult;
+      executeRequestAsync(request).whenComplete((response, error) -> {
+        this.inFlightRequests.remove(coalescingKey, pendingResult);
+        if (error != null) {
+          pendingResult.completeExceptionally(error);
+        } else {
+          pendingResult.complete(response);
+        }
+      });
+    }
+
+    return Futures.copy(inFlightResult);
+  }
+
+  /**
+   * This method sends the given request without blocking the calling thread. The response is
+   * de-serialized on the executor configured for this client.
+   *
+   * @param request The request to send
+   * @return A future that completes with the servers response, or completes exceptionally with a
+   * {@link ConfluenceRequestException} if the server responds with an error status code, or with
+   * any other error that prevented the request from being sent or its response from being read.
+   */
+  private CompletableFuture<Object> executeRequestAsync(ConfluenceRequest request) {
+    PreparedRequest preparedRequest;
+    CompletableFuture<Response> pendingResponse;
+    try {
+      preparedRequest = prepareRequest(request);
+      pendingResponse = sendRequestWithRetriesAsync(preparedRequest);
+    } catch (RuntimeException | Error e) {
+      return failedFuture(e);
+    }
+
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    pendingResponse.whenComplete((response, error) -> {
+      if (error != null) {
+        Throwable cause = unwrapCompletionException(error);
+        onRequestCompleted(preparedRequest, null, cause);
+        result.completeExceptionally(cause);
+        return;
+      }
+
+      preparedRequest.responseTime = System.nanoTime();
+      Object entity;
+      try {
+        entity = readResponse(preparedRequest, response);
+      } catch (Throwable e) {
+        // Anything thrown from this callback would be lost, leaving the result incomplete forever
+        onRequestCompleted(preparedRequest, response, e);
+        result.completeExceptionally(e);
+        return;
+      }
+      onRequestCompleted(preparedRequest, response, null);
+      result.complete(entity);
+    });
+    return result;
+  }
+
+  /**
+   * This method prepares the given request to be sent, resolving its target and applying its
+   * query parameters and headers. If this client has a {@link ValidatorCache} and a response was
+   * previously cached for the same GET request, the request is made conditional on that response
+   * having been modified.
+   *
+   * @param request The request to prepare
+   * @return The prepared request
+   */
+  private PreparedRequest prepareRequest(ConfluenceRequest request) {
+    return prepareRequest(request, true);
+  }
+
+  /**
+   * This method prepares the given request to be sent, resolving its target and applying its
+   * query parameters and headers.
+   *
+   * @param request The request to prepare
+   * @param conditional Whether or not a GET request may be made conditional on a response that was
+   * previously cached by the {@link ValidatorCache} of this client. This must only be the case if
+   * the cached response is used when the server responds that it has not been modified.
+   * @return The prepared request
+   */
+  private PreparedRequest prepareRequest(ConfluenceRequest request, boolean conditional) {
+    Object event = RequestEventRecorder.begin();
+    long startTime = System.nanoTime();
     WebTarget endpointTarget = wikiTarget.path(request.getRelativePath());
     for (Entry<String, String> queryParam : request.getQueryParams().entrySet()) {
       endpointTarget = endpointTarget.queryParam(queryParam.getKey(), queryParam.getValue());
@@ -113,43 +956,1048 @@ public class ConfluenceClient {
       invocationBuilder.header(headerEntry.getKey(), headerEntry.getValue());
     }
 
-    String methodName = request.getMethod();
-    Response response;
-    if (request.getBodyEntity().isPresent()) {
-      Object bodyEntity = request.getBodyEntity().get();
-      response = invocationBuilder.method(methodName, Entity.json(bodyEntity));
-    } else {
-      response = invocationBuilder.method(methodName);
+    String uri = null;
+    CachedResponse cachedResponse = null;
+    if (conditional && this.validatorCache != null && HttpMethod.GET.equals(request.getMethod())) {
+      uri = endpointTarget.getUri().toString();
+      cachedResponse = this.validatorCache.get(uri).orElse(null);
+      if (cachedResponse != null && cachedResponse.getEntityTag() != null) {
+        invocationBuilder.header(HttpHeaders.IF_NONE_MATCH, cachedResponse.getEntityTag());
+      }
+      if (cachedResponse != null && cachedResponse.getLastModified() != null) {
+        invocationBuilder.header(HttpHeaders.IF_MODIFIED_SINCE, cachedResponse.getLastModified());
+      }
     }
 
-    int statusCode = response.getStatus();
-    if (response.getStatus() >= 300) {
-      String errorMsg;
-      if (MediaType.APPLICATION_JSON_TYPE.equals(response.getMediaType())) {
-        ErrorResponse errResponse = response.readEntity(ErrorResponse.class);
-        errorMsg = errResponse.getMessage();
-      } else {
-        errorMsg = response.getStatusInfo().getReasonPhrase();
-      }
-      throw new ConfluenceRequestException(statusCode, errorMsg);
+    PreparedRequest preparedRequest = new PreparedRequest(request, invocationBuilder, uri,
+        cachedResponse, startTime);
+    preparedRequest.event = event;
+    if (request.getBodyEntity().isPresent()) {
+      preparedRequest.entity = Entity.json(request.getBodyEntity().get());
     }
+    if (isMeasured(preparedRequest)) {
+      invocationBuilder.property(ByteCountingInterceptor.COUNTERS_PROPERTY,
+          preparedRequest.counters);
+    }
+    return preparedRequest;
+  }
 
-    return response.readEntity(request.getReturnType());
+  /**
+   * This method returns whether the details of the given request are being recorded, either for
+   * the request listeners of this client or for a flight recording.
+   *
+   * @param preparedRequest The request to check
+   * @return Whether the request is being measured
+   */
+  private boolean isMeasured(PreparedRequest preparedRequest) {
+    return !this.requestListeners.isEmpty() || preparedRequest.event != null;
   }
 
   /**
-   * This method returns the headers that should be included in the given request.
+   * This method commits the flight recorder event of the given request, if any, and notifies the
+   * request listeners of this client that the request has been completed.
    *
-   * @param request The request to generate headers for
-   * @return A map representing the headers for the request
+   * @param preparedRequest The request that was completed
+   * @param response The final response to the request, or null if no response was received
+   * @param error The error that the request failed with, or null if it succeeded
    */
-  private Map<String, String> getRequestHeaders(ConfluenceRequest request) {
-    Map<String, String> requestHeaders = new HashMap<>();
-    requestHeaders.put("Content-Type", request.getContentType().toString());
-    requestHeaders.put("Accept", request.getAcceptedResponseType().toString());
-    if (authMethod != null) {
-      requestHeaders.put("Authorization", authMethod.getAuthHeaderValue());
+  private void onRequestCompleted(PreparedRequest preparedRequest, Response response,
+      Throwable error) {
+    Integer statusCode = response != null ? response.getStatus() : null;
+    RequestEventRecorder.commit(preparedRequest.event, preparedRequest.request, statusCode,
+        preparedRequest.attempts, preparedRequest.counters.bytesSent.get(),
+        preparedRequest.counters.bytesReceived.get(), error);
+    if (this.requestListeners.isEmpty()) {
+      return;
+    }
+
+    long endTime = System.nanoTime();
+    long responseTime = preparedRequest.responseTime != 0 ? preparedRequest.responseTime : endTime;
+    long serializationTime = preparedRequest.counters.writeTime.get();
+    long sendTime = preparedRequest.startTime + serializationTime;
+    ConfluenceRequest request = preparedRequest.request;
+    RequestMetrics metrics = new RequestMetrics.Builder()
+        .setMethod(request.getMethod())
+        .setPathTemplate(request.getPathTemplate())
+        .setExpand(request.getQueryParams().get("expand"))
+        .setStatusCode(statusCode)
+        .setAttempts(preparedRequest.attempts)
+        .setBytesSent(preparedRequest.counters.bytesSent.get())
+        .setBytesReceived(preparedRequest.counters.bytesReceived.get())
+        .setSerializationTime(Duration.ofNanos(serializationTime))
+        .setTimeToFirstByte(Duration.ofNanos(responseTime - sendTime))
+        .setDeserializationTime(Duration.ofNanos(endTime - responseTime))
+        .setTotalTime(Duration.ofNanos(endTime - preparedRequest.startTime))
+        .setError(error)
+        .build();
+
+    for (RequestListener listener : this.requestListeners) {
+      try {
+        listener.onRequestCompleted(metrics);
+      } catch (RuntimeException e) {
+        // A faulty listener must not affect the outcome of the request
+      }
+    }
+  }
+
+  /**
+   * This method sends the given request, retrying it as defined by the {@link RetryPolicy} of this
+   * client, and returns the final response without reading it.
+   *
+   * @param preparedRequest The request to send
+   * @return The response to the final attempt of the request
+   */
+  private Response sendRequestWithRetries(PreparedRequest preparedRequest) {
+    while (true) {
+      preparedRequest.attempts++;
+      Response response;
+      try {
+        response = sendRequest(preparedRequest);
+      } catch (ProcessingException e) {
+        Optional<Duration> retryDelay = getRetryDelay(preparedRequest, null);
+        if (!retryDelay.isPresent()) {
+          throw e;
+        }
+        sleep(retryDelay.get());
+        continue;
+      }
+
+      Optional<Duration> retryDelay = getRetryDelay(preparedRequest, response);
+      if (!retryDelay.isPresent()) {
+        return response;
+      }
+      response.close();
+      sleep(retryDelay.get());
+    }
+  }
+
+  /**
+   * This method sends the given request without blocking the calling thread, retrying it as
+   * defined by the {@link RetryPolicy} of this client. Each attempt is scheduled after the delay
+   * chosen by the policy, rather than waiting on a thread.
+   *
+   * @param preparedRequest The request to send
+   * @return A future that completes with the response to the final attempt of the request, on the
+   * executor configured for this client
+   */
+  private CompletableFuture<Response> sendRequestWithRetriesAsync(PreparedRequest preparedRequest) {
+    CompletableFuture<Response> result = new CompletableFuture<>();
+    preparedRequest.attempts++;
+    sendRequestAsync(preparedRequest).whenCompleteAsync((response, error) -> {
+      Throwable cause = error != null ? unwrapCompletionException(error) : null;
+      if (cause != null && !(cause instanceof ProcessingException)) {
+        result.completeExceptionally(cause);
+        return;
+      }
+
+      Optional<Duration> retryDelay = getRetryDelay(preparedRequest, response);
+      if (!retryDelay.isPresent()) {
+        if (cause != null) {
+          result.completeExceptionally(cause);
+        } else {
+          result.complete(response);
+        }
+        return;
+      }
+
+      if (response != null) {
+        response.close();
+      }
+      this.retryScheduler.schedule(() -> {
+        CompletableFuture<Response> retryResult;
+        try {
+          retryResult = sendRequestWithRetriesAsync(preparedRequest);
+        } catch (RuntimeException | Error e) {
+          result.completeExceptionally(e);
+          return;
+        }
+        retryResult.whenComplete((retryResponse, retryError) -> {
+          if (retryError != null) {
+            result.completeExceptionally(retryError);
+          } else {
+            result.complete(retryResponse);
+          }
+        });
+      }, retryDelay.get().toMillis(), TimeUnit.MILLISECONDS);
+    }, executor);
+    return result;
+  }
+
+  /**
+   * This method returns how long to wait before retrying the given request, if it should be
+   * retried at all.
+   *
+   * @param preparedRequest The request that was attempted
+   * @param response The response to the last attempt, or null if no response was received
+   * @return The delay before the request should be retried, or an empty optional if the request
+   * should not be retried
+   */
+  private Optional<Duration> getRetryDelay(PreparedRequest preparedRequest, Response response) {
+    if (this.retryPolicy == null) {
+      return Optional.empty();
+    }
+    return this.retryPolicy.getRetryDelay(preparedRequest.request, preparedRequest.attempts,
+        response);
+  }
+
+  /**
+   * This method blocks the calling thread for the given amount of time before a request is
+   * retried.
+   *
+   * @param delay The amount of time to wait
+   */
+  private static void sleep(Duration delay) {
+    try {
+      Thread.sleep(delay.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessingException("Interrupted while waiting to retry the request", e);
+    }
+  }
+
+  /**
+   * This method sends the given request once a permit has been acquired from the concurrency
+   * limiter of this client, if it has one, and returns the servers response without reading it.
+   *
+   * @param preparedRequest The request to send
+   * @return The response returned from the server
+   */
+  private Response sendRequest(PreparedRequest preparedRequest) {
+    if (this.concurrencyLimiter == null) {
+      return invokeRequest(preparedRequest);
+    }
+
+    Permit permit;
+    try {
+      permit = this.concurrencyLimiter.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessingException("Interrupted while waiting to send the request", e);
+    }
+
+    Response response;
+    try {
+      response = invokeRequest(preparedRequest);
+    } catch (RuntimeException e) {
+      permit.onIgnore();
+      throw e;
+    }
+    releasePermit(permit, response);
+    return response;
+  }
+
+  /**
+   * This method sends the given request without blocking the calling thread, once a permit has
+   * been acquired from the concurrency limiter of this client, if it has one.
+   *
+   * @param preparedRequest The request to send
+   * @return A stage that completes with the response returned from the server
+   */
+  private CompletionStage<Response> sendRequestAsync(PreparedRequest preparedRequest) {
+    if (this.concurrencyLimiter == null) {
+      return invokeRequestAsync(preparedRequest);
+    }
+
+    return this.concurrencyLimiter.acquireAsync().thenCompose(permit -> {
+      CompletionStage<Response> response;
+      try {
+        response = invokeRequestAsync(preparedRequest);
+      } catch (RuntimeException e) {
+        permit.onIgnore();
+        throw e;
+      }
+      return response.whenComplete((completedResponse, error) -> {
+        if (error != null) {
+          permit.onIgnore();
+        } else {
+          releasePermit(permit, completedResponse);
+        }
+      });
+    });
+  }
+
+  /**
+   * This method releases the given permit according to the status of the response that was
+   * received while holding it. Responses indicating that the server is overloaded decrease the
+   * limit of concurrent requests, while any other response counts as a success.
+   *
+   * @param permit The permit to release
+   * @param response The response that was received
+   */
+  private static void releasePermit(Permit permit, Response response) {
+    int status = response.getStatus();
+    if (status == TOO_MANY_REQUESTS.getStatusCode()
+        || status == SERVICE_UNAVAILABLE.getStatusCode()) {
+      permit.onDropped();
+    } else {
+      permit.onSuccess();
+    }
+  }
+
+  /**
+   * This method sends the given request and returns the servers response without reading it.
+   *
+   * @param preparedRequest The request to send
+   * @return The response returned from the server
+   */
+  private Response invokeRequest(PreparedRequest preparedRequest) {
+    String methodName = preparedRequest.request.getMethod();
+    if (preparedRequest.entity != null) {
+      return preparedRequest.invocationBuilder.method(methodName, preparedRequest.entity);
+    }
+    return preparedRequest.invocationBuilder.method(methodName);
+  }
+
+  /**
+   * This method sends the given request without blocking the calling thread.
+   *
+   * @param preparedRequest The request to send
+   * @return A stage that completes with the response returned from the server
+   */
+  private CompletionStage<Response> invokeRequestAsync(PreparedRequest preparedRequest) {
+    String methodName = preparedRequest.request.getMethod();
+    if (preparedRequest.entity != null) {
+      return preparedRequest.invocationBuilder.rx().method(methodName, preparedRequest.entity);
+    }
+    return preparedRequest.invocationBuilder.rx().method(methodName);
+  }
+
+  /**
+   * This method de-serializes the entity of the given response, or throws the error that it
+   * contains if the server responded with an error status code. If the server responded that a
+   * previously cached response has not been modified, the cached entity is returned instead.
+   *
+   * @param preparedRequest The request that the response was returned for
+   * @param response The response returned from the server
+   * @return The de-serialized response entity
+   * @throws ConfluenceRequestException If the server responded with an error status code
+   */
+  private Object readResponse(PreparedRequest preparedRequest, Response response)
+      throws ConfluenceRequestException {
+    CachedResponse cachedResponse = preparedRequest.cachedResponse;
+    if (cachedResponse != null && response.getStatus() == NOT_MODIFIED.getStatusCode()) {
+      response.close();
+      this.validatorCache.recordRevalidation();
+      return observeContent(cachedResponse.getEntity());
+    }
+
+    checkResponseStatus(response);
+    Object entity = response.readEntity(preparedRequest.request.getReturnType());
+    if (preparedRequest.uri != null) {
+      String entityTag = response.getHeaderString(HttpHeaders.ETAG);
+      String lastModified = response.getHeaderString(HttpHeaders.LAST_MODIFIED);
+      if (entityTag != null || lastModified != null) {
+        this.validatorCache.put(preparedRequest.uri,
+            new CachedResponse(entityTag, lastModified, entity));
+      }
+    }
+    return observeContent(entity);
+  }
+
+  /**
+   * This method notifies the content observers of this client of the content in the given
+   * response.
+   *
+   * @param entity The response, which is either a piece of content, a page of content, or an
+   * unrelated response
+   * @return The given response
+   */
+  private Object observeContent(Object entity) {
+    if (this.contentObservers.isEmpty()) {
+      return entity;
+    }
+
+    if (entity instanceof Content) {
+      observeContent((Content) entity);
+    } else if (entity instanceof GetContentResponse) {
+      List<Content> results = ((GetContentResponse) entity).getResults();
+      if (results != null) {
+        results.forEach(this::observeContent);
+      }
+    }
+    return entity;
+  }
+
+  /**
+   * This method notifies the content observers of this client of the given content.
+   *
+   * @param content The content that was returned by the server
+   */
+  private void observeContent(Content content) {
+    if (content == null) {
+      return;
+    }
+
+    for (ContentObserver observer : this.contentObservers) {
+      try {
+        observer.onContentReceived(content);
+      } catch (RuntimeException e) {
+        // A faulty observer must not affect the outcome of the request
+      }
+    }
+  }
+
+  /**
+   * This method throws the error contained in the given response if the server responded with an
+   * error status code.
+   *
+   * @param response The response returned from the server
+   * @throws ConfluenceRequestException If the server responded with an error status code
+   */
+  private void checkResponseStatus(Response response) throws ConfluenceRequestException {
+    int statusCode = response.getStatus();
+    if (response.getStatus() >= 300) {
+      String errorMsg;
+      if (MediaType.APPLICATION_JSON_TYPE.equals(response.getMediaType())) {
+        ErrorResponse errResponse = response.readEntity(ErrorResponse.class);
+        errorMsg = errResponse.getMessage();
+      } else {
+        errorMsg = response.getStatusInfo().getReasonPhrase();
+        response.close();
+      }
+      throw new ConfluenceRequestException(statusCode, errorMsg);
+    }
+  }
+
+  /**
+   * This method returns the cached content for the given request, if this client has a cache and
+   * the request is for the latest version of the content.
+   *
+   * @param request The request for the content
+   * @return The cached content, or an empty optional if it is not cached
+   */
+  private Optional<Content> getCachedContent(GetContentByIdRequest request) {
+    if (this.contentCache == null || !isCacheable(request)) {
+      return Optional.empty();
+    }
+    return this.contentCache.get(request.getId(), request.getExpandedProperties());
+  }
+
+  /**
+   * This method returns whether or not the cached content for the given request was loaded from a
+   * snapshot and must be revalidated before it can be returned.
+   *
+   * @param request The request for the content
+   * @return True if the cached content must be revalidated
+   */
+  private boolean needsRevalidation(GetContentByIdRequest request) {
+    return this.contentCache != null && isCacheable(request)
+        && this.contentCache.needsRevalidation(request.getId(), request.getExpandedProperties());
+  }
+
+  /**
+   * This method revalidates the cached content for the given request against the latest version
+   * of the content that was returned by the server.
+   *
+   * @param request The request for the content
+   * @param latestContent The latest version of the content, with at least its version expanded
+   * @return The cached content if it is the latest version, or an empty optional if it must be
+   * requested in full
+   */
+  private Optional<Content> revalidateCachedContent(GetContentByIdRequest request,
+      Content latestContent) {
+    return this.contentCache.revalidate(request.getId(), request.getExpandedProperties(),
+        getVersionNumber(latestContent));
+  }
+
+  /**
+   * This method adds the content that was returned for the given request to the cache, if this
+   * client has a cache and the request is for the latest version of the content.
+   *
+   * @param request The request that the content was returned for
+   * @param content The content that was returned
+   * @return The given content
+   */
+  private Content cacheContent(GetContentByIdRequest request, Content content) {
+    if (this.contentCache != null && isCacheable(request)) {
+      this.contentCache.put(content, request.getExpandedProperties());
+    }
+    return content;
+  }
+
+  /**
+   * This method returns whether or not the content returned for the given request can be cached,
+   * which is only the case for requests for the latest version of the content.
+   *
+   * @param request The request for the content
+   * @return True if the content returned for the request can be cached
+   */
+  private static boolean isCacheable(GetContentByIdRequest request) {
+    return request.getVersion() == null && request.getStatus() == null;
+  }
+
+  /**
+   * This method returns the latest version number of the content with the given ID.
+   *
+   * @param id The unique identifier of the content
+   * @return The latest version number of the content
+   * @throws ConfluenceRequestException If the server responses with an error status code
+   */
+  private int getLatestVersion(String id) throws ConfluenceRequestException {
+    Optional<Integer> knownVersion = getKnownVersion(id);
+    if (knownVersion.isPresent()) {
+      return knownVersion.get();
+    }
+    return getVersionNumber((Content) performRequest(createVersionRequest(id)));
+  }
+
+  /**
+   * This method asynchronously determines the latest version number of the content with the given
+   * ID.
+   *
+   * @param id The unique identifier of the content
+   * @return A future that completes with the latest version number of the content
+   */
+  private CompletableFuture<Integer> getLatestVersionAsync(String id) {
+    Optional<Integer> knownVersion = getKnownVersion(id);
+    if (knownVersion.isPresent()) {
+      return CompletableFuture.completedFuture(knownVersion.get());
+    }
+    return performRequestAsync(createVersionRequest(id))
+        .thenApply(response -> getVersionNumber((Content) response));
+  }
+
+  /**
+   * This method returns the version number of the content with the given ID that is recorded in
+   * the version registry of this client.
+   *
+   * @param id The unique identifier of the content
+   * @return The recorded version number, or an empty optional if it is not known
+   */
+  private Optional<Integer> getKnownVersion(String id) {
+    return this.versionRegistry != null ? this.versionRegistry.getVersion(id) : Optional.empty();
+  }
+
+  /**
+   * This method creates a request for the latest version of the content with the given ID.
+   *
+   * @param id The unique identifier of the content
+   * @return The request for the version of the content
+   */
+  private static GetContentByIdRequest createVersionRequest(String id) {
+    return new GetContentByIdRequest.Builder()
+        .setId(id)
+        .setExpandedProperties(new ExpandedContentProperties.Builder().addVersion().build())
+        .build();
+  }
+
+  /**
+   * This method creates a request for the latest state of the content with the given ID, with the
+   * properties that the given strategy needs to resolve a conflict.
+   *
+   * @param id The unique identifier of the content
+   * @param conflictStrategy The strategy that resolves the conflict
+   * @return The request for the latest state of the content
+   */
+  private static GetContentByIdRequest createLatestContentRequest(String id,
+      ConflictStrategy conflictStrategy) {
+    return new GetContentByIdRequest.Builder()
+        .setId(id)
+        .setExpandedProperties(conflictStrategy.getExpandedProperties())
+        .build();
+  }
+
+  /**
+   * This method returns the strategy that resolves conflicts for updates that do not specify one.
+   * Updates to the next version of the content are sent once more with the latest version, while
+   * other updates are not retried.
+   *
+   * @param request The update to resolve conflicts for
+   * @return The strategy for the update, or null if conflicts should not be resolved
+   */
+  private static ConflictStrategy getDefaultConflictStrategy(UpdateContentRequest request) {
+    return request.isNextVersion() ? NEXT_VERSION_CONFLICT_STRATEGY : null;
+  }
+
+  /**
+   * This method returns whether or not the given error is a conflict that should be resolved by
+   * sending another attempt.
+   *
+   * @param error The error that the attempt failed with
+   * @param conflictStrategy The strategy that resolves conflicts, or null if there is none
+   * @param attemptCount The number of attempts that have been sent so far
+   * @return True if the error is a conflict and the strategy allows another attempt
+   */
+  private static boolean shouldResolveConflict(Throwable error, ConflictStrategy conflictStrategy,
+      int attemptCount) {
+    return conflictStrategy != null && attemptCount < conflictStrategy.getMaxAttempts()
+        && isConflict(error);
+  }
+
+  /**
+   * This method returns the version number of the given content.
+   *
+   * @param content The content, which must include its version
+   * @return The version number of the content
+   * @throws ProcessingException If the version of the content was not returned
+   */
+  private static int getVersionNumber(Content content) {
+    if (content.getVersion() == null || content.getVersion().getNumber() == null) {
+      throw new ProcessingException("The version of content " + content.getId()
+          + " was not returned");
+    }
+    return content.getVersion().getNumber();
+  }
+
+  /**
+   * This method returns whether or not the given error indicates that an update conflicted with a
+   * newer version of the content.
+   *
+   * @param error The error that the update failed with
+   * @return True if the server responded with a conflict status code
+   */
+  private static boolean isConflict(Throwable error) {
+    return error instanceof ConfluenceRequestException
+        && Integer.valueOf(CONFLICT.getStatusCode())
+        .equals(((ConfluenceRequestException) error).getStatusCode());
+  }
+
+  /**
+   * This method records that the given content was created or modified, so that any cached
+   * entries for older versions of the content are invalidated.
+   *
+   * @param content The content that was created or modified
+   * @return The given content
+   */
+  private Content onContentModified(Content content) {
+    if (this.contentCache != null && content != null) {
+      this.contentCache.onContentModified(content);
+    }
+    return content;
+  }
+
+  /**
+   * This method creates a stream over the results returned by the given page iterator.
+   *
+   * @param iterator The iterator over each page of results.
+   * @param onClose The action that cancels any pending page requests when the stream is closed.
+   * @return A stream over the results returned by the given page iterator.
+   */
+  private static Stream<Content> streamPages(Iterator<Content> iterator, Runnable onClose) {
+    Spliterator<Content> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+        Spliterator.ORDERED | Spliterator.NONNULL);
+    return StreamSupport.stream(spliterator, false).onClose(onClose);
+  }
+
+  /**
+   * This method returns the key that identifies requests that are identical to the given request,
+   * if it may share its result with them. Only GET requests are coalesced, and only if request
+   * coalescing is enabled for this client.
+   *
+   * @param request The request to identify
+   * @return The relative path, sorted query parameters and return type of the request, or null if
+   * the request should not be coalesced
+   */
+  private List<Object> getCoalescingKey(ConfluenceRequest request) {
+    if (this.inFlightRequests == null || !HttpMethod.GET.equals(request.getMethod())) {
+      return null;
+    }
+    return Arrays.asList(request.getRelativePath(), new TreeMap<>(request.getQueryParams()),
+        request.getReturnType());
+  }
+
+  /**
+   * This method blocks the calling thread until the given result of a request is available.
+   *
+   * @param pendingResult The result of the request
+   * @param <T> The type of the result
+   * @return The servers response
+   * @throws ConfluenceRequestException If the server responded with an error status code
+   */
+  private static <T> T awaitResult(CompletableFuture<T> pendingResult)
+      throws ConfluenceRequestException {
+    try {
+      return pendingResult.join();
+    } catch (CompletionException e) {
+      Throwable cause = unwrapCompletionException(e);
+      if (cause instanceof ConfluenceRequestException) {
+        throw (ConfluenceRequestException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * This method resolves a conflicting update to the next version of content by resending it
+   * unchanged. Such an update does not depend on the state of the version that it replaces, so a
+   * conflict only means that the version this client knew of was out of date.
+   *
+   * @param latestContent The latest state of the content
+   * @param request The update that conflicted
+   * @return The given update
+   */
+  private static UpdateContentRequest resendUnchanged(Content latestContent,
+      UpdateContentRequest request) {
+    return request;
+  }
+
+  /**
+   * This method creates a future that has already completed exceptionally with the given error.
+   *
+   * @param error The error to complete the future with
+   * @param <T> The type of the result of the future
+   * @return The failed future
+   */
+  private static <T> CompletableFuture<T> failedFuture(Throwable error) {
+    CompletableFuture<T> result = new CompletableFuture<>();
+    result.completeExceptionally(error);
+    return result;
+  }
+
+  /**
+   * This method returns the underlying cause of the given error if it was wrapped by a completion
+   * stage, or the error itself otherwise.
+   *
+   * @param error The error to unwrap
+   * @return The underlying cause of the error
+   */
+  private static Throwable unwrapCompletionException(Throwable error) {
+    if (error instanceof CompletionException && error.getCause() != null) {
+      return error.getCause();
+    }
+    return error;
+  }
+
+  /**
+   * This method returns the headers that should be included in the given request.
+   *
+   * @param request The request to generate headers for
+   * @return A map representing the headers for the request
+   */
+  private Map<String, String> getRequestHeaders(ConfluenceRequest request) {
+    Map<String, String> requestHeaders = new HashMap<>();
+    requestHeaders.put("Content-Type", request.getContentType().toString());
+    requestHeaders.put("Accept", request.getAcceptedResponseType().toString());
+    if (authMethod != null) {
+      requestHeaders.put("Authorization", authMethod.getAuthHeaderValue());
     }
     return requestHeaders;
   }
+
+  /**
+   * This class represents a request that is ready to be sent to the Confluence Cloud server.
+   */
+  private static class PreparedRequest {
+
+    private final ConfluenceRequest request;
+    private final Invocation.Builder invocationBuilder;
+    private final String uri;
+    private final CachedResponse cachedResponse;
+    private final long startTime;
+    private final ByteCountingInterceptor.Counters counters =
+        new ByteCountingInterceptor.Counters();
+    private Entity<?> entity;
+    private Object event;
+    private int attempts;
+    private long responseTime;
+
+    private PreparedRequest(ConfluenceRequest request, Invocation.Builder invocationBuilder,
+        String uri, CachedResponse cachedResponse, long startTime) {
+      this.request = request;
+      this.invocationBuilder = invocationBuilder;
+      this.uri = uri;
+      this.cachedResponse = cachedResponse;
+      this.startTime = startTime;
+    }
+  }
+
+  /**
+   * <p>This class can be used to construct an instance of {@link ConfluenceClient}.</p>
+   *
+   * <p>If a wiki URL is set, the client creates and owns its own HTTP client, which keeps a pool of
+   * persistent connections to the Confluence Cloud server so that they can be reused across
+   * requests. This client is released when the {@link ConfluenceClient} is closed. If a {@link
+   * WebTarget} is set instead, the connection settings on this builder are ignored, and the HTTP
+   * client that created the target is used as-is.</p>
+   */
+  public static class Builder {
+
+    private String wikiUrl;
+    private WebTarget wikiTarget;
+    private AuthMethod authMethod;
+    private Executor executor;
+    private int maxConnections = 50;
+    private int maxConnectionsPerRoute = 50;
+    private Duration connectTimeout = Duration.ofSeconds(10);
+    private Duration readTimeout = Duration.ofSeconds(60);
+    private Duration idleConnectionTimeout = Duration.ofSeconds(30);
+    private Duration connectionTimeToLive = Duration.ofMillis(-1);
+    private ContentCache contentCache;
+    private ValidatorCache validatorCache;
+    private RetryPolicy retryPolicy;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private boolean requestCoalescing;
+    private List<RequestListener> requestListeners = new ArrayList<>();
+    private VersionRegistry versionRegistry;
+    private List<ContentObserver> contentObservers = new ArrayList<>();
+    private boolean serializeWritesPerContent;
+
+    /**
+     * This method sets the URL of the Confluence Cloud server that requests will be sent to.
+     *
+     * @param wikiUrl The URL of the Confluence Cloud server.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setWikiUrl(String wikiUrl) {
+      this.wikiUrl = wikiUrl;
+      return this;
+    }
+
+    /**
+     * This method sets an existing resource target pointing to the location of the Confluence
+     * Cloud server. This should only be used when the HTTP client needs to be configured directly,
+     * and cannot be combined with {@link #setWikiUrl(String)}.
+     *
+     * @param wikiTarget The resource target pointing to the location of the Confluence Cloud
+     * server.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setWikiTarget(WebTarget wikiTarget) {
+      this.wikiTarget = wikiTarget;
+      return this;
+    }
+
+    /**
+     * This method sets the authorization method to use for all requests generated by the client.
+     *
+     * @param authMethod The authorization method to use for all requests generated by the client.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setAuthMethod(AuthMethod authMethod) {
+      this.authMethod = authMethod;
+      return this;
+    }
+
+    /**
+     * This method sets the executor that is used to process the responses to asynchronous
+     * requests. The common fork-join pool is used by default.
+     *
+     * @param executor The executor used to process the responses to asynchronous requests.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of connections kept open across all servers. This
+     * defaults to 50.
+     *
+     * @param maxConnections The maximum number of connections.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxConnections(int maxConnections) {
+      this.maxConnections = maxConnections;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of connections kept open to a single server. As all
+     * requests are usually sent to the same server, this defaults to the same value as the
+     * default maximum number of connections.
+     *
+     * @param maxConnectionsPerRoute The maximum number of connections to a single server.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+      this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum amount of time to wait for a connection to be established. This
+     * defaults to 10 seconds, and a duration of zero waits indefinitely.
+     *
+     * @param connectTimeout The maximum amount of time to wait for a connection.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setConnectTimeout(Duration connectTimeout) {
+      this.connectTimeout = connectTimeout;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum amount of time to wait for data to be received on a connection.
+     * This defaults to 60 seconds, and a duration of zero waits indefinitely.
+     *
+     * @param readTimeout The maximum amount of time to wait for data to be received.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setReadTimeout(Duration readTimeout) {
+      this.readTimeout = readTimeout;
+      return this;
+    }
+
+    /**
+     * This method sets the amount of time that a pooled connection may remain unused before it is
+     * closed. This defaults to 30 seconds, and a duration of zero keeps idle connections open
+     * until the server closes them.
+     *
+     * @param idleConnectionTimeout The amount of time a connection may remain unused.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setIdleConnectionTimeout(Duration idleConnectionTimeout) {
+      this.idleConnectionTimeout = idleConnectionTimeout;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum amount of time that a connection is kept alive for, regardless
+     * of how often it is used. By default, connections are kept alive for as long as the server
+     * allows.
+     *
+     * @param connectionTimeToLive The maximum amount of time a connection is kept alive for.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setConnectionTimeToLive(Duration connectionTimeToLive) {
+      this.connectionTimeToLive = connectionTimeToLive;
+      return this;
+    }
+
+    /**
+     * This method sets the cache that content retrieved by ID is read from and written to. Content
+     * is not cached by default. The cache is also notified of the version of all other content
+     * that is returned, so that entries for older versions are not returned.
+     *
+     * @param contentCache The cache for content retrieved by ID.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setContentCache(ContentCache contentCache) {
+      this.contentCache = contentCache;
+      return this;
+    }
+
+    /**
+     * This method sets the cache used to make GET requests conditional on the response having been
+     * modified since it was last received. Requests are not made conditional by default.
+     *
+     * @param validatorCache The cache of validators and responses for previous GET requests.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setValidatorCache(ValidatorCache validatorCache) {
+      this.validatorCache = validatorCache;
+      return this;
+    }
+
+    /**
+     * This method sets the policy that defines when failed requests are retried. Requests are not
+     * retried by default.
+     *
+     * @param retryPolicy The policy that defines when failed requests are retried.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setRetryPolicy(RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    /**
+     * This method sets the limiter that bounds the number of requests that are sent to the server
+     * at once, including each attempt of a retried request. The number of requests is not limited
+     * by default. The same limiter can be shared by several clients to apply one limit to all of
+     * them.
+     *
+     * @param concurrencyLimiter The limiter of the requests sent by the client.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+      this.concurrencyLimiter = concurrencyLimiter;
+      return this;
+    }
+
+    /**
+     * This method sets whether identical GET requests that are made while one of them is already in
+     * progress should share its result, rather than each being sent to the server. Requests are
+     * identical if they have the same relative path, query parameters and return type. Every caller
+     * receives the same response object, or the same exception. This is disabled by default.
+     *
+     * @param requestCoalescing Whether identical concurrent GET requests should be coalesced.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setRequestCoalescing(boolean requestCoalescing) {
+      this.requestCoalescing = requestCoalescing;
+      return this;
+    }
+
+    /**
+     * This method adds a listener that is notified of every request performed by the client, once
+     * it has been completed. When any listeners are added, the bodies of requests are serialized
+     * before they are sent, so that the time taken to serialize them can be measured.
+     *
+     * @param requestListener The listener to notify of each request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder addRequestListener(RequestListener requestListener) {
+      this.requestListeners.add(requestListener);
+      return this;
+    }
+
+    /**
+     * This method sets the registry that records the version of each piece of content returned by
+     * the client, so that updates that use {@link UpdateContentRequest.Builder#setNextVersion()}
+     * do not need to request the current version of the content first.
+     *
+     * @param versionRegistry The registry of the versions of content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setVersionRegistry(VersionRegistry versionRegistry) {
+      this.versionRegistry = versionRegistry;
+      return this;
+    }
+
+    /**
+     * This method adds an observer that is notified of each piece of content returned by the
+     * client.
+     *
+     * @param contentObserver The observer to notify of each piece of content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder addContentObserver(ContentObserver contentObserver) {
+      this.contentObservers.add(contentObserver);
+      return this;
+    }
+
+    /**
+     * This method sets whether or not updates to the same content are sent one at a time. When
+     * enabled, an update waits until every update that was made before it to the same content has
+     * completed, so that concurrent updates do not conflict over the version of the content, while
+     * updates to different content are still sent concurrently. This is disabled by default.
+     *
+     * @param serializeWritesPerContent Whether or not to send updates to the same content one at a
+     * time.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setSerializeWritesPerContent(boolean serializeWritesPerContent) {
+      this.serializeWritesPerContent = serializeWritesPerContent;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link ConfluenceClient} using the values that were set
+     * on this instance.
+     *
+     * @return A new instance of {@link ConfluenceClient} with the values set on this instance.
+     * @throws IllegalStateException If the client that would be created would be invalid.
+     */
+    public ConfluenceClient build() throws IllegalStateException {
+      if ((this.wikiUrl == null) == (this.wikiTarget == null)) {
+        throw new IllegalStateException("You must specify exactly one of a wiki URL or target");
+      }
+
+      if (this.maxConnections <= 0 || this.maxConnectionsPerRoute <= 0) {
+        throw new IllegalStateException("The maximum number of connections must be positive");
+      }
+
+      if (this.connectTimeout.isNegative() || this.readTimeout.isNegative()) {
+        throw new IllegalStateException("The connect and read timeouts must not be negative");
+      }
+
+      return new ConfluenceClient(this);
+    }
+  }
 }
@@ -0,0 +1,212 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.batch.ContentBatchResult;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.requests.GetContentResponse;
+import com.github.crob1140.confluence.requests.SearchContentRequest;
+import com.github.crob1140.confluence.util.ContentIds;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>This class retrieves several pieces of content by their IDs, using as few requests to the
+ * Confluence Cloud server as possible.</p>
+ *
+ * <p>The IDs are split into chunks, each of which is retrieved by a single CQL search of the form
+ * {@code id in (1,2,3)}. A chunk is limited both by the number of IDs in it and by the length of
+ * its query once it has been encoded into the URL, so that the request is not rejected for having
+ * too long a URL. Every chunk is requested concurrently, and any chunk whose results are split over
+ * several pages has its following pages requested as soon as each page is received, unless the
+ * future returned for the content has been cancelled.</p>
+ */
+class ContentBatchFetcher {
+
+  static final int DEFAULT_MAX_IDS_PER_QUERY = 100;
+  static final int DEFAULT_MAX_QUERY_LENGTH = 4000;
+
+  private static final String QUERY_PREFIX = "id in (";
+  private static final String QUERY_SUFFIX = ")";
+  private static final String QUERY_SEPARATOR = ",";
+
+  private final ConfluenceClient client;
+  private final int maxIdsPerQuery;
+  private final int maxQueryLength;
+
+  /**
+   * This constructor creates a fetcher that sends its requests with the given client, using the
+   * default limits on the size of each query.
+   *
+   * @param client The client to send the search requests with.
+   */
+  ContentBatchFetcher(ConfluenceClient client) {
+    this(client, DEFAULT_MAX_IDS_PER_QUERY, DEFAULT_MAX_QUERY_LENGTH);
+  }
+
+  /**
+   * This constructor creates a fetcher that sends its requests with the given client.
+   *
+   * @param client The client to send the search requests with.
+   * @param maxIdsPerQuery The maximum number of IDs to include in a single query.
+   * @param maxQueryLength The maximum length of a single query once it has been URL encoded.
+   */
+  ContentBatchFetcher(ConfluenceClient client, int maxIdsPerQuery, int maxQueryLength) {
+    if (maxIdsPerQuery < 1) {
+      throw new IllegalArgumentException("The maximum number of IDs must be a positive number");
+    }
+
+    this.client = client;
+    this.maxIdsPerQuery = maxIdsPerQuery;
+    this.maxQueryLength = maxQueryLength;
+  }
+
+  /**
+   * This method retrieves the content with each of the given IDs.
+   *
+   * @param ids The IDs of the content to retrieve. Duplicate IDs are only retrieved once.
+   * @param expandedProperties The properties to expand in the retrieved content, or null if no
+   * properties should be expanded.
+   * @return A future that completes with the content that was found and the IDs that were not, or
+   * completes exceptionally if any of the search requests fail. Cancelling the future stops any
+   * following pages of results from being requested.
+   * @throws IllegalArgumentException If any of the IDs are not numeric.
+   */
+  CompletableFuture<ContentBatchResult> fetch(Collection<String> ids,
+      ExpandedContentProperties expandedProperties) throws IllegalArgumentException {
+    Set<String> uniqueIds = new LinkedHashSet<>(ids);
+    uniqueIds.forEach(ContentIds::validate);
+
+    Map<String, Content> found = new ConcurrentHashMap<>();
+    CompletableFuture<ContentBatchResult> pendingResult = new CompletableFuture<>();
+    List<List<String>> chunks = chunk(uniqueIds, this.maxIdsPerQuery, this.maxQueryLength);
+    CompletableFuture<?>[] pendingChunks = new CompletableFuture<?>[chunks.size()];
+    for (int i = 0; i < chunks.size(); i++) {
+      List<String> chunk = chunks.get(i);
+      SearchContentRequest request = new SearchContentRequest.Builder()
+          .setCql(toQuery(chunk))
+          .setLimit(chunk.size())
+          .setExpandedProperties(expandedProperties)
+          .build();
+      pendingChunks[i] = fetchPages(request, uniqueIds, found, pendingResult);
+    }
+
+    CompletableFuture.allOf(pendingChunks).thenApply(ignored -> {
+      Map<String, Content> content = new LinkedHashMap<>();
+      Set<String> missingIds = new LinkedHashSet<>();
+      for (String id : uniqueIds) {
+        Content result = found.get(id);
+        if (result != null) {
+          content.put(id, result);
+        } else {
+          missingIds.add(id);
+        }
+      }
+      return new ContentBatchResult(content, missingIds);
+    }).whenComplete((batchResult, error) -> {
+      if (error != null) {
+        pendingResult.completeExceptionally(error);
+      } else {
+        pendingResult.complete(batchResult);
+      }
+    });
+    return pendingResult;
+  }
+
+  /**
+   * This method requests the given page of search results, followed by every page after it.
+   *
+   * @param request The request for the page of search results.
+   * @param ids The IDs that were requested.
+   * @param found The map to add each piece of content with a requested ID to.
+   * @param result The result of the whole fetch. No further pages are requested once it is
+   * complete, which before every page has been received means that it was cancelled.
+   * @return A future that completes once every page has been received.
+   */
+  private CompletableFuture<Void> fetchPages(SearchContentRequest request, Set<String> ids,
+      Map<String, Content> found, CompletableFuture<ContentBatchResult> result) {
+    return this.client.performRequestAsync(request).thenCompose(response -> {
+      GetContentResponse page = (GetContentResponse) response;
+      for (Content content : page.getResults()) {
+        if (ids.contains(content.getId())) {
+          found.put(content.getId(), content);
+        }
+      }
+
+      // An empty page cannot advance the start position, so it must end the results
+      if (!page.hasNextPage() || page.getResults().isEmpty() || result.isDone()) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      int start = page.getStart() != null ? page.getStart()
+          : request.getStartPosition() != null ? request.getStartPosition() : 0;
+      return fetchPages(new SearchContentRequest.Builder(request)
+          .setStartPosition(start + page.getResults().size())
+          .build(), ids, found, result);
+    });
+  }
+
+  /**
+   * This method splits the given IDs into chunks that can each be retrieved by a single query.
+   *
+   * @param ids The IDs to split.
+   * @param maxIdsPerQuery The maximum number of IDs in each chunk.
+   * @param maxQueryLength The maximum length of the query for each chunk once it has been URL
+   * encoded. A chunk always contains at least one ID, even if its query exceeds this length.
+   * @return The chunks of IDs, in the order of the given IDs.
+   */
+  static List<List<String>> chunk(Collection<String> ids, int maxIdsPerQuery,
+      int maxQueryLength) {
+    int baseLength = encodedLength(QUERY_PREFIX) + encodedLength(QUERY_SUFFIX);
+    int separatorLength = encodedLength(QUERY_SEPARATOR);
+
+    List<List<String>> chunks = new ArrayList<>();
+    List<String> chunk = new ArrayList<>();
+    int queryLength = baseLength;
+    for (String id : ids) {
+      int idLength = encodedLength(id) + (chunk.isEmpty() ? 0 : separatorLength);
+      if (!chunk.isEmpty()
+          && (chunk.size() >= maxIdsPerQuery || queryLength + idLength > maxQueryLength)) {
+        chunks.add(chunk);
+        chunk = new ArrayList<>();
+        queryLength = baseLength;
+        idLength = encodedLength(id);
+      }
+      chunk.add(id);
+      queryLength += idLength;
+    }
+
+    if (!chunk.isEmpty()) {
+      chunks.add(chunk);
+    }
+    return chunks;
+  }
+
+  /**
+   * This method creates the CQL query that matches the content with any of the given IDs.
+   *
+   * @param ids The IDs of the content.
+   * @return The CQL query for the IDs.
+   */
+  static String toQuery(List<String> ids) {
+    return QUERY_PREFIX + String.join(QUERY_SEPARATOR, ids) + QUERY_SUFFIX;
+  }
+
+  private static int encodedLength(String value) {
+    try {
+      // Spaces are encoded as "%20" rather than "+" in the query string of the request
+      return URLEncoder.encode(value, StandardCharsets.UTF_8.name()).replace("+", "%20").length();
+    } catch (UnsupportedEncodingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.errors.UncheckedConfluenceRequestException;
+import com.github.crob1140.confluence.requests.GetContentRequest;
+import com.github.crob1140.confluence.requests.GetContentResponse;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * <p>This class iterates over every result of a {@link GetContentRequest}, requesting each page of
+ * results from the Confluence Cloud server as required.</p>
+ *
+ * <p>The next page is requested as soon as the current page has been received, so that it is
+ * fetched in the background while the caller consumes the current page.</p>
+ */
+class ContentPageIterator implements Iterator<Content>, AutoCloseable {
+
+  private final ConfluenceClient client;
+  private GetContentRequest nextPageRequest;
+  private CompletableFuture<Object> nextPage;
+  private Iterator<Content> currentPage = Collections.emptyIterator();
+
+  /**
+   * This constructor creates an iterator over the results of the given request, and immediately
+   * requests the first page of results.
+   *
+   * @param client The client to send the page requests with.
+   * @param request The request for the first page of results.
+   */
+  ContentPageIterator(ConfluenceClient client, GetContentRequest request) {
+    this.client = client;
+    this.nextPageRequest = request;
+    this.nextPage = client.performRequestAsync(request);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.currentPage.hasNext() && this.nextPage != null) {
+      advance();
+    }
+    return this.currentPage.hasNext();
+  }
+
+  @Override
+  public Content next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return this.currentPage.next();
+  }
+
+  /**
+   * This method cancels the request for the next page of results, if one is still in progress.
+   */
+  @Override
+  public void close() {
+    if (this.nextPage != null) {
+      this.nextPage.cancel(false);
+      this.nextPage = null;
+    }
+  }
+
+  /**
+   * This method waits for the next page of results, and requests the page after it if there is
+   * one.
+   */
+  private void advance() {
+    GetContentRequest pageRequest = this.nextPageRequest;
+    GetContentResponse page = await(this.nextPage);
+    if (page.hasNextPage()) {
+      this.nextPageRequest = getNextPageRequest(pageRequest, page);
+      this.nextPage = this.client.performRequestAsync(this.nextPageRequest);
+    } else {
+      this.nextPageRequest = null;
+      this.nextPage = null;
+    }
+    this.currentPage = page.getResults().iterator();
+  }
+
+  /**
+   * This method creates the request for the page of results that follows the given page.
+   *
+   * @param pageRequest The request that the given page was returned for.
+   * @param page The page of results.
+   * @return The request for the following page of results.
+   */
+  static GetContentRequest getNextPageRequest(GetContentRequest pageRequest,
+      GetContentResponse page) {
+    int start = page.getStart() != null ? page.getStart()
+        : pageRequest.getStartPosition() != null ? pageRequest.getStartPosition() : 0;
+    return new GetContentRequest.Builder(pageRequest)
+        .setStartPosition(start + page.getResults().size())
+        .build();
+  }
+
+  /**
+   * This method waits for the given page request to complete, converting any error into an
+   * unchecked exception.
+   *
+   * @param pendingPage The pending page request.
+   * @return The page returned by the server.
+   */
+  static GetContentResponse await(CompletableFuture<Object> pendingPage) {
+    try {
+      return (GetContentResponse) pendingPage.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ConfluenceRequestException) {
+        throw new UncheckedConfluenceRequestException((ConfluenceRequestException) e.getCause());
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.util.Futures;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>This class runs asynchronous operations one at a time for each key, while operations for
+ * different keys run concurrently.</p>
+ *
+ * <p>Each key has its own queue of operations. An operation starts once the operation before it
+ * for the same key has completed, whether or not it succeeded, and the queue of a key is discarded
+ * as soon as its last operation completes, so idle keys do not use any memory. No thread is ever
+ * blocked while an operation waits for its turn.</p>
+ */
+class KeyedSerialExecutor {
+
+  private final Map<String, KeyQueue> queues = new HashMap<>();
+
+  /**
+   * This method submits an operation to run once every operation that was submitted before it for
+   * the same key has completed.
+   *
+   * @param key The key that the operation is serialized by.
+   * @param operation The operation, which starts the work and returns its result.
+   * @param <T> The type of the result of the operation.
+   * @return A future that completes with the result of the operation once it has run.
+   */
+  <T> CompletableFuture<T> submit(String key, Supplier<CompletableFuture<T>> operation) {
+    PendingOperation<T> pendingOperation = new PendingOperation<>(operation);
+    KeyQueue queue;
+    synchronized (this) {
+      queue = this.queues.computeIfAbsent(key, KeyQueue::new);
+      queue.operations.add(pendingOperation);
+    }
+
+    drain(queue);
+    return Futures.copy(pendingOperation.result);
+  }
+
+  /**
+   * This method returns the number of keys that have an operation that is running or waiting.
+   *
+   * @return The number of keys with outstanding operations.
+   */
+  synchronized int getActiveKeyCount() {
+    return this.queues.size();
+  }
+
+  /**
+   * <p>This method starts the next operation of the given queue if none of its operations is
+   * running, repeating until no request to do so arrived in the meantime. The queue is discarded
+   * once it has no operations left.</p>
+   *
+   * <p>An operation that completes straight away does so on the calling thread, inside {@link
+   * #run(KeyQueue, PendingOperation)}. Rather than recursing, which would deepen the stack with
+   * every queued operation that completes in a row, such a completion only records that the queue
+   * must be checked again, and the thread that is already draining does so once it returns to this
+   * loop.</p>
+   *
+   * @param queue The queue to start the next operation of.
+   */
+  private void drain(KeyQueue queue) {
+    if (queue.drainRequests.getAndIncrement() != 0) {
+      return;
+    }
+
+    do {
+      PendingOperation<?> nextOperation = null;
+      synchronized (this) {
+        if (!queue.running) {
+          nextOperation = queue.operations.poll();
+          if (nextOperation != null) {
+            queue.running = true;
+          } else {
+            this.queues.remove(queue.key, queue);
+          }
+        }
+      }
+
+      if (nextOperation != null) {
+        run(queue, nextOperation);
+      }
+    } while (queue.drainRequests.decrementAndGet() != 0);
+  }
+
+  /**
+   * This method starts the given operation, and completes its result with its outcome.
+   *
+   * @param queue The queue that the operation belongs to.
+   * @param pendingOperation The operation to start.
+   * @param <T> The type of the result of the operation.
+   */
+  private <T> void run(KeyQueue queue, PendingOperation<T> pendingOperation) {
+    CompletableFuture<T> pendingResult;
+    try {
+      pendingResult = pendingOperation.operation.get();
+    } catch (RuntimeException e) {
+      complete(queue, pendingOperation.result, null, e);
+      return;
+    }
+
+    pendingResult.whenComplete((value, error) -> complete(queue, pendingOperation.result, value,
+        error instanceof CompletionException && error.getCause() != null ? error.getCause()
+            : error));
+  }
+
+  /**
+   * This method completes the result of the running operation of the given queue, and starts the
+   * next operation of the queue.
+   *
+   * @param queue The queue that the operation belongs to.
+   * @param result The result of the operation.
+   * @param value The value that the operation completed with.
+   * @param error The exception that the operation failed with, or null if it succeeded.
+   * @param <T> The type of the result of the operation.
+   */
+  private <T> void complete(KeyQueue queue, CompletableFuture<T> result, T value,
+      Throwable error) {
+    synchronized (this) {
+      queue.running = false;
+    }
+
+    if (error != null) {
+      result.completeExceptionally(error);
+    } else {
+      result.complete(value);
+    }
+    drain(queue);
+  }
+
+  /**
+   * This class represents the operations of a single key that are running or waiting.
+   */
+  private static class KeyQueue {
+
+    private final String key;
+    private final Deque<PendingOperation<?>> operations = new ArrayDeque<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private boolean running;
+
+    private KeyQueue(String key) {
+      this.key = key;
+    }
+  }
+
+  /**
+   * This class represents an operation that has been submitted, along with its result.
+   *
+   * @param <T> The type of the result of the operation.
+   */
+  private static class PendingOperation<T> {
+
+    private final Supplier<CompletableFuture<T>> operation;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    private PendingOperation(Supplier<CompletableFuture<T>> operation) {
+      this.operation = operation;
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.requests.GetContentRequest;
+import com.github.crob1140.confluence.requests.GetContentResponse;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>This class iterates over every result of a {@link GetContentRequest}, requesting several
+ * pages of results from the Confluence Cloud server concurrently.</p>
+ *
+ * <p>Once the first page has been received, the size of each page is known, and the following
+ * pages are requested by start position with up to a fixed number of requests in progress at any
+ * time. Requesting stops as soon as a page indicates that there are no pages after it.</p>
+ *
+ * <p>Pages are either consumed in the order of their start position, or in the order in which
+ * they are received if the order of the results does not matter.</p>
+ */
+class ParallelContentPageIterator implements Iterator<Content>, AutoCloseable {
+
+  private final ConfluenceClient client;
+  private final GetContentRequest request;
+  private final int parallelism;
+  private final boolean ordered;
+  private final Deque<PendingPage> pendingPages = new ArrayDeque<>();
+  private Iterator<Content> currentPage = Collections.emptyIterator();
+  private boolean firstPageReceived;
+  private int pageSize;
+  private int nextStart;
+  private Integer lastPageStart;
+
+  /**
+   * This constructor creates an iterator over the results of the given request, and immediately
+   * requests the first page of results.
+   *
+   * @param client The client to send the page requests with.
+   * @param request The request for the first page of results.
+   * @param parallelism The maximum number of page requests to have in progress at once.
+   * @param ordered Whether or not the results should be returned in the order of their pages.
+   */
+  ParallelContentPageIterator(ConfluenceClient client, GetContentRequest request, int parallelism,
+      boolean ordered) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("The parallelism must be a positive number");
+    }
+
+    this.client = client;
+    this.request = request;
+    this.parallelism = parallelism;
+    this.ordered = ordered;
+    int start = request.getStartPosition() != null ? request.getStartPosition() : 0;
+    this.pendingPages.add(new PendingPage(start, client.performRequestAsync(request)));
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!this.currentPage.hasNext() && !this.pendingPages.isEmpty()) {
+      advance();
+    }
+    return this.currentPage.hasNext();
+  }
+
+  @Override
+  public Content next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return this.currentPage.next();
+  }
+
+  /**
+   * This method cancels any page requests that are still in progress.
+   */
+  @Override
+  public void close() {
+    for (PendingPage pendingPage : this.pendingPages) {
+      pendingPage.response.cancel(false);
+    }
+    this.pendingPages.clear();
+  }
+
+  /**
+   * This method waits for the next page of results to be received, and requests further pages
+   * until the maximum number of requests are in progress.
+   */
+  private void advance() {
+    PendingPage pendingPage = this.ordered ? this.pendingPages.peekFirst() : awaitAnyPage();
+    this.pendingPages.remove(pendingPage);
+    GetContentResponse page = ContentPageIterator.await(pendingPage.response);
+
+    if (!this.firstPageReceived) {
+      this.firstPageReceived = true;
+      this.pageSize = page.getLimit() != null ? page.getLimit() : page.getResults().size();
+      this.nextStart = pendingPage.start + page.getResults().size();
+    }
+
+    if (this.lastPageStart != null && pendingPage.start > this.lastPageStart) {
+      // This page was requested speculatively before the end of the results was known
+      return;
+    }
+
+    if (!page.hasNextPage() || this.pageSize <= 0) {
+      this.lastPageStart = pendingPage.start;
+      this.pendingPages.removeIf(pending -> {
+        boolean pastLastPage = pending.start > this.lastPageStart;
+        if (pastLastPage) {
+          pending.response.cancel(false);
+        }
+        return pastLastPage;
+      });
+    }
+
+    while (this.lastPageStart == null && this.pendingPages.size() < this.parallelism) {
+      GetContentRequest pageRequest = new GetContentRequest.Builder(this.request)
+          .setStartPosition(this.nextStart)
+          .build();
+      this.pendingPages.add(
+          new PendingPage(this.nextStart, this.client.performRequestAsync(pageRequest)));
+      this.nextStart += this.pageSize;
+    }
+
+    this.currentPage = page.getResults().iterator();
+  }
+
+  /**
+   * This method waits for any of the pending pages to be received.
+   *
+   * @return The first pending page to be received.
+   */
+  private PendingPage awaitAnyPage() {
+    CompletableFuture.anyOf(this.pendingPages.stream()
+        .map(pendingPage -> pendingPage.response)
+        .toArray(CompletableFuture[]::new))
+        .exceptionally(error -> null)
+        .join();
+    return this.pendingPages.stream()
+        .filter(pendingPage -> pendingPage.response.isDone())
+        .findFirst()
+        .orElseThrow(IllegalStateException::new);
+  }
+
+  /**
+   * This class represents a page of results that has been requested.
+   */
+  private static class PendingPage {
+
+    private final int start;
+    private final CompletableFuture<Object> response;
+
+    private PendingPage(int start, CompletableFuture<Object> response) {
+      this.start = start;
+      this.response = response;
+    }
+  }
+}
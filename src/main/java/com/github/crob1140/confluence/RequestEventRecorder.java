@@ -0,0 +1,101 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.metrics.ConfluenceRequestEvent;
+import com.github.crob1140.confluence.requests.ConfluenceRequest;
+
+/**
+ * <p>This class emits a {@link ConfluenceRequestEvent} for each request, if the runtime includes
+ * Java Flight Recorder.</p>
+ *
+ * <p>The event class is only referenced from a nested class, which is never loaded on runtimes
+ * without the {@code jdk.jfr} module. While no recording enables the event, beginning an event
+ * costs a single allocation and check, and no event is returned.</p>
+ */
+class RequestEventRecorder {
+
+  private static final boolean JFR_AVAILABLE = isJfrAvailable();
+
+  private RequestEventRecorder() {
+  }
+
+  /**
+   * This method returns whether events can be emitted on this runtime.
+   *
+   * @return Whether Java Flight Recorder is available.
+   */
+  static boolean isAvailable() {
+    return JFR_AVAILABLE;
+  }
+
+  /**
+   * This method begins an event for a request that is about to be performed.
+   *
+   * @return The event that has begun, or null if no recording is enabling the event.
+   */
+  static Object begin() {
+    return JFR_AVAILABLE ? Events.begin() : null;
+  }
+
+  /**
+   * This method ends the given event and commits it with the details of the completed request.
+   *
+   * @param event The event that was returned when the request began, which may be null.
+   * @param request The request that was performed.
+   * @param statusCode The status code of the final response, or null if none was received.
+   * @param attempts The number of times the request was sent.
+   * @param bytesSent The number of bytes in the body of the request.
+   * @param bytesReceived The number of bytes of the body of the response that were read.
+   * @param error The error that the request failed with, or null if it succeeded.
+   */
+  static void commit(Object event, ConfluenceRequest request, Integer statusCode, int attempts,
+      long bytesSent, long bytesReceived, Throwable error) {
+    if (event != null) {
+      Events.commit(event, request, statusCode, attempts, bytesSent, bytesReceived, error);
+    }
+  }
+
+  private static boolean isJfrAvailable() {
+    try {
+      Class.forName("jdk.jfr.Event", false, RequestEventRecorder.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  /**
+   * This class contains every reference to the event class, so that it is only loaded if Java
+   * Flight Recorder is available.
+   */
+  private static class Events {
+
+    private static Object begin() {
+      ConfluenceRequestEvent event = new ConfluenceRequestEvent();
+      if (!event.isEnabled()) {
+        return null;
+      }
+      event.begin();
+      return event;
+    }
+
+    private static void commit(Object event, ConfluenceRequest request, Integer statusCode,
+        int attempts, long bytesSent, long bytesReceived, Throwable error) {
+      ConfluenceRequestEvent requestEvent = (ConfluenceRequestEvent) event;
+      requestEvent.end();
+      if (!requestEvent.shouldCommit()) {
+        return;
+      }
+
+      requestEvent.setMethod(request.getMethod());
+      requestEvent.setPath(request.getRelativePath());
+      requestEvent.setPathTemplate(request.getPathTemplate());
+      requestEvent.setExpand(request.getQueryParams().get("expand"));
+      requestEvent.setStatusCode(statusCode != null ? statusCode : 0);
+      requestEvent.setAttempts(attempts);
+      requestEvent.setBytesSent(bytesSent);
+      requestEvent.setBytesReceived(bytesReceived);
+      requestEvent.setError(error != null ? error.getClass().getName() : null);
+      requestEvent.commit();
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.github.crob1140.confluence.batch;
+
+import com.github.crob1140.confluence.requests.CreateContentRequest;
+
+/**
+ * <p>This class represents a single piece of content to create as part of a bulk creation.</p>
+ *
+ * <p>An item may be given a key, so that other items in the same bulk creation can refer to it
+ * as their parent. An item with a parent key is only created once its parent has been created, at
+ * which point the ID of the parent is set as the ancestor of its request.</p>
+ */
+public class BulkCreateItem {
+
+  private final String key;
+  private final String parentKey;
+  private final CreateContentRequest request;
+
+  /**
+   * This constructor creates an item that no other item refers to, and that does not depend on
+   * any other item.
+   *
+   * @param request The request that creates the content.
+   */
+  public BulkCreateItem(CreateContentRequest request) {
+    this(null, null, request);
+  }
+
+  /**
+   * This constructor creates an item that other items may refer to as their parent.
+   *
+   * @param key The key that identifies the item within the bulk creation.
+   * @param request The request that creates the content.
+   */
+  public BulkCreateItem(String key, CreateContentRequest request) {
+    this(key, null, request);
+  }
+
+  /**
+   * This constructor creates an item that is a child of another item in the same bulk creation.
+   *
+   * @param key The key that identifies the item within the bulk creation, or null if no other
+   * item refers to it.
+   * @param parentKey The key of the item that the content should be created under, or null if it
+   * does not depend on any other item.
+   * @param request The request that creates the content.
+   */
+  public BulkCreateItem(String key, String parentKey, CreateContentRequest request) {
+    if (request == null) {
+      throw new IllegalArgumentException("You must specify the request that creates the content");
+    }
+
+    this.key = key;
+    this.parentKey = parentKey;
+    this.request = request;
+  }
+
+  /**
+   * This method returns the key that identifies the item within the bulk creation.
+   *
+   * @return The key of the item, or null if it was not set.
+   */
+  public String getKey() {
+    return this.key;
+  }
+
+  /**
+   * This method returns the key of the item that the content should be created under.
+   *
+   * @return The key of the parent item, or null if the item does not depend on any other item.
+   */
+  public String getParentKey() {
+    return this.parentKey;
+  }
+
+  /**
+   * This method returns the request that creates the content.
+   *
+   * @return The request that creates the content.
+   */
+  public CreateContentRequest getRequest() {
+    return this.request;
+  }
+}
@@ -0,0 +1,69 @@
+package com.github.crob1140.confluence.batch;
+
+import com.github.crob1140.confluence.content.Content;
+import java.util.Optional;
+
+/**
+ * This class represents the outcome of creating a single item of a bulk creation, which is either
+ * the content that was created or the error that prevented it from being created.
+ */
+public class BulkCreateResult {
+
+  private final BulkCreateItem item;
+  private final Content content;
+  private final Throwable error;
+
+  /**
+   * This constructor initialises the result of the given item.
+   *
+   * @param item The item that the result is for.
+   * @param content The content that was created, or null if it was not created.
+   * @param error The error that prevented the content from being created, or null if it was
+   * created.
+   */
+  public BulkCreateResult(BulkCreateItem item, Content content, Throwable error) {
+    this.item = item;
+    this.content = content;
+    this.error = error;
+  }
+
+  /**
+   * This method returns the item that the result is for.
+   *
+   * @return The item that the result is for.
+   */
+  public BulkCreateItem getItem() {
+    return this.item;
+  }
+
+  /**
+   * This method returns whether or not the content was created.
+   *
+   * @return True if the content was created.
+   */
+  public boolean isSuccessful() {
+    return this.error == null;
+  }
+
+  /**
+   * This method returns the content that was created.
+   *
+   * @return The content that was created, or an empty optional if it was not created.
+   */
+  public Optional<Content> getContent() {
+    return Optional.ofNullable(this.content);
+  }
+
+  /**
+   * This method returns the error that prevented the content from being created. This is a
+   * {@link com.github.crob1140.confluence.errors.ConfluenceRequestException} if the server
+   * rejected the request, or an {@link IllegalStateException} if the parent of the item was not
+   * created.
+   *
+   * @return The error that prevented the content from being created, or an empty optional if it
+   * was created.
+   */
+  public Optional<Throwable> getError() {
+    return Optional.ofNullable(this.error);
+  }
+}
@@ -0,0 +1,280 @@
+package com.github.crob1140.confluence.batch;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.util.ContentIds;
+import com.github.crob1140.confluence.util.Futures;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>This class collects lookups of individual pieces of content by their IDs, and retrieves them
+ * in batches with {@link ConfluenceClient#getContentByIdsAsync(java.util.Collection,
+ * ExpandedContentProperties)}, so that code that looks up content one ID at a time from many
+ * independent places still benefits from batched requests.</p>
+ *
+ * <p>The first lookup of a batch starts a short window, during which any further lookups for
+ * content with the same expanded properties are added to the same batch. The batch is retrieved
+ * when the window ends, or as soon as it reaches the maximum batch size, whichever happens first.
+ * Lookups of the same ID within a batch share a single result.</p>
+ *
+ * <p>The loader should be closed once it is no longer needed, which retrieves any batches that are
+ * still collecting lookups and stops the thread that ends each window.</p>
+ */
+public class ContentBatchLoader implements AutoCloseable {
+
+  private final ConfluenceClient client;
+  private final Duration batchWindow;
+  private final int maxBatchSize;
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, PendingBatch> pendingBatches = new HashMap<>();
+  private boolean closed;
+
+  private ContentBatchLoader(Builder builder) {
+    this.client = builder.client;
+    this.batchWindow = builder.batchWindow;
+    this.maxBatchSize = builder.maxBatchSize;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "confluence-batch-loader");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * This method looks up the content with the given ID, without expanding any of its properties.
+   *
+   * @param id The unique identifier of the content.
+   * @return A future that completes with the content, or with an empty optional if it was not
+   * found, once the batch containing the lookup has been retrieved.
+   */
+  public CompletableFuture<Optional<Content>> load(String id) {
+    return load(id, null);
+  }
+
+  /**
+   * This method looks up the content with the given ID and expanded properties.
+   *
+   * @param id The unique identifier of the content.
+   * @param expandedProperties The properties to expand in the content, or null if no properties
+   * should be expanded.
+   * @return A future that completes with the content, or with an empty optional if it was not
+   * found, once the batch containing the lookup has been retrieved. The future completes
+   * exceptionally with a {@link com.github.crob1140.confluence.errors.ConfluenceRequestException}
+   * if an error response is returned for the batch, with an {@link IllegalArgumentException} if
+   * the ID is not numeric, or with an {@link IllegalStateException} if this loader is closed.
+   */
+  public CompletableFuture<Optional<Content>> load(String id,
+      ExpandedContentProperties expandedProperties) {
+    CompletableFuture<Optional<Content>> failedResult = new CompletableFuture<>();
+    try {
+      ContentIds.validate(id);
+    } catch (IllegalArgumentException e) {
+      failedResult.completeExceptionally(e);
+      return failedResult;
+    }
+
+    PendingBatch fullBatch = null;
+    CompletableFuture<Optional<Content>> result;
+    synchronized (this) {
+      if (this.closed) {
+        failedResult.completeExceptionally(new IllegalStateException("The loader is closed"));
+        return failedResult;
+      }
+
+      String key = toKey(expandedProperties);
+      PendingBatch batch = this.pendingBatches.get(key);
+      if (batch == null) {
+        batch = new PendingBatch(key, expandedProperties);
+        this.pendingBatches.put(key, batch);
+        PendingBatch scheduledBatch = batch;
+        batch.timer = this.scheduler.schedule(() -> dispatch(scheduledBatch),
+            this.batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+      }
+
+      result = batch.results.computeIfAbsent(id, batchId -> new CompletableFuture<>());
+      if (batch.results.size() >= this.maxBatchSize) {
+        this.pendingBatches.remove(key);
+        fullBatch = batch;
+      }
+    }
+
+    if (fullBatch != null) {
+      dispatch(fullBatch);
+    }
+
+    return Futures.copy(result);
+  }
+
+  /**
+   * This method retrieves every batch that is still collecting lookups, without waiting for its
+   * window to end.
+   */
+  public void flush() {
+    List<PendingBatch> batches;
+    synchronized (this) {
+      batches = new ArrayList<>(this.pendingBatches.values());
+      this.pendingBatches.clear();
+    }
+    batches.forEach(this::dispatch);
+  }
+
+  /**
+   * This method retrieves every batch that is still collecting lookups, and stops the thread that
+   * ends each window. Any lookups made after this loader is closed fail.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      this.closed = true;
+    }
+    flush();
+    this.scheduler.shutdown();
+  }
+
+  /**
+   * This method retrieves the content of the given batch, and completes the result of each lookup
+   * in it. Batches that have already been retrieved are ignored.
+   *
+   * @param batch The batch to retrieve.
+   */
+  private void dispatch(PendingBatch batch) {
+    synchronized (this) {
+      if (batch.dispatched) {
+        return;
+      }
+      batch.dispatched = true;
+      this.pendingBatches.remove(batch.key, batch);
+    }
+
+    if (batch.timer != null) {
+      batch.timer.cancel(false);
+    }
+
+    CompletableFuture<ContentBatchResult> pendingResult;
+    try {
+      pendingResult = this.client.getContentByIdsAsync(batch.results.keySet(),
+          batch.expandedProperties);
+    } catch (RuntimeException e) {
+      batch.results.values().forEach(result -> result.completeExceptionally(e));
+      return;
+    }
+
+    pendingResult.whenComplete((batchResult, error) -> {
+      if (error != null) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+            ? error.getCause() : error;
+        batch.results.values().forEach(result -> result.completeExceptionally(cause));
+        return;
+      }
+      batch.results.forEach((id, result) -> result.complete(batchResult.getContent(id)));
+    });
+  }
+
+  private static String toKey(ExpandedContentProperties expandedProperties) {
+    if (expandedProperties == null) {
+      return "";
+    }
+    return String.join(",", new TreeSet<>(expandedProperties.getProperties()));
+  }
+
+  /**
+   * This class represents a batch of lookups that share the same expanded properties.
+   */
+  private static class PendingBatch {
+
+    private final String key;
+    private final ExpandedContentProperties expandedProperties;
+    private final Map<String, CompletableFuture<Optional<Content>>> results =
+        new LinkedHashMap<>();
+    private ScheduledFuture<?> timer;
+    private boolean dispatched;
+
+    private PendingBatch(String key, ExpandedContentProperties expandedProperties) {
+      this.key = key;
+      this.expandedProperties = expandedProperties;
+    }
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link ContentBatchLoader}.
+   */
+  public static class Builder {
+
+    private ConfluenceClient client;
+    private Duration batchWindow = Duration.ofMillis(10);
+    private int maxBatchSize = 100;
+
+    /**
+     * This method sets the client that retrieves each batch of content.
+     *
+     * @param client The client that retrieves each batch.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setClient(ConfluenceClient client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * This method sets how long a batch collects lookups for after its first lookup. Longer
+     * windows create larger batches, at the cost of delaying each lookup. This defaults to 10
+     * milliseconds.
+     *
+     * @param batchWindow The amount of time that each batch collects lookups for.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setBatchWindow(Duration batchWindow) {
+      this.batchWindow = batchWindow;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of distinct IDs in a batch. A batch is retrieved as soon
+     * as it reaches this size, without waiting for its window to end. This defaults to 100.
+     *
+     * @param maxBatchSize The maximum number of IDs in a batch.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxBatchSize(int maxBatchSize) {
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link ContentBatchLoader} using the values that were
+     * set on this instance.
+     *
+     * @return A new instance of {@link ContentBatchLoader} with the values set on this instance.
+     * @throws IllegalStateException If the loader that would be created would be invalid.
+     */
+    public ContentBatchLoader build() throws IllegalStateException {
+      if (this.client == null) {
+        throw new IllegalStateException("You must specify the client to retrieve content with");
+      }
+
+      if (this.batchWindow == null || this.batchWindow.isNegative()) {
+        throw new IllegalStateException("The batch window must not be negative");
+      }
+
+      if (this.maxBatchSize <= 0) {
+        throw new IllegalStateException("The maximum batch size must be a positive number");
+      }
+
+      return new ContentBatchLoader(this);
+    }
+  }
+}
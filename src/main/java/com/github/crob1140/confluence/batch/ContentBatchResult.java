@@ -0,0 +1,71 @@
+package com.github.crob1140.confluence.batch;
+
+import com.github.crob1140.confluence.content.Content;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * This class represents the result of retrieving several pieces of content by their IDs, which
+ * contains the content that was found and the IDs of the content that was not.
+ */
+public class ContentBatchResult {
+
+  private final Map<String, Content> content;
+  private final Set<String> missingIds;
+
+  /**
+   * This constructor initialises the result with the given content and missing IDs.
+   *
+   * @param content The content that was found, keyed by its ID.
+   * @param missingIds The IDs of the content that was not found, or that the user does not have
+   * permission to view.
+   */
+  public ContentBatchResult(Map<String, Content> content, Set<String> missingIds) {
+    this.content = Collections.unmodifiableMap(new LinkedHashMap<>(content));
+    this.missingIds = Collections.unmodifiableSet(new LinkedHashSet<>(missingIds));
+  }
+
+  /**
+   * This method returns the content that was found, keyed by its ID. The entries are in the order
+   * in which their IDs were requested.
+   *
+   * @return An unmodifiable map of the content that was found.
+   */
+  public Map<String, Content> getContent() {
+    return this.content;
+  }
+
+  /**
+   * This method returns the content with the given ID, if it was found.
+   *
+   * @param id The unique identifier of the content.
+   * @return The content with the given ID, or an empty optional if it was not found.
+   */
+  public Optional<Content> getContent(String id) {
+    return Optional.ofNullable(this.content.get(id));
+  }
+
+  /**
+   * This method returns the IDs of the content that was not found. Content that the user does not
+   * have permission to view is also reported as missing, as it is not returned by the server.
+   *
+   * @return An unmodifiable set of the IDs that were not found, in the order in which they were
+   * requested.
+   */
+  public Set<String> getMissingIds() {
+    return this.missingIds;
+  }
+
+  /**
+   * This method returns whether or not every requested piece of content was found.
+   *
+   * @return True if no IDs are missing from the result.
+   */
+  public boolean isComplete() {
+    return this.missingIds.isEmpty();
+  }
+}
@@ -0,0 +1,237 @@
+package com.github.crob1140.confluence.batch;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import com.github.crob1140.confluence.util.Futures;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>This class buffers updates to content and sends them periodically, so that content that is
+ * updated many times in quick succession is only updated once per flush interval.</p>
+ *
+ * <p>Pending updates are keyed by the ID of the content. Each update that is submitted replaces
+ * any update to the same content that has not been sent yet, so only the latest title, body and
+ * labels are sent, and every caller whose update was replaced receives the result of the update
+ * that replaced it. An update is never sent while an earlier update to the same content is still
+ * in progress; it is sent at the next flush after the earlier update completes.</p>
+ *
+ * <p>As updates are sent some time after they are submitted, they should normally use {@link
+ * UpdateContentRequest.Builder#setNextVersion()}, so that the version is determined when the
+ * update is sent rather than when it is built.</p>
+ */
+public class WriteBehindBuffer implements AutoCloseable {
+
+  private final ConfluenceClient client;
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+  private final Set<String> updatesInProgress = new HashSet<>();
+  private boolean closed;
+  private long submittedCount;
+  private long sentCount;
+
+  private WriteBehindBuffer(Builder builder) {
+    this.client = builder.client;
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "confluence-write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long intervalNanos = builder.flushInterval.toNanos();
+    this.scheduler.scheduleAtFixedRate(this::flush, intervalNanos, intervalNanos,
+        TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * This method submits an update to be sent at the next flush, replacing any update to the same
+   * content that has not been sent yet.
+   *
+   * @param request The update to send.
+   * @return A future that completes with the new state of the content once the update, or the
+   * update that replaced it, has been applied. The future completes exceptionally with a {@link
+   * com.github.crob1140.confluence.errors.ConfluenceRequestException} if an error response is
+   * returned from the server, or with an {@link IllegalStateException} if this buffer is closed.
+   */
+  public CompletableFuture<Content> submit(UpdateContentRequest request) {
+    CompletableFuture<Content> result;
+    synchronized (this) {
+      if (this.closed) {
+        CompletableFuture<Content> failedResult = new CompletableFuture<>();
+        failedResult.completeExceptionally(new IllegalStateException("The buffer is closed"));
+        return failedResult;
+      }
+
+      this.submittedCount++;
+      PendingUpdate pendingUpdate = this.pendingUpdates.computeIfAbsent(request.getId(),
+          id -> new PendingUpdate());
+      pendingUpdate.request = request;
+      result = pendingUpdate.result;
+    }
+
+    return Futures.copy(result);
+  }
+
+  /**
+   * This method sends every pending update whose content does not already have an update in
+   * progress, without waiting for the flush interval to end.
+   */
+  public void flush() {
+    List<PendingUpdate> updatesToSend = new ArrayList<>();
+    synchronized (this) {
+      Iterator<Map.Entry<String, PendingUpdate>> iterator =
+          this.pendingUpdates.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<String, PendingUpdate> entry = iterator.next();
+        if (this.updatesInProgress.add(entry.getKey())) {
+          iterator.remove();
+          updatesToSend.add(entry.getValue());
+        }
+      }
+      this.sentCount += updatesToSend.size();
+    }
+    updatesToSend.forEach(this::send);
+  }
+
+  /**
+   * This method returns the number of updates that have been submitted to this buffer.
+   *
+   * @return The number of submitted updates.
+   */
+  public synchronized long getSubmittedCount() {
+    return this.submittedCount;
+  }
+
+  /**
+   * This method returns the number of updates that this buffer has sent to the server. The
+   * difference between this and the number of submitted updates is the number of updates that
+   * were replaced before they were sent.
+   *
+   * @return The number of sent updates.
+   */
+  public synchronized long getSentCount() {
+    return this.sentCount;
+  }
+
+  /**
+   * This method sends every pending update, and stops sending updates periodically. Updates whose
+   * content already has an update in progress are sent as soon as that update completes. Any
+   * updates that are submitted after this buffer is closed fail.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      this.closed = true;
+    }
+    this.scheduler.shutdown();
+    flush();
+  }
+
+  /**
+   * This method sends the given update, and completes its result once it has been applied.
+   *
+   * @param pendingUpdate The update to send.
+   */
+  private void send(PendingUpdate pendingUpdate) {
+    String id = pendingUpdate.request.getId();
+    CompletableFuture<Content> pendingContent;
+    try {
+      pendingContent = this.client.updateContentAsync(pendingUpdate.request);
+    } catch (RuntimeException e) {
+      pendingContent = new CompletableFuture<>();
+      pendingContent.completeExceptionally(e);
+    }
+
+    pendingContent.whenComplete((content, error) -> {
+      boolean flushRemaining;
+      synchronized (this) {
+        this.updatesInProgress.remove(id);
+        flushRemaining = this.closed && this.pendingUpdates.containsKey(id);
+      }
+
+      if (error != null) {
+        pendingUpdate.result.completeExceptionally(
+            error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error);
+      } else {
+        pendingUpdate.result.complete(content);
+      }
+
+      if (flushRemaining) {
+        flush();
+      }
+    });
+  }
+
+  /**
+   * This class represents the latest update to a piece of content that has not been sent yet.
+   */
+  private static class PendingUpdate {
+
+    private final CompletableFuture<Content> result = new CompletableFuture<>();
+    private UpdateContentRequest request;
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link WriteBehindBuffer}.
+   */
+  public static class Builder {
+
+    private ConfluenceClient client;
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * This method sets the client that sends the updates.
+     *
+     * @param client The client that sends the updates.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setClient(ConfluenceClient client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * This method sets how often the pending updates are sent. Each piece of content is updated at
+     * most once per interval. This defaults to 1 second.
+     *
+     * @param flushInterval The amount of time between each flush.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setFlushInterval(Duration flushInterval) {
+      this.flushInterval = flushInterval;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link WriteBehindBuffer} using the values that were set
+     * on this instance.
+     *
+     * @return A new instance of {@link WriteBehindBuffer} with the values set on this instance.
+     * @throws IllegalStateException If the buffer that would be created would be invalid.
+     */
+    public WriteBehindBuffer build() throws IllegalStateException {
+      if (this.client == null) {
+        throw new IllegalStateException("You must specify the client to send updates with");
+      }
+
+      if (this.flushInterval == null || this.flushInterval.isNegative()
+          || this.flushInterval.isZero()) {
+        throw new IllegalStateException("The flush interval must be a positive duration");
+      }
+
+      return new WriteBehindBuffer(this);
+    }
+  }
+}
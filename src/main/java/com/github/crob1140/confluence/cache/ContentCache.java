@@ -0,0 +1,614 @@
+package com.github.crob1140.confluence.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.crob1140.confluence.codec.CodecFormat;
+import com.github.crob1140.confluence.codec.ContentCodec;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentBody;
+import com.github.crob1140.confluence.content.ContentBodyFormat;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.ContentObserver;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.io.AtomicFiles;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>This class caches content returned from the Confluence Cloud server, keyed by the ID of the
+ * content and the properties that were expanded in it.</p>
+ *
+ * <p>The cache is bounded by the number of entries, and optionally by the total weight of the
+ * entries, where the weight of an entry defaults to the length of its body. When either bound is
+ * exceeded, the least recently used entries are evicted. Entries may also expire after a fixed
+ * amount of time.</p>
+ *
+ * <p>When content is created or updated, or a newer version of it is returned by any other
+ * request, such as a listing of content with its version expanded, any cached entries for an older
+ * version of that content are invalidated.</p>
+ *
+ * <p>The entries can be saved to a snapshot file, for example when the application shuts down, and
+ * loaded again when it next starts so that the cache does not start empty. The content may have
+ * changed in the meantime, so loaded entries are not returned by {@link #get(String,
+ * ExpandedContentProperties)} until they have been revalidated against the latest version of the
+ * content with {@link #revalidate(String, ExpandedContentProperties, int)}.</p>
+ */
+public class ContentCache implements ContentObserver {
+
+  private static final ContentCodec SNAPSHOT_CODEC = new ContentCodec.Builder()
+      .setFormat(CodecFormat.SMILE)
+      .setSharedStrings(true)
+      .build();
+
+  private final long maximumSize;
+  private final long maximumWeight;
+  private final Duration timeToLive;
+  private final ToLongFunction<Content> weigher;
+  private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Set<String>> keysById = new HashMap<>();
+  private final LinkedHashMap<String, Integer> latestVersions;
+  private long totalWeight;
+  private long hitCount;
+  private long missCount;
+
+  private ContentCache(Builder builder) {
+    this.maximumSize = builder.maximumSize;
+    this.maximumWeight = builder.maximumWeight;
+    this.timeToLive = builder.timeToLive;
+    this.weigher = builder.weigher;
+    this.latestVersions = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  /**
+   * This method returns the cached content with the given ID and expanded properties, if it is
+   * present and has not expired.
+   *
+   * @param id The unique identifier of the content.
+   * @param expandedProperties The properties that were expanded in the content, or null if no
+   * properties were expanded.
+   * @return The cached content, or an empty optional if it was not cached.
+   */
+  public synchronized Optional<Content> get(String id,
+      ExpandedContentProperties expandedProperties) {
+    String key = toKey(id, expandedProperties);
+    CacheEntry entry = this.entries.get(key);
+    if (entry != null && entry.isExpired(System.nanoTime())) {
+      remove(key);
+      entry = null;
+    }
+
+    if (entry == null || entry.needsRevalidation) {
+      this.missCount++;
+      return Optional.empty();
+    }
+
+    this.hitCount++;
+    return Optional.of(entry.content);
+  }
+
+  /**
+   * This method returns whether or not there is an entry for the content with the given ID and
+   * expanded properties that was loaded from a snapshot and has not yet been revalidated.
+   *
+   * @param id The unique identifier of the content.
+   * @param expandedProperties The properties that were expanded in the content, or null if no
+   * properties were expanded.
+   * @return True if the entry must be revalidated before it can be returned.
+   */
+  public synchronized boolean needsRevalidation(String id,
+      ExpandedContentProperties expandedProperties) {
+    CacheEntry entry = this.entries.get(toKey(id, expandedProperties));
+    return entry != null && entry.needsRevalidation && !entry.isExpired(System.nanoTime());
+  }
+
+  /**
+   * This method revalidates the cached entries for the content with the given ID against the
+   * latest version of the content. Entries for the latest version are kept and can be returned
+   * again, while entries for older versions are invalidated.
+   *
+   * @param id The unique identifier of the content.
+   * @param expandedProperties The properties that were expanded in the content, or null if no
+   * properties were expanded.
+   * @param latestVersion The latest version number of the content.
+   * @return The cached content with the given expanded properties if it is the latest version, or
+   * an empty optional if it is not cached or is out of date.
+   */
+  public synchronized Optional<Content> revalidate(String id,
+      ExpandedContentProperties expandedProperties, int latestVersion) {
+    recordVersion(id, latestVersion);
+    Set<String> keys = this.keysById.get(id);
+    if (keys != null) {
+      keys.forEach(key -> this.entries.get(key).needsRevalidation = false);
+    }
+
+    CacheEntry entry = this.entries.get(toKey(id, expandedProperties));
+    return entry != null ? Optional.of(entry.content) : Optional.empty();
+  }
+
+  /**
+   * This method caches the given content under its ID and the given expanded properties. The
+   * content is not cached if a newer version of it is already known to exist, or if it is heavier
+   * than the maximum weight of the cache.
+   *
+   * @param content The content to cache.
+   * @param expandedProperties The properties that were expanded in the content, or null if no
+   * properties were expanded.
+   */
+  public synchronized void put(Content content, ExpandedContentProperties expandedProperties) {
+    Integer version = getVersionNumber(content);
+    Integer latestVersion = this.latestVersions.get(content.getId());
+    if (latestVersion != null && (version == null || version < latestVersion)) {
+      return;
+    }
+
+    long weight = this.weigher.applyAsLong(content);
+    if (weight > this.maximumWeight) {
+      return;
+    }
+
+    String key = toKey(content.getId(), expandedProperties);
+    remove(key);
+
+    long expiresAt = this.timeToLive != null ? System.nanoTime() + this.timeToLive.toNanos() : 0;
+    this.entries.put(key, new CacheEntry(content, version, weight, expiresAt));
+    this.keysById.computeIfAbsent(content.getId(), id -> new HashSet<>()).add(key);
+    this.totalWeight += weight;
+    evict();
+  }
+
+  /**
+   * This method records that the given content was created or modified, invalidating every cached
+   * entry for an older version of the content. If the version of the given content is not known,
+   * every cached entry for the content is invalidated.
+   *
+   * @param content The content that was created or modified.
+   */
+  public synchronized void onContentModified(Content content) {
+    Integer version = getVersionNumber(content);
+    if (version == null) {
+      invalidate(content.getId());
+      return;
+    }
+    recordVersion(content.getId(), version);
+  }
+
+  /**
+   * This method records the version of the given content that was returned by the server,
+   * invalidating every cached entry for an older version of the content. Content whose version is
+   * not known is ignored, since it may not have been requested with its version expanded.
+   *
+   * @param content The content that was returned.
+   */
+  @Override
+  public synchronized void onContentReceived(Content content) {
+    Integer version = getVersionNumber(content);
+    if (content.getId() != null && version != null) {
+      recordVersion(content.getId(), version);
+    }
+  }
+
+  /**
+   * This method invalidates every cached entry for the content with the given ID.
+   *
+   * @param id The unique identifier of the content.
+   */
+  public synchronized void invalidate(String id) {
+    Set<String> keys = this.keysById.get(id);
+    if (keys != null) {
+      for (String key : new HashSet<>(keys)) {
+        remove(key);
+      }
+    }
+  }
+
+  /**
+   * This method invalidates every cached entry.
+   */
+  public synchronized void invalidateAll() {
+    this.entries.clear();
+    this.keysById.clear();
+    this.totalWeight = 0;
+  }
+
+  /**
+   * This method saves every entry in the cache to the given snapshot file in the compact Smile
+   * format, in the same way as {@link #saveSnapshot(Path, ContentCodec)}.
+   *
+   * @param file The file to save the snapshot to.
+   * @return The number of entries that were saved.
+   * @throws IOException If the snapshot could not be written.
+   */
+  public int saveSnapshot(Path file) throws IOException {
+    return saveSnapshot(file, SNAPSHOT_CODEC);
+  }
+
+  /**
+   * <p>This method saves every entry in the cache to the given snapshot file, encoded with the
+   * given codec. Entries that have expired, or whose version is not known and so could not be
+   * revalidated, are not saved.</p>
+   *
+   * <p>The file always holds either the previous snapshot or this one in full, even if the process
+   * is stopped part way.</p>
+   *
+   * @param file The file to save the snapshot to.
+   * @param codec The codec to encode the entries with.
+   * @return The number of entries that were saved.
+   * @throws IOException If the snapshot could not be written.
+   */
+  public int saveSnapshot(Path file, ContentCodec codec) throws IOException {
+    List<SnapshotEntry> snapshotEntries = new ArrayList<>();
+    synchronized (this) {
+      long now = System.nanoTime();
+      for (Map.Entry<String, CacheEntry> entry : this.entries.entrySet()) {
+        if (entry.getValue().version != null && !entry.getValue().isExpired(now)) {
+          snapshotEntries.add(new SnapshotEntry(entry.getKey(), entry.getValue().content));
+        }
+      }
+    }
+
+    AtomicFiles.write(file, output -> codec.encodeAll(snapshotEntries.iterator(), output));
+    return snapshotEntries.size();
+  }
+
+  /**
+   * This method loads the entries from a snapshot file that was saved by {@link
+   * #saveSnapshot(Path)}.
+   *
+   * @param file The file to load the snapshot from.
+   * @return The number of entries that were loaded.
+   * @throws IOException If the snapshot could not be read.
+   */
+  public int loadSnapshot(Path file) throws IOException {
+    return loadSnapshot(file, SNAPSHOT_CODEC);
+  }
+
+  /**
+   * <p>This method loads the entries from a snapshot file that was saved by {@link
+   * #saveSnapshot(Path, ContentCodec)} with a codec of the same format. Nothing is loaded if the
+   * file does not exist.</p>
+   *
+   * <p>Loaded entries are subject to the bounds of this cache, and their time to live starts when
+   * they are loaded. They are not returned until they have been revalidated, and they do not
+   * replace entries that are already in the cache, or entries for versions older than one that is
+   * already known.</p>
+   *
+   * @param file The file to load the snapshot from.
+   * @param codec The codec to decode the entries with.
+   * @return The number of entries that were loaded.
+   * @throws IOException If the snapshot could not be read.
+   */
+  public int loadSnapshot(Path file, ContentCodec codec) throws IOException {
+    List<SnapshotEntry> snapshotEntries = new ArrayList<>();
+    try (InputStream input = Files.newInputStream(file)) {
+      codec.decodeAll(input, SnapshotEntry.class, snapshotEntries::add);
+    } catch (NoSuchFileException e) {
+      return 0;
+    }
+
+    int loadedCount = 0;
+    synchronized (this) {
+      for (SnapshotEntry snapshotEntry : snapshotEntries) {
+        if (snapshotEntry.key != null && snapshotEntry.content != null
+            && load(snapshotEntry.key, snapshotEntry.content)) {
+          loadedCount++;
+        }
+      }
+      evict();
+    }
+    return loadedCount;
+  }
+
+  /**
+   * This method returns the number of entries in the cache.
+   *
+   * @return The number of entries in the cache.
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * This method returns the total weight of the entries in the cache.
+   *
+   * @return The total weight of the entries in the cache.
+   */
+  public synchronized long getWeight() {
+    return this.totalWeight;
+  }
+
+  /**
+   * This method returns the number of lookups that returned cached content.
+   *
+   * @return The number of lookups that returned cached content.
+   */
+  public synchronized long getHitCount() {
+    return this.hitCount;
+  }
+
+  /**
+   * This method returns the number of lookups that did not return cached content.
+   *
+   * @return The number of lookups that did not return cached content.
+   */
+  public synchronized long getMissCount() {
+    return this.missCount;
+  }
+
+  /**
+   * This method records that the given version of the content with the given ID exists, and
+   * invalidates every cached entry for an older version of the content.
+   *
+   * @param id The unique identifier of the content.
+   * @param version The version number of the content.
+   */
+  private void recordVersion(String id, int version) {
+    this.latestVersions.merge(id, version, Math::max);
+    Set<String> keys = this.keysById.get(id);
+    if (keys != null) {
+      for (String key : new HashSet<>(keys)) {
+        CacheEntry entry = this.entries.get(key);
+        if (entry.version == null || entry.version < version) {
+          remove(key);
+        }
+      }
+    }
+  }
+
+  /**
+   * This method adds an entry that was loaded from a snapshot, unless it would replace an entry
+   * that is already in the cache or is older than the latest known version of the content.
+   *
+   * @param key The key of the entry.
+   * @param content The content of the entry.
+   * @return True if the entry was added.
+   */
+  private boolean load(String key, Content content) {
+    Integer version = getVersionNumber(content);
+    Integer latestVersion = this.latestVersions.get(content.getId());
+    if (version == null || (latestVersion != null && version < latestVersion)
+        || this.entries.containsKey(key)) {
+      return false;
+    }
+
+    long weight = this.weigher.applyAsLong(content);
+    if (weight > this.maximumWeight) {
+      return false;
+    }
+
+    long expiresAt = this.timeToLive != null ? System.nanoTime() + this.timeToLive.toNanos() : 0;
+    CacheEntry entry = new CacheEntry(content, version, weight, expiresAt);
+    entry.needsRevalidation = true;
+    this.entries.put(key, entry);
+    this.keysById.computeIfAbsent(content.getId(), id -> new HashSet<>()).add(key);
+    this.totalWeight += weight;
+    return true;
+  }
+
+  /**
+   * This method evicts the least recently used entries until the cache is within its bounds.
+   */
+  private void evict() {
+    Iterator<Map.Entry<String, CacheEntry>> eldestEntries = this.entries.entrySet().iterator();
+    while ((this.entries.size() > this.maximumSize || this.totalWeight > this.maximumWeight)
+        && eldestEntries.hasNext()) {
+      Map.Entry<String, CacheEntry> eldestEntry = eldestEntries.next();
+      eldestEntries.remove();
+      onRemoved(eldestEntry.getKey(), eldestEntry.getValue());
+    }
+  }
+
+  /**
+   * This method removes the entry with the given key, if there is one.
+   *
+   * @param key The key of the entry to remove.
+   */
+  private void remove(String key) {
+    CacheEntry entry = this.entries.remove(key);
+    if (entry != null) {
+      onRemoved(key, entry);
+    }
+  }
+
+  /**
+   * This method updates the weight and ID index of the cache after the given entry was removed.
+   *
+   * @param key The key of the removed entry.
+   * @param entry The removed entry.
+   */
+  private void onRemoved(String key, CacheEntry entry) {
+    this.totalWeight -= entry.weight;
+    String id = entry.content.getId();
+    Set<String> keys = this.keysById.get(id);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        this.keysById.remove(id);
+      }
+    }
+  }
+
+  /**
+   * This method returns the key for the content with the given ID and expanded properties. The
+   * expanded properties are sorted so that the key does not depend on the order in which they
+   * were added.
+   *
+   * @param id The unique identifier of the content.
+   * @param expandedProperties The properties that were expanded in the content.
+   * @return The key for the content.
+   */
+  static String toKey(String id, ExpandedContentProperties expandedProperties) {
+    if (expandedProperties == null || expandedProperties.getProperties().isEmpty()) {
+      return id;
+    }
+    return id + "?" + String.join(",", new TreeSet<>(expandedProperties.getProperties()));
+  }
+
+  /**
+   * This method returns the version number of the given content, if it is known.
+   *
+   * @param content The content to return the version number of.
+   * @return The version number of the content, or null if it is not known.
+   */
+  static Integer getVersionNumber(Content content) {
+    return content.getVersion() != null ? content.getVersion().getNumber() : null;
+  }
+
+  /**
+   * This method returns the default weight of the given content, which is the total length of
+   * each representation of its body, plus one.
+   *
+   * @param content The content to weigh.
+   * @return The weight of the content.
+   */
+  static long getBodyWeight(Content content) {
+    long weight = 1;
+    ContentBody body = content.getBody();
+    if (body != null) {
+      for (ContentBodyType type : ContentBodyType.values()) {
+        ContentBodyFormat format = body.getFormat(type);
+        if (format != null && format.getValue() != null) {
+          weight += format.getValue().length();
+        }
+      }
+    }
+    return weight;
+  }
+
+  /**
+   * This class represents an entry in the cache.
+   */
+  private static class CacheEntry {
+
+    private final Content content;
+    private final Integer version;
+    private final long weight;
+    private final long expiresAt;
+    private boolean needsRevalidation;
+
+    private CacheEntry(Content content, Integer version, long weight, long expiresAt) {
+      this.content = content;
+      this.version = version;
+      this.weight = weight;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return this.expiresAt != 0 && now - this.expiresAt >= 0;
+    }
+  }
+
+  /**
+   * This class represents an entry in a snapshot of the cache.
+   */
+  private static class SnapshotEntry {
+
+    @JsonProperty
+    private String key;
+    @JsonProperty
+    private Content content;
+
+    private SnapshotEntry() {
+    }
+
+    private SnapshotEntry(String key, Content content) {
+      this.key = key;
+      this.content = content;
+    }
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link ContentCache}.
+   */
+  public static class Builder {
+
+    private long maximumSize = 10_000;
+    private long maximumWeight = Long.MAX_VALUE;
+    private Duration timeToLive;
+    private ToLongFunction<Content> weigher = ContentCache::getBodyWeight;
+
+    /**
+     * This method sets the maximum number of entries in the cache. This defaults to 10,000.
+     *
+     * @param maximumSize The maximum number of entries in the cache.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum total weight of the entries in the cache. The total weight is
+     * not bounded by default.
+     *
+     * @param maximumWeight The maximum total weight of the entries in the cache.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaximumWeight(long maximumWeight) {
+      this.maximumWeight = maximumWeight;
+      return this;
+    }
+
+    /**
+     * This method sets the amount of time after which an entry expires. Entries do not expire by
+     * default.
+     *
+     * @param timeToLive The amount of time after which an entry expires.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setTimeToLive(Duration timeToLive) {
+      this.timeToLive = timeToLive;
+      return this;
+    }
+
+    /**
+     * This method sets the function used to calculate the weight of each entry. By default, the
+     * weight is the total length of each representation of the body of the content, plus one.
+     *
+     * @param weigher The function used to calculate the weight of each entry.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setWeigher(ToLongFunction<Content> weigher) {
+      this.weigher = weigher;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link ContentCache} using the values that were set on
+     * this instance.
+     *
+     * @return A new instance of {@link ContentCache} with the values set on this instance.
+     * @throws IllegalStateException If the cache that would be created would be invalid.
+     */
+    public ContentCache build() throws IllegalStateException {
+      if (this.maximumSize <= 0 || this.maximumWeight <= 0) {
+        throw new IllegalStateException("The maximum size and weight must be positive numbers");
+      }
+
+      if (this.timeToLive != null && (this.timeToLive.isNegative() || this.timeToLive.isZero())) {
+        throw new IllegalStateException("The time to live must be a positive duration");
+      }
+
+      return new ContentCache(this);
+    }
+  }
+}
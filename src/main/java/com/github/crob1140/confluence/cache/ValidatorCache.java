@@ -0,0 +1,139 @@
+package com.github.crob1140.confluence.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>This class remembers the validators (the "ETag" and "Last-Modified" headers) that were
+ * returned for GET requests, along with the de-serialized response, keyed by the URI of each
+ * request.</p>
+ *
+ * <p>This allows the client to make subsequent requests to the same URI conditional, so that the
+ * server can respond with "304 Not Modified" instead of sending and rendering the same response
+ * again. The least recently used entries are evicted once the maximum number of entries is
+ * exceeded.</p>
+ *
+ * <p>As the URI of a request does not identify the user making it, a cache should not be shared
+ * between clients that use different credentials.</p>
+ */
+public class ValidatorCache {
+
+  private final LinkedHashMap<String, CachedResponse> entries;
+  private long revalidationCount;
+
+  /**
+   * This constructor creates an empty cache that holds up to the given number of entries.
+   *
+   * @param maximumSize The maximum number of entries in the cache.
+   */
+  public ValidatorCache(int maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("The maximum size must be a positive number");
+    }
+
+    this.entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  /**
+   * This method returns the response that was cached for the given URI, if there is one.
+   *
+   * @param uri The URI of the request.
+   * @return The cached response, or an empty optional if there is none.
+   */
+  public synchronized Optional<CachedResponse> get(String uri) {
+    return Optional.ofNullable(this.entries.get(uri));
+  }
+
+  /**
+   * This method caches the given response for the given URI, replacing any existing entry.
+   *
+   * @param uri The URI of the request.
+   * @param response The response to cache.
+   */
+  public synchronized void put(String uri, CachedResponse response) {
+    this.entries.put(uri, response);
+  }
+
+  /**
+   * This method records that the server confirmed that a cached response is still valid.
+   */
+  public synchronized void recordRevalidation() {
+    this.revalidationCount++;
+  }
+
+  /**
+   * This method returns the number of times the server confirmed that a cached response was still
+   * valid, and so did not need to send the response again.
+   *
+   * @return The number of times a cached response was reused.
+   */
+  public synchronized long getRevalidationCount() {
+    return this.revalidationCount;
+  }
+
+  /**
+   * This method returns the number of entries in the cache.
+   *
+   * @return The number of entries in the cache.
+   */
+  public synchronized int size() {
+    return this.entries.size();
+  }
+
+  /**
+   * This class represents a response that was cached along with its validators.
+   */
+  public static class CachedResponse {
+
+    private final String entityTag;
+    private final String lastModified;
+    private final Object entity;
+
+    /**
+     * This constructor creates a cached response with the given validators and entity.
+     *
+     * @param entityTag The value of the "ETag" header of the response, or null if there was none.
+     * @param lastModified The value of the "Last-Modified" header of the response, or null if
+     * there was none.
+     * @param entity The de-serialized entity of the response.
+     */
+    public CachedResponse(String entityTag, String lastModified, Object entity) {
+      this.entityTag = entityTag;
+      this.lastModified = lastModified;
+      this.entity = entity;
+    }
+
+    /**
+     * This method returns the value of the "ETag" header of the response.
+     *
+     * @return The value of the "ETag" header of the response, or null if there was none.
+     */
+    public String getEntityTag() {
+      return this.entityTag;
+    }
+
+    /**
+     * This method returns the value of the "Last-Modified" header of the response.
+     *
+     * @return The value of the "Last-Modified" header of the response, or null if there was none.
+     */
+    public String getLastModified() {
+      return this.lastModified;
+    }
+
+    /**
+     * This method returns the de-serialized entity of the response.
+     *
+     * @return The de-serialized entity of the response.
+     */
+    public Object getEntity() {
+      return this.entity;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.github.crob1140.confluence.cache;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentObserver;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>This class records the latest known version number of each piece of content that is returned
+ * by the Confluence Cloud server, so that content can be updated without first requesting its
+ * current version.</p>
+ *
+ * <p>Only content whose version was returned is recorded, so requests for content that is about to
+ * be updated should expand its version. The recorded version of a piece of content never
+ * decreases, as older versions of content may also be returned. The registry is bounded by the
+ * number of entries, beyond which the least recently used entries are forgotten.</p>
+ */
+public class VersionRegistry implements ContentObserver {
+
+  private final LinkedHashMap<String, Integer> versions;
+
+  private VersionRegistry(Builder builder) {
+    long maximumSize = builder.maximumSize;
+    this.versions = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+        return size() > maximumSize;
+      }
+    };
+  }
+
+  /**
+   * This method records the version of the given content, if it is newer than the recorded
+   * version.
+   *
+   * @param content The content that was returned.
+   */
+  @Override
+  public synchronized void onContentReceived(Content content) {
+    if (content.getId() == null || content.getVersion() == null
+        || content.getVersion().getNumber() == null) {
+      return;
+    }
+    this.versions.merge(content.getId(), content.getVersion().getNumber(), Math::max);
+  }
+
+  /**
+   * This method returns the latest known version number of the content with the given ID.
+   *
+   * @param id The unique identifier of the content.
+   * @return The latest known version number, or an empty optional if it is not known.
+   */
+  public synchronized Optional<Integer> getVersion(String id) {
+    return Optional.ofNullable(this.versions.get(id));
+  }
+
+  /**
+   * This method forgets the version of the content with the given ID, such as when the content has
+   * been deleted.
+   *
+   * @param id The unique identifier of the content.
+   */
+  public synchronized void invalidate(String id) {
+    this.versions.remove(id);
+  }
+
+  /**
+   * This method returns the number of pieces of content whose version is recorded.
+   *
+   * @return The number of recorded versions.
+   */
+  public synchronized int size() {
+    return this.versions.size();
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link VersionRegistry}.
+   */
+  public static class Builder {
+
+    private long maximumSize = 100_000;
+
+    /**
+     * This method sets the maximum number of versions to record. This defaults to 100,000.
+     *
+     * @param maximumSize The maximum number of versions to record.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaximumSize(long maximumSize) {
+      this.maximumSize = maximumSize;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link VersionRegistry} using the values that were set on
+     * this instance.
+     *
+     * @return A new instance of {@link VersionRegistry} with the values set on this instance.
+     * @throws IllegalStateException If the registry that would be created would be invalid.
+     */
+    public VersionRegistry build() throws IllegalStateException {
+      if (this.maximumSize <= 0) {
+        throw new IllegalStateException("The maximum size must be a positive number");
+      }
+
+      return new VersionRegistry(this);
+    }
+  }
+}
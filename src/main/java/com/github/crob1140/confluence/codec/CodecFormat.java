@@ -0,0 +1,16 @@
+package com.github.crob1140.confluence.codec;
+
+/**
+ * This enumerable represents the formats that a {@link ContentCodec} can encode values in.
+ */
+public enum CodecFormat {
+  /**
+   * The JSON text format that is used by the Confluence Cloud server.
+   */
+  JSON,
+  /**
+   * The Smile binary format, which represents the same data model as JSON more compactly, and
+   * refers back to property names that have already been written instead of repeating them.
+   */
+  SMILE
+}
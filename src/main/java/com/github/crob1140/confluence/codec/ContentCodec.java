@@ -0,0 +1,185 @@
+package com.github.crob1140.confluence.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.github.crob1140.confluence.content.Content;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * <p>This class encodes content, and the other values that are returned from the Confluence Cloud
+ * server such as its body, metadata, version, space and users, so that they can be cached or
+ * stored and decoded again later.</p>
+ *
+ * <p>Values are encoded with the same Jackson mappings that are used to read them from the server,
+ * so anything that can be read from a response can be encoded. The binary {@link
+ * CodecFormat#SMILE} format, which is the default, is both smaller and faster to decode than
+ * JSON. Its shared strings mode additionally refers back to short string values that have already
+ * been written, such as space keys, content types and user names, which makes a sequence of many
+ * pieces of content from the same space considerably smaller at a small cost to encoding.</p>
+ *
+ * <p>Values can only be decoded by a codec with the same format. Instances are safe to share
+ * between threads.</p>
+ */
+public class ContentCodec {
+
+  private final CodecFormat format;
+  private final ObjectMapper mapper;
+
+  private ContentCodec(Builder builder) {
+    this.format = builder.format;
+    if (builder.format == CodecFormat.SMILE) {
+      SmileFactory factory = new SmileFactory();
+      factory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, builder.sharedStrings);
+      this.mapper = new ObjectMapper(factory);
+    } else {
+      this.mapper = new ObjectMapper();
+    }
+  }
+
+  /**
+   * This method returns the format that this codec encodes values in.
+   *
+   * @return The format of the encoded values.
+   */
+  public CodecFormat getFormat() {
+    return this.format;
+  }
+
+  /**
+   * This method encodes the given value.
+   *
+   * @param value The value to encode, such as an instance of {@link Content}.
+   * @return The encoded value.
+   * @throws IOException If the value could not be encoded.
+   */
+  public byte[] encode(Object value) throws IOException {
+    return this.mapper.writeValueAsBytes(value);
+  }
+
+  /**
+   * This method decodes a piece of content that was encoded by a codec with the same format.
+   *
+   * @param data The encoded content.
+   * @return The decoded content.
+   * @throws IOException If the data could not be decoded.
+   */
+  public Content decode(byte[] data) throws IOException {
+    return decode(data, Content.class);
+  }
+
+  /**
+   * This method decodes a value of the given type that was encoded by a codec with the same
+   * format.
+   *
+   * @param data The encoded value.
+   * @param type The type of the value.
+   * @param <T> The type of the value.
+   * @return The decoded value.
+   * @throws IOException If the data could not be decoded.
+   */
+  public <T> T decode(byte[] data, Class<T> type) throws IOException {
+    return this.mapper.readValue(data, type);
+  }
+
+  /**
+   * This method encodes each of the given values into a single sequence, so that strings that are
+   * shared between the values only need to be written once. The output stream is not closed.
+   *
+   * @param values The values to encode.
+   * @param output The stream to write the encoded sequence to.
+   * @throws IOException If the values could not be encoded or written.
+   */
+  public void encodeAll(Iterator<?> values, OutputStream output) throws IOException {
+    try (SequenceWriter writer = this.mapper.writer()
+        .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+        .writeValues(output)) {
+      while (values.hasNext()) {
+        writer.write(values.next());
+      }
+    }
+  }
+
+  /**
+   * This method decodes each value of a sequence that was encoded by {@link
+   * #encodeAll(Iterator, OutputStream)}, and passes it to the given consumer as soon as it has been
+   * decoded. The input stream is not closed.
+   *
+   * @param input The stream to read the encoded sequence from.
+   * @param type The type of each value in the sequence.
+   * @param consumer The consumer to pass each decoded value to.
+   * @param <T> The type of each value in the sequence.
+   * @throws IOException If the sequence could not be read or decoded.
+   */
+  public <T> void decodeAll(InputStream input, Class<T> type, Consumer<? super T> consumer)
+      throws IOException {
+    try (MappingIterator<T> values = this.mapper.readerFor(type)
+        .without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+        .readValues(input)) {
+      while (values.hasNextValue()) {
+        consumer.accept(values.nextValue());
+      }
+    }
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link ContentCodec}.
+   */
+  public static class Builder {
+
+    private CodecFormat format = CodecFormat.SMILE;
+    private boolean sharedStrings;
+
+    /**
+     * This method sets the format that values are encoded in. This defaults to {@link
+     * CodecFormat#SMILE}.
+     *
+     * @param format The format of the encoded values.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setFormat(CodecFormat format) {
+      this.format = format;
+      return this;
+    }
+
+    /**
+     * This method sets whether or not short string values that have already been written are
+     * referred back to instead of being repeated. This only applies to the {@link
+     * CodecFormat#SMILE} format, and is disabled by default.
+     *
+     * @param sharedStrings Whether or not to share repeated string values.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setSharedStrings(boolean sharedStrings) {
+      this.sharedStrings = sharedStrings;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link ContentCodec} using the values that were set on
+     * this instance.
+     *
+     * @return A new instance of {@link ContentCodec} with the values set on this instance.
+     * @throws IllegalStateException If the codec that would be created would be invalid.
+     */
+    public ContentCodec build() throws IllegalStateException {
+      if (this.format == null) {
+        throw new IllegalStateException("You must specify the format to encode values in");
+      }
+
+      if (this.sharedStrings && this.format != CodecFormat.SMILE) {
+        throw new IllegalStateException("Shared strings are only supported by the Smile format");
+      }
+
+      return new ContentCodec(this);
+    }
+  }
+}
@@ -148,6 +148,30 @@ public class Content {
     private Metadata metadata;
     private Version version;
 
+    /**
+     * This constructor creates a builder with no values set.
+     */
+    public Builder() {
+    }
+
+    /**
+     * This constructor creates a builder with all of the values of the given content, so that a
+     * modified copy of the content can be created.
+     *
+     * @param content The content to copy the values of.
+     */
+    public Builder(Content content) {
+      this.id = content.id;
+      this.type = content.type;
+      this.status = content.status;
+      this.title = content.title;
+      this.space = content.space;
+      this.ancestors = content.ancestors;
+      this.body = content.body;
+      this.metadata = content.metadata;
+      this.version = content.version;
+    }
+
     /**
      * This method sets the unique identifier for the content.
      *
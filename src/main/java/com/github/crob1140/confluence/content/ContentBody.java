@@ -59,4 +59,29 @@ public class ContentBody {
         break;
     }
   }
+
+  /**
+   * This method returns the representation of the body for the given type.
+   *
+   * @param type The body type to return the representation of.
+   * @return The representation of the body for the given type, or null if it was not included.
+   */
+  public ContentBodyFormat getFormat(ContentBodyType type) {
+    switch (type) {
+      case ANONYMOUS_EXPORT_VIEW:
+        return this.anonymous_export_view;
+      case EDITOR2:
+        return this.editor2;
+      case EXPORT_VIEW:
+        return this.export_view;
+      case STORAGE:
+        return this.storage;
+      case STYLED_VIEW:
+        return this.styled_view;
+      case VIEW:
+        return this.view;
+      default:
+        return null;
+    }
+  }
 }
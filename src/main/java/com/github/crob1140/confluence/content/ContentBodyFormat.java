@@ -33,4 +33,22 @@ public class ContentBodyFormat {
     this.value = value;
     this.representation = representation;
   }
+
+  /**
+   * This method returns the value of the format.
+   *
+   * @return The value of the format.
+   */
+  public String getValue() {
+    return this.value;
+  }
+
+  /**
+   * This method returns the representation of the format.
+   *
+   * @return The representation of the format.
+   */
+  public String getRepresentation() {
+    return this.representation;
+  }
 }
@@ -0,0 +1,18 @@
+package com.github.crob1140.confluence.content;
+
+/**
+ * This interface is notified of each piece of content that is returned by the Confluence Cloud
+ * server, so that information about the content can be tracked without requesting it again.
+ */
+public interface ContentObserver {
+
+  /**
+   * This method is called with each piece of content that is returned by the server, including
+   * each result of a page of content. It is called on the thread that read the response, so it
+   * should return quickly and must be safe to call from several threads at once. Any exception
+   * that it throws is ignored, so that it does not affect the outcome of the request.
+   *
+   * @param content The content that was returned.
+   */
+  void onContentReceived(Content content);
+}
@@ -17,6 +17,8 @@ public class Version {
   private User by;
   @JsonProperty
   private Integer number;
+  @JsonProperty
+  private String when;
 
   @SuppressWarnings("unused")
   private Version() {
@@ -49,4 +51,14 @@ public class Version {
   public Integer getNumber() {
     return number;
   }
+
+  /**
+   * This method returns when the version was created, which is when the content was last modified
+   * if this is its latest version.
+   *
+   * @return The ISO-8601 timestamp of the version, such as "2018-05-03T04:23:11.000Z".
+   */
+  public String getWhen() {
+    return when;
+  }
 }
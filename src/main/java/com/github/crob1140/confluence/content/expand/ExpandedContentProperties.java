@@ -38,6 +38,16 @@ public class ExpandedContentProperties {
       this.properties = new HashSet<>();
     }
 
+    /**
+     * This constructor creates a builder that starts with the same properties as the given
+     * instance, so that further properties can be added to them.
+     *
+     * @param expandedProperties The properties to start with.
+     */
+    public Builder(ExpandedContentProperties expandedProperties) {
+      this.properties = new HashSet<>(expandedProperties.getProperties());
+    }
+
     /**
      * This method adds the given child types to the list of expanded properties.
      *
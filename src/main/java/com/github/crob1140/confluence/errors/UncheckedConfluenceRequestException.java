@@ -0,0 +1,27 @@
+package com.github.crob1140.confluence.errors;
+
+/**
+ * This class wraps a {@link ConfluenceRequestException} with an unchecked exception, for use in
+ * contexts where checked exceptions cannot be thrown, such as an {@link java.util.Iterator}.
+ */
+public class UncheckedConfluenceRequestException extends RuntimeException {
+
+  /**
+   * This constructor creates a new instance that wraps the given exception.
+   *
+   * @param cause The exception to wrap.
+   */
+  public UncheckedConfluenceRequestException(ConfluenceRequestException cause) {
+    super(cause.getMessage(), cause);
+  }
+
+  /**
+   * This method returns the wrapped exception.
+   *
+   * @return The wrapped exception.
+   */
+  @Override
+  public ConfluenceRequestException getCause() {
+    return (ConfluenceRequestException) super.getCause();
+  }
+}
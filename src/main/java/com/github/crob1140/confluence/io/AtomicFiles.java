@@ -0,0 +1,87 @@
+package com.github.crob1140.confluence.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>This class writes files so that they always hold either their previous contents or their new
+ * contents in full, even if the process is stopped part way.</p>
+ *
+ * <p>The new contents are written to a temporary file in the same directory and forced to disk,
+ * and the temporary file then replaces the original. The contents must be on disk before the
+ * replacement, or a crash could leave an empty or partial file in place of the original.</p>
+ *
+ * <p>This class is used by the other packages of this library to store their files, and is not
+ * intended to be used directly.</p>
+ */
+public final class AtomicFiles {
+
+  private AtomicFiles() {
+    // Static utility class
+  }
+
+  /**
+   * This interface represents a function that writes the new contents of a file.
+   */
+  @FunctionalInterface
+  public interface ContentsWriter {
+
+    /**
+     * This method writes the new contents of the file to the given stream.
+     *
+     * @param output The stream to write the contents to.
+     * @throws IOException If the contents could not be written.
+     */
+    void writeTo(OutputStream output) throws IOException;
+  }
+
+  /**
+   * This method replaces the contents of the given file with the contents written by the given
+   * writer.
+   *
+   * @param file The file to write.
+   * @param writer The writer of the new contents.
+   * @throws IOException If the file could not be written.
+   */
+  public static void write(Path file, ContentsWriter writer) throws IOException {
+    Path absoluteFile = file.toAbsolutePath();
+    Path temporaryFile = Files.createTempFile(absoluteFile.getParent(),
+        absoluteFile.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+        OutputStream output = Channels.newOutputStream(channel);
+        writer.writeTo(output);
+        output.flush();
+        channel.force(true);
+      }
+      replace(temporaryFile, absoluteFile);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  /**
+   * This method replaces the given target file with the given source file, which must be in the
+   * same directory and must already have been forced to disk. The replacement is atomic where the
+   * file system supports it.
+   *
+   * @param source The file holding the new contents.
+   * @param target The file to replace.
+   * @throws IOException If the file could not be replaced.
+   */
+  public static void replace(Path source, Path target) throws IOException {
+    try {
+      Files.move(source, target, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
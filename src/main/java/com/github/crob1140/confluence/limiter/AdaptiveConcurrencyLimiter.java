@@ -0,0 +1,376 @@
+package com.github.crob1140.confluence.limiter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>This class limits the number of requests that are in progress at once, adapting the limit to
+ * how the Confluence Cloud server responds.</p>
+ *
+ * <p>The limit is adjusted using additive increase and multiplicative decrease. Each successful
+ * request that was sent while the limit was at least half used increases the limit by one over the
+ * current limit, which increases it by up to one for every round of requests. Each request that
+ * is rejected by the server, or that takes much longer than the recent average, multiplies the
+ * limit by a ratio less than one. Only requests that were started after the limit was last
+ * decreased can decrease it again, so that a burst of failures within the same round of requests
+ * only decreases the limit once.</p>
+ *
+ * <p>Requests that are made while the limit is reached wait in a queue, in the order they were
+ * made, until a permit is released. Waiting asynchronously does not hold up any thread.</p>
+ *
+ * <p>A single instance is meant to be shared by every caller of a client, so that the limit
+ * applies to all of the requests that it sends.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  private static final double LATENCY_SMOOTHING = 0.1;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final double latencyTolerance;
+  private final LongSupplier nanoClock;
+  private final Deque<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+
+  private double limit;
+  private int inFlight;
+  private double averageLatency;
+  private long lastDecreaseTime;
+
+  private AdaptiveConcurrencyLimiter(Builder builder) {
+    this(builder, System::nanoTime);
+  }
+
+  /**
+   * This constructor creates a limiter that measures the latency of requests using the given clock,
+   * so that tests can control it.
+   *
+   * @param builder The builder containing the options for the limiter.
+   * @param nanoClock The source of the current time, in nanoseconds.
+   */
+  AdaptiveConcurrencyLimiter(Builder builder, LongSupplier nanoClock) {
+    this.minLimit = builder.minLimit;
+    this.maxLimit = builder.maxLimit;
+    this.backoffRatio = builder.backoffRatio;
+    this.latencyTolerance = builder.latencyTolerance;
+    this.nanoClock = nanoClock;
+    this.limit = builder.initialLimit;
+    this.lastDecreaseTime = nanoClock.getAsLong();
+  }
+
+  /**
+   * This method returns the current maximum number of requests that may be in progress at once.
+   *
+   * @return The current limit.
+   */
+  public synchronized int getLimit() {
+    return (int) this.limit;
+  }
+
+  /**
+   * This method returns the number of permits that are currently held.
+   *
+   * @return The number of requests in progress.
+   */
+  public synchronized int getInFlight() {
+    return this.inFlight;
+  }
+
+  /**
+   * This method returns the number of callers that are currently waiting for a permit.
+   *
+   * @return The number of waiting callers.
+   */
+  public synchronized int getQueueDepth() {
+    return this.waiters.size();
+  }
+
+  /**
+   * This method acquires a permit to send a request, blocking the calling thread until one is
+   * available.
+   *
+   * @return The acquired permit, which must be released once a response has been received.
+   * @throws InterruptedException If the calling thread is interrupted while waiting.
+   */
+  public Permit acquire() throws InterruptedException {
+    CompletableFuture<Permit> pendingPermit = acquireAsync();
+    try {
+      return pendingPermit.get();
+    } catch (InterruptedException e) {
+      if (!pendingPermit.cancel(false)) {
+        pendingPermit.join().onIgnore();
+      }
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Failed to acquire a permit", e.getCause());
+    }
+  }
+
+  /**
+   * This method acquires a permit to send a request without blocking the calling thread. If the
+   * returned future is cancelled before it completes, the caller gives up its place in the queue.
+   *
+   * @return A future that completes with the acquired permit, which must be released once a
+   * response has been received.
+   */
+  public CompletableFuture<Permit> acquireAsync() {
+    synchronized (this) {
+      if (this.waiters.isEmpty() && this.inFlight < (int) this.limit) {
+        return CompletableFuture.completedFuture(newPermit());
+      }
+
+      CompletableFuture<Permit> pendingPermit = new CompletableFuture<>();
+      this.waiters.add(pendingPermit);
+      return pendingPermit;
+    }
+  }
+
+  /**
+   * This method creates a permit, counting it as in progress. The caller must hold the lock of this
+   * instance.
+   *
+   * @return A new permit.
+   */
+  private Permit newPermit() {
+    this.inFlight++;
+    return new Permit(this.nanoClock.getAsLong(), this.inFlight);
+  }
+
+  /**
+   * This method returns the given permit, adjusts the limit according to the outcome of the request
+   * it was acquired for, and hands out permits to waiting callers while the limit allows it.
+   *
+   * @param permit The permit that is being released.
+   * @param outcome The outcome of the request the permit was acquired for.
+   */
+  private void release(Permit permit, Outcome outcome) {
+    List<CompletableFuture<Permit>> grantedWaiters = new ArrayList<>();
+    List<Permit> grantedPermits = new ArrayList<>();
+    synchronized (this) {
+      this.inFlight--;
+      long now = this.nanoClock.getAsLong();
+      if (outcome == Outcome.SUCCESS) {
+        onSuccess(permit, now);
+      } else if (outcome == Outcome.DROPPED) {
+        onDropped(permit, now);
+      }
+
+      while (!this.waiters.isEmpty() && this.inFlight < (int) this.limit) {
+        CompletableFuture<Permit> waiter = this.waiters.poll();
+        if (!waiter.isDone()) {
+          grantedWaiters.add(waiter);
+          grantedPermits.add(newPermit());
+        }
+      }
+    }
+
+    // Complete the waiters outside of the lock, as doing so runs any actions that depend on them
+    for (int i = 0; i < grantedWaiters.size(); i++) {
+      if (!grantedWaiters.get(i).complete(grantedPermits.get(i))) {
+        grantedPermits.get(i).onIgnore();
+      }
+    }
+  }
+
+  /**
+   * This method adjusts the limit after a request succeeded. The caller must hold the lock of this
+   * instance.
+   *
+   * @param permit The permit of the successful request.
+   * @param now The current time, in nanoseconds.
+   */
+  private void onSuccess(Permit permit, long now) {
+    long latency = now - permit.startTime;
+    boolean latencySpike =
+        this.averageLatency > 0 && latency > this.averageLatency * this.latencyTolerance;
+    this.averageLatency = this.averageLatency > 0
+        ? this.averageLatency + (latency - this.averageLatency) * LATENCY_SMOOTHING
+        : latency;
+
+    if (latencySpike) {
+      // A sudden increase in latency indicates that the server is becoming overloaded
+      onDropped(permit, now);
+    } else if (permit.inFlight * 2 >= this.limit) {
+      this.limit = Math.min(this.maxLimit, this.limit + 1 / this.limit);
+    }
+  }
+
+  /**
+   * This method decreases the limit after a request was rejected, unless it has already been
+   * decreased since the request was started. The caller must hold the lock of this instance.
+   *
+   * @param permit The permit of the rejected request.
+   * @param now The current time, in nanoseconds.
+   */
+  private void onDropped(Permit permit, long now) {
+    if (permit.startTime - this.lastDecreaseTime < 0) {
+      return;
+    }
+    this.limit = Math.max(this.minLimit, this.limit * this.backoffRatio);
+    this.lastDecreaseTime = now;
+  }
+
+  /**
+   * This enum lists the outcomes of a request that affect the limit.
+   */
+  private enum Outcome {
+    SUCCESS, DROPPED, IGNORED
+  }
+
+  /**
+   * <p>This class represents permission to send a single request.</p>
+   *
+   * <p>Exactly one of the methods of this class must be called once the request has finished, to
+   * make the permit available to other callers.</p>
+   */
+  public class Permit {
+
+    private final long startTime;
+    private final int inFlight;
+    private boolean released;
+
+    private Permit(long startTime, int inFlight) {
+      this.startTime = startTime;
+      this.inFlight = inFlight;
+    }
+
+    /**
+     * This method releases this permit after the server processed the request successfully, which
+     * may increase the limit if the server responded without a sudden increase in latency.
+     */
+    public void onSuccess() {
+      releaseOnce(Outcome.SUCCESS);
+    }
+
+    /**
+     * This method releases this permit after the server rejected the request because it was
+     * overloaded, such as with a "429 Too Many Requests" response, which decreases the limit.
+     */
+    public void onDropped() {
+      releaseOnce(Outcome.DROPPED);
+    }
+
+    /**
+     * This method releases this permit without affecting the limit, such as when the request
+     * failed for a reason that does not reflect the load of the server.
+     */
+    public void onIgnore() {
+      releaseOnce(Outcome.IGNORED);
+    }
+
+    private void releaseOnce(Outcome outcome) {
+      synchronized (AdaptiveConcurrencyLimiter.this) {
+        if (this.released) {
+          return;
+        }
+        this.released = true;
+      }
+      release(this, outcome);
+    }
+  }
+
+  /**
+   * This class is used to construct instances of {@link AdaptiveConcurrencyLimiter}.
+   */
+  public static class Builder {
+
+    private int initialLimit = 10;
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.5;
+    private double latencyTolerance = 2.0;
+
+    /**
+     * This method sets the limit that is used before any requests have been made. This defaults to
+     * 10.
+     *
+     * @param initialLimit The initial limit.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setInitialLimit(int initialLimit) {
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    /**
+     * This method sets the lowest value that the limit can be decreased to. This defaults to 1.
+     *
+     * @param minLimit The minimum limit.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMinLimit(int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    /**
+     * This method sets the highest value that the limit can be increased to. This defaults to 200.
+     *
+     * @param maxLimit The maximum limit.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxLimit(int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    /**
+     * This method sets the ratio that the limit is multiplied by when a request is rejected. This
+     * defaults to 0.5.
+     *
+     * @param backoffRatio The ratio to decrease the limit by, between 0 and 1.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setBackoffRatio(double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    /**
+     * This method sets how many times longer than the average latency a request may take before it
+     * is treated as a sign of overload, and decreases the limit. This defaults to 2.
+     *
+     * @param latencyTolerance The multiple of the average latency that is tolerated.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setLatencyTolerance(double latencyTolerance) {
+      this.latencyTolerance = latencyTolerance;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link AdaptiveConcurrencyLimiter} using the values that
+     * were set on this instance.
+     *
+     * @return A new instance of {@link AdaptiveConcurrencyLimiter} with the values set on this
+     * instance.
+     * @throws IllegalStateException If the limiter that would be created would be invalid.
+     */
+    public AdaptiveConcurrencyLimiter build() throws IllegalStateException {
+      if (this.minLimit <= 0 || this.maxLimit < this.minLimit) {
+        throw new IllegalStateException(
+            "The minimum limit must be positive, and must not exceed the maximum limit");
+      }
+
+      if (this.initialLimit < this.minLimit || this.initialLimit > this.maxLimit) {
+        throw new IllegalStateException(
+            "The initial limit must be between the minimum and maximum limits");
+      }
+
+      if (this.backoffRatio <= 0 || this.backoffRatio >= 1) {
+        throw new IllegalStateException("The backoff ratio must be between 0 and 1");
+      }
+
+      if (this.latencyTolerance <= 1) {
+        throw new IllegalStateException("The latency tolerance must be greater than 1");
+      }
+
+      return new AdaptiveConcurrencyLimiter(this);
+    }
+  }
+}
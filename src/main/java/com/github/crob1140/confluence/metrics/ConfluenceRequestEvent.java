@@ -0,0 +1,142 @@
+package com.github.crob1140.confluence.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * <p>This class is a Java Flight Recorder event that is emitted for each request performed by a
+ * {@link com.github.crob1140.confluence.ConfluenceClient}, so that recordings can attribute time
+ * spent waiting on the network, and the allocations made while de-serializing responses, to
+ * specific Confluence operations.</p>
+ *
+ * <p>The event spans the whole request, from when it is prepared until its response has been
+ * de-serialized, including any retries. It is only created on runtimes that include the
+ * {@code jdk.jfr} module, and only while a recording that enables it is in progress.</p>
+ */
+@Name("com.github.crob1140.confluence.Request")
+@Label("Confluence Request")
+@Category({"Confluence"})
+@Description("A request sent to the Confluence Cloud REST API")
+@StackTrace(false)
+public class ConfluenceRequestEvent extends jdk.jfr.Event {
+
+  @Label("Method")
+  private String method;
+
+  @Label("Path")
+  @Description("The path of the request relative to the wiki root")
+  private String path;
+
+  @Label("Path Template")
+  @Description("The path of the request with any identifiers replaced by placeholders")
+  private String pathTemplate;
+
+  @Label("Expand")
+  @Description("The properties that were expanded in the response")
+  private String expand;
+
+  @Label("Status Code")
+  @Description("The status code of the final response, or 0 if no response was received")
+  private int statusCode;
+
+  @Label("Attempts")
+  @Description("The number of times the request was sent, including retries")
+  private int attempts;
+
+  @Label("Bytes Sent")
+  @DataAmount
+  private long bytesSent;
+
+  @Label("Bytes Received")
+  @DataAmount
+  private long bytesReceived;
+
+  @Label("Error")
+  @Description("The class of the error that the request failed with, if any")
+  private String error;
+
+  /**
+   * This method sets the HTTP method of the request.
+   *
+   * @param method The HTTP method.
+   */
+  public void setMethod(String method) {
+    this.method = method;
+  }
+
+  /**
+   * This method sets the path of the request relative to the wiki root.
+   *
+   * @param path The relative path.
+   */
+  public void setPath(String path) {
+    this.path = path;
+  }
+
+  /**
+   * This method sets the path template of the request.
+   *
+   * @param pathTemplate The path template.
+   */
+  public void setPathTemplate(String pathTemplate) {
+    this.pathTemplate = pathTemplate;
+  }
+
+  /**
+   * This method sets the properties that were expanded in the response.
+   *
+   * @param expand The expanded properties.
+   */
+  public void setExpand(String expand) {
+    this.expand = expand;
+  }
+
+  /**
+   * This method sets the status code of the final response.
+   *
+   * @param statusCode The status code, or 0 if no response was received.
+   */
+  public void setStatusCode(int statusCode) {
+    this.statusCode = statusCode;
+  }
+
+  /**
+   * This method sets the number of times the request was sent.
+   *
+   * @param attempts The number of attempts.
+   */
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  /**
+   * This method sets the number of bytes in the body of the request.
+   *
+   * @param bytesSent The size of the request body.
+   */
+  public void setBytesSent(long bytesSent) {
+    this.bytesSent = bytesSent;
+  }
+
+  /**
+   * This method sets the number of bytes of the body of the response that were read.
+   *
+   * @param bytesReceived The size of the response body that was read.
+   */
+  public void setBytesReceived(long bytesReceived) {
+    this.bytesReceived = bytesReceived;
+  }
+
+  /**
+   * This method sets the class of the error that the request failed with.
+   *
+   * @param error The class name of the error, or null if the request succeeded.
+   */
+  public void setError(String error) {
+    this.error = error;
+  }
+}
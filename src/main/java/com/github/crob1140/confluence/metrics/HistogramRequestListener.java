@@ -0,0 +1,58 @@
+package com.github.crob1140.confluence.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>This class records the total time of each request in a {@link LatencyHistogram} for its
+ * endpoint, so that the latency percentiles of each endpoint can be tracked.</p>
+ *
+ * <p>Requests are grouped by their method and path template, such as
+ * "GET rest/api/content/{id}". Requests that expand properties of the response are grouped
+ * separately for each set of expanded properties, such as
+ * "GET rest/api/content/{id}?expand=body.storage", so that expensive expansions can be
+ * identified.</p>
+ */
+public class HistogramRequestListener implements RequestListener {
+
+  private final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+  @Override
+  public void onRequestCompleted(RequestMetrics metrics) {
+    this.histograms.computeIfAbsent(getKey(metrics), key -> new LatencyHistogram())
+        .record(metrics.getTotalTime());
+  }
+
+  /**
+   * This method returns the histogram of the total time of the requests for each endpoint, keyed
+   * by the method, path template and expanded properties of the requests.
+   *
+   * @return An unmodifiable view of the histogram of each endpoint.
+   */
+  public Map<String, LatencyHistogram> getHistograms() {
+    return Collections.unmodifiableMap(this.histograms);
+  }
+
+  /**
+   * This method returns the histogram of the total time of the requests for the given endpoint.
+   *
+   * @param method The HTTP method of the requests.
+   * @param pathTemplate The path template of the requests.
+   * @param expand The expanded properties of the requests, or null for requests that did not
+   * expand any properties.
+   * @return The histogram of the endpoint, or null if no requests have been made to it.
+   */
+  public LatencyHistogram getHistogram(String method, String pathTemplate, String expand) {
+    return this.histograms.get(getKey(method, pathTemplate, expand));
+  }
+
+  private static String getKey(RequestMetrics metrics) {
+    return getKey(metrics.getMethod(), metrics.getPathTemplate(), metrics.getExpand());
+  }
+
+  private static String getKey(String method, String pathTemplate, String expand) {
+    String key = method + " " + pathTemplate;
+    return expand != null ? key + "?expand=" + expand : key;
+  }
+}
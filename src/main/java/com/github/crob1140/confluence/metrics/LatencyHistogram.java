@@ -0,0 +1,150 @@
+package com.github.crob1140.confluence.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>This class records a distribution of durations, so that percentiles of them can be
+ * estimated.</p>
+ *
+ * <p>Durations are counted in buckets whose width grows with the duration: each power of two is
+ * split into 16 buckets of equal width, so that any recorded duration is reported with an error of
+ * at most one sixteenth of its value, regardless of its magnitude. The buckets are a fixed array of
+ * atomic counters, so recording a duration never takes a lock or allocates memory, and is safe to
+ * do from several threads at once.</p>
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong totalNanos = new AtomicLong();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  /**
+   * This method records the given duration.
+   *
+   * @param duration The duration to record. Negative durations are recorded as zero.
+   */
+  public void record(Duration duration) {
+    recordNanos(duration.isNegative() ? 0 : saturatedNanos(duration));
+  }
+
+  /**
+   * This method records the given duration in nanoseconds.
+   *
+   * @param nanos The duration to record, in nanoseconds. Negative durations are recorded as zero.
+   */
+  public void recordNanos(long nanos) {
+    long value = Math.max(0, nanos);
+    this.counts.incrementAndGet(getBucketIndex(value));
+    this.count.incrementAndGet();
+    this.totalNanos.addAndGet(value);
+    this.maxNanos.accumulateAndGet(value, Math::max);
+  }
+
+  /**
+   * This method returns the number of durations that have been recorded.
+   *
+   * @return The number of recorded durations.
+   */
+  public long getCount() {
+    return this.count.get();
+  }
+
+  /**
+   * This method returns the mean of the recorded durations.
+   *
+   * @return The mean of the recorded durations, or zero if none have been recorded.
+   */
+  public Duration getMean() {
+    long recordedCount = this.count.get();
+    return recordedCount == 0 ? Duration.ZERO
+        : Duration.ofNanos(this.totalNanos.get() / recordedCount);
+  }
+
+  /**
+   * This method returns the longest recorded duration.
+   *
+   * @return The longest recorded duration, or zero if none have been recorded.
+   */
+  public Duration getMax() {
+    return Duration.ofNanos(this.maxNanos.get());
+  }
+
+  /**
+   * This method estimates the duration that the given percentage of recorded durations do not
+   * exceed. Durations that are recorded while this method is running may or may not be included.
+   *
+   * @param percentile The percentage of durations, between 0 and 100.
+   * @return The estimated duration at the given percentile, or zero if none have been recorded.
+   * @throws IllegalArgumentException If the percentile is not between 0 and 100.
+   */
+  public Duration getPercentile(double percentile) throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("The percentile must be between 0 and 100");
+    }
+
+    long[] snapshot = new long[BUCKET_COUNT];
+    long snapshotCount = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = this.counts.get(i);
+      snapshotCount += snapshot[i];
+    }
+    if (snapshotCount == 0) {
+      return Duration.ZERO;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * snapshotCount));
+    long cumulativeCount = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulativeCount += snapshot[i];
+      if (cumulativeCount >= rank) {
+        return Duration.ofNanos(Math.min(getBucketUpperBound(i), this.maxNanos.get()));
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * This method returns the index of the bucket that counts the given value.
+   *
+   * @param value The value, which must not be negative.
+   * @return The index of the bucket of the value.
+   */
+  static int getBucketIndex(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  /**
+   * This method returns the largest value that is counted by the bucket at the given index.
+   *
+   * @param index The index of the bucket.
+   * @return The largest value of the bucket.
+   */
+  static long getBucketUpperBound(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = index / SUB_BUCKET_COUNT - 1;
+    long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  private static long saturatedNanos(Duration duration) {
+    try {
+      return duration.toNanos();
+    } catch (ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
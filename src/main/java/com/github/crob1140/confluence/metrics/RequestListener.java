@@ -0,0 +1,20 @@
+package com.github.crob1140.confluence.metrics;
+
+/**
+ * <p>This interface is implemented by classes that are notified of each request that a {@link
+ * com.github.crob1140.confluence.ConfluenceClient} performs, such as to record metrics about
+ * them.</p>
+ *
+ * <p>Listeners are called on the thread that completed the request, which may be a thread of the
+ * executor of the client, so they should return quickly and must be safe to call from several
+ * threads at once. Any exception thrown by a listener is ignored.</p>
+ */
+public interface RequestListener {
+
+  /**
+   * This method is called once a request has been completed, whether it succeeded or failed.
+   *
+   * @param metrics The metrics describing the request.
+   */
+  void onRequestCompleted(RequestMetrics metrics);
+}
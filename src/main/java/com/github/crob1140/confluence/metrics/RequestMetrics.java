@@ -0,0 +1,322 @@
+package com.github.crob1140.confluence.metrics;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * <p>This class describes a single request that was performed by a {@link
+ * com.github.crob1140.confluence.ConfluenceClient}.</p>
+ *
+ * <p>The total time of a request is split into three phases: the time taken to serialize the body
+ * of the request, the time from when the request started being sent until the headers of the
+ * final response were received (including any retries), and the time taken to read and
+ * de-serialize the body of the response.</p>
+ */
+public class RequestMetrics {
+
+  private final String method;
+  private final String pathTemplate;
+  private final String expand;
+  private final Integer statusCode;
+  private final int attempts;
+  private final long bytesSent;
+  private final long bytesReceived;
+  private final Duration serializationTime;
+  private final Duration timeToFirstByte;
+  private final Duration deserializationTime;
+  private final Duration totalTime;
+  private final Throwable error;
+
+  private RequestMetrics(Builder builder) {
+    this.method = builder.method;
+    this.pathTemplate = builder.pathTemplate;
+    this.expand = builder.expand;
+    this.statusCode = builder.statusCode;
+    this.attempts = builder.attempts;
+    this.bytesSent = builder.bytesSent;
+    this.bytesReceived = builder.bytesReceived;
+    this.serializationTime = builder.serializationTime;
+    this.timeToFirstByte = builder.timeToFirstByte;
+    this.deserializationTime = builder.deserializationTime;
+    this.totalTime = builder.totalTime;
+    this.error = builder.error;
+  }
+
+  /**
+   * This method returns the HTTP method of the request.
+   *
+   * @return The HTTP method of the request.
+   */
+  public String getMethod() {
+    return this.method;
+  }
+
+  /**
+   * This method returns the path template of the request, which identifies its endpoint.
+   *
+   * @return The path template of the request.
+   * @see com.github.crob1140.confluence.requests.ConfluenceRequest#getPathTemplate()
+   */
+  public String getPathTemplate() {
+    return this.pathTemplate;
+  }
+
+  /**
+   * This method returns the properties that were expanded in the response to the request.
+   *
+   * @return The value of the "expand" query parameter of the request, or null if it was not set.
+   */
+  public String getExpand() {
+    return this.expand;
+  }
+
+  /**
+   * This method returns the status code of the final response to the request.
+   *
+   * @return The status code of the final response, or null if no response was received.
+   */
+  public Integer getStatusCode() {
+    return this.statusCode;
+  }
+
+  /**
+   * This method returns the number of times the request was sent, including any retries.
+   *
+   * @return The number of attempts.
+   */
+  public int getAttempts() {
+    return this.attempts;
+  }
+
+  /**
+   * This method returns the number of bytes in the serialized body of the request.
+   *
+   * @return The size of the request body, or 0 if the request had no body.
+   */
+  public long getBytesSent() {
+    return this.bytesSent;
+  }
+
+  /**
+   * This method returns the number of bytes of the body of the final response that were read.
+   *
+   * @return The size of the response body that was read.
+   */
+  public long getBytesReceived() {
+    return this.bytesReceived;
+  }
+
+  /**
+   * This method returns the time taken to serialize the body of the request by the message body
+   * writer of the HTTP client. Unless the client buffers request bodies, this includes the time
+   * taken to write the body to the connection. If the request was retried, this is the time taken
+   * by its final attempt.
+   *
+   * @return The time taken to serialize the body of the request.
+   */
+  public Duration getSerializationTime() {
+    return this.serializationTime;
+  }
+
+  /**
+   * This method returns the time from when the request started being sent until the headers of the
+   * final response were received, including the time spent waiting between retries.
+   *
+   * @return The time to the first byte of the final response.
+   */
+  public Duration getTimeToFirstByte() {
+    return this.timeToFirstByte;
+  }
+
+  /**
+   * This method returns the time taken to read and de-serialize the body of the final response.
+   *
+   * @return The time taken to de-serialize the response.
+   */
+  public Duration getDeserializationTime() {
+    return this.deserializationTime;
+  }
+
+  /**
+   * This method returns the total time taken to perform the request.
+   *
+   * @return The total time taken to perform the request.
+   */
+  public Duration getTotalTime() {
+    return this.totalTime;
+  }
+
+  /**
+   * This method returns the error that the request failed with, if any.
+   *
+   * @return The error that the request failed with, or an empty optional if it succeeded.
+   */
+  public Optional<Throwable> getError() {
+    return Optional.ofNullable(this.error);
+  }
+
+  /**
+   * This class is used to construct instances of {@link RequestMetrics}.
+   */
+  public static class Builder {
+
+    private String method;
+    private String pathTemplate;
+    private String expand;
+    private Integer statusCode;
+    private int attempts;
+    private long bytesSent;
+    private long bytesReceived;
+    private Duration serializationTime = Duration.ZERO;
+    private Duration timeToFirstByte = Duration.ZERO;
+    private Duration deserializationTime = Duration.ZERO;
+    private Duration totalTime = Duration.ZERO;
+    private Throwable error;
+
+    /**
+     * This method sets the HTTP method of the request.
+     *
+     * @param method The HTTP method of the request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMethod(String method) {
+      this.method = method;
+      return this;
+    }
+
+    /**
+     * This method sets the path template of the request.
+     *
+     * @param pathTemplate The path template of the request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setPathTemplate(String pathTemplate) {
+      this.pathTemplate = pathTemplate;
+      return this;
+    }
+
+    /**
+     * This method sets the properties that were expanded in the response to the request.
+     *
+     * @param expand The value of the "expand" query parameter of the request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExpand(String expand) {
+      this.expand = expand;
+      return this;
+    }
+
+    /**
+     * This method sets the status code of the final response to the request.
+     *
+     * @param statusCode The status code of the final response.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setStatusCode(Integer statusCode) {
+      this.statusCode = statusCode;
+      return this;
+    }
+
+    /**
+     * This method sets the number of times the request was sent.
+     *
+     * @param attempts The number of attempts.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setAttempts(int attempts) {
+      this.attempts = attempts;
+      return this;
+    }
+
+    /**
+     * This method sets the number of bytes in the serialized body of the request.
+     *
+     * @param bytesSent The size of the request body.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setBytesSent(long bytesSent) {
+      this.bytesSent = bytesSent;
+      return this;
+    }
+
+    /**
+     * This method sets the number of bytes of the body of the final response that were read.
+     *
+     * @param bytesReceived The size of the response body that was read.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setBytesReceived(long bytesReceived) {
+      this.bytesReceived = bytesReceived;
+      return this;
+    }
+
+    /**
+     * This method sets the time taken to serialize the body of the request.
+     *
+     * @param serializationTime The time taken to serialize the body of the request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setSerializationTime(Duration serializationTime) {
+      this.serializationTime = serializationTime;
+      return this;
+    }
+
+    /**
+     * This method sets the time to the first byte of the final response.
+     *
+     * @param timeToFirstByte The time to the first byte of the final response.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setTimeToFirstByte(Duration timeToFirstByte) {
+      this.timeToFirstByte = timeToFirstByte;
+      return this;
+    }
+
+    /**
+     * This method sets the time taken to read and de-serialize the body of the final response.
+     *
+     * @param deserializationTime The time taken to de-serialize the response.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setDeserializationTime(Duration deserializationTime) {
+      this.deserializationTime = deserializationTime;
+      return this;
+    }
+
+    /**
+     * This method sets the total time taken to perform the request.
+     *
+     * @param totalTime The total time taken to perform the request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setTotalTime(Duration totalTime) {
+      this.totalTime = totalTime;
+      return this;
+    }
+
+    /**
+     * This method sets the error that the request failed with.
+     *
+     * @param error The error that the request failed with, or null if it succeeded.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setError(Throwable error) {
+      this.error = error;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link RequestMetrics} using the values that were set on
+     * this instance.
+     *
+     * @return A new instance of {@link RequestMetrics} with the values set on this instance.
+     * @throws IllegalStateException If the method or path template were not set.
+     */
+    public RequestMetrics build() throws IllegalStateException {
+      if (this.method == null || this.pathTemplate == null) {
+        throw new IllegalStateException("The method and path template must be set");
+      }
+      return new RequestMetrics(this);
+    }
+  }
+}
@@ -0,0 +1,809 @@
+package com.github.crob1140.confluence.mirror;
+
+import com.github.crob1140.confluence.codec.ContentCodec;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentObserver;
+import com.github.crob1140.confluence.io.AtomicFiles;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * <p>This class stores content on the local disk, so that it can be read again without sending a
+ * request to the Confluence Cloud server, including by other processes after a restart.</p>
+ *
+ * <p>Content is stored in two files in the mirror's directory. The data file holds each stored
+ * piece of content as a record that is only ever appended, consisting of a header with the ID,
+ * version, length and checksum of the content, followed by the content itself as encoded by the
+ * mirror's {@link ContentCodec}, which uses the binary Smile format by default. The index file is
+ * a hash table from each content ID to its version and the position of its latest record, which
+ * is memory-mapped so that a lookup does not need any system calls. Reading content takes a lookup
+ * in the index and a single read from the data file.</p>
+ *
+ * <p>A piece of content is only stored if its version is newer than the version that is already
+ * stored, or if it is the same version with more of its properties, so the mirror can be added to
+ * a client with {@link
+ * com.github.crob1140.confluence.ConfluenceClient.Builder#addContentObserver(ContentObserver)} to
+ * store the content that the client receives. The client also receives content that was
+ * retrieved with only its version, for example when listing which content has changed, and the
+ * full content that is retrieved afterwards replaces it. Content is stored with whichever
+ * properties it was retrieved with, so it should be retrieved with every property that readers of
+ * the mirror need, such as its body, ancestors and labels. Content without a version is not
+ * stored.</p>
+ *
+ * <p>Content that is received from the client is not written on the thread that read the
+ * response. It is queued, keeping only the newest version of each piece of content, and the queue
+ * is written in batches on a background thread. If too much content is waiting to be written, or
+ * writing it fails, the content is dropped rather than failing the request that returned it, and
+ * is counted by {@link #getDroppedCount()}. {@link #flush()} waits for the queued content to be
+ * written.</p>
+ *
+ * <p>The index records how much of the data file it covers. If the process stops before the index
+ * is updated, or the index file is lost, the index is rebuilt from the data file when the mirror is
+ * next opened, and any incomplete record at the end of the data file is discarded. Records that
+ * have been superseded by a newer version remain in the data file.</p>
+ *
+ * <p>Only one mirror can have a directory open at a time. Opening a mirror takes an exclusive lock
+ * on its data file, and fails if another mirror, in this process or any other, already holds it,
+ * so that one mirror never rebuilds the index or discards records while another is appending
+ * them. Processes that share a directory must take turns, or read the mirror through a single
+ * process.</p>
+ */
+public class ContentMirror implements ContentObserver, AutoCloseable {
+
+  static final String DATA_FILE_NAME = "content.dat";
+  static final String INDEX_FILE_NAME = "content.idx";
+
+  private static final int INDEX_MAGIC = 0x434D4958;
+  private static final int INDEX_HEADER_SIZE = 24;
+  private static final int CAPACITY_OFFSET = 4;
+  private static final int SIZE_OFFSET = 8;
+  private static final int DATA_SIZE_OFFSET = 16;
+  private static final int SLOT_SIZE = 24;
+  private static final int SLOT_OFFSET_OFFSET = 8;
+  private static final int SLOT_VERSION_OFFSET = 16;
+  private static final int RECORD_HEADER_SIZE = 20;
+  private static final double MAX_LOAD_FACTOR = 0.7;
+
+  private final Path directory;
+  private final ContentCodec codec;
+  private final FileChannel dataChannel;
+  private final ExecutorService writer;
+  private final int maxPendingContent;
+  private final Object pendingLock = new Object();
+  private Map<String, Content> pendingContent = new LinkedHashMap<>();
+  private boolean writeScheduled;
+  private boolean closed;
+  private long droppedCount;
+  private MappedByteBuffer index;
+  private int capacity;
+  private int size;
+  private long dataSize;
+
+  private ContentMirror(Builder builder) throws IOException {
+    this.directory = builder.directory;
+    this.codec = builder.codec;
+    this.maxPendingContent = builder.maxPendingContent;
+    Files.createDirectories(this.directory);
+    this.dataChannel = FileChannel.open(this.directory.resolve(DATA_FILE_NAME),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      lockDataFile();
+      this.dataSize = this.dataChannel.size();
+      if (!openIndex()) {
+        rebuildIndex(builder.initialCapacity);
+      }
+    } catch (IOException | RuntimeException e) {
+      this.dataChannel.close();
+      throw e;
+    }
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "confluence-content-mirror");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * This method queues the given content to be stored when it is received by the client. The
+   * content replaces any older version of it that is still waiting to be written, or the same
+   * version with fewer of its properties, and is dropped if too much content is already waiting or
+   * this mirror is closed.
+   *
+   * @param content The content that was received.
+   */
+  @Override
+  public void onContentReceived(Content content) {
+    if (parseId(content.getId()) <= 0 || content.getVersion() == null
+        || content.getVersion().getNumber() == null) {
+      return;
+    }
+
+    synchronized (this.pendingLock) {
+      Content pending = this.pendingContent.get(content.getId());
+      if (pending != null) {
+        if (supersedes(content, pending)) {
+          this.pendingContent.put(content.getId(), content);
+        }
+        return;
+      }
+
+      if (this.closed || this.pendingContent.size() >= this.maxPendingContent) {
+        this.droppedCount++;
+        return;
+      }
+
+      this.pendingContent.put(content.getId(), content);
+      if (!this.writeScheduled) {
+        this.writeScheduled = true;
+        this.writer.execute(this::writePendingContent);
+      }
+    }
+  }
+
+  /**
+   * This method stores every piece of content that is waiting to be written, counting any that
+   * could not be written as dropped.
+   */
+  private void writePendingContent() {
+    Map<String, Content> batch;
+    synchronized (this.pendingLock) {
+      batch = this.pendingContent;
+      this.pendingContent = new LinkedHashMap<>();
+      this.writeScheduled = false;
+    }
+
+    long failedCount = 0;
+    for (Content content : batch.values()) {
+      try {
+        put(content);
+      } catch (IOException | RuntimeException e) {
+        failedCount++;
+      }
+    }
+
+    if (failedCount > 0) {
+      synchronized (this.pendingLock) {
+        this.droppedCount += failedCount;
+      }
+    }
+  }
+
+  /**
+   * This method stores the given content, unless a newer version of it, or the same version with
+   * at least as many of its properties, is already stored.
+   *
+   * @param content The content to store.
+   * @return True if the content was stored, or false if it was not because it does not have a
+   * numeric ID and a version, or because it does not supersede the stored content.
+   * @throws IOException If the content could not be written to the mirror.
+   */
+  public boolean put(Content content) throws IOException {
+    long id = parseId(content.getId());
+    if (id <= 0 || content.getVersion() == null || content.getVersion().getNumber() == null) {
+      return false;
+    }
+
+    int version = content.getVersion().getNumber();
+    byte[] payload = this.codec.encode(content);
+    synchronized (this) {
+      int slot = findSlot(id);
+      boolean exists = getSlotId(slot) != 0;
+      if (exists) {
+        int storedVersion = this.index.getInt(slotPosition(slot) + SLOT_VERSION_OFFSET);
+        if (version < storedVersion || version == storedVersion
+            && !hasMorePropertiesThanStored(content, slot)) {
+          return false;
+        }
+      }
+
+      // The index is grown before the record is appended, so that the data size recorded in the
+      // grown index never includes a record that the index does not refer to
+      if (!exists && this.size + 1 > this.capacity * MAX_LOAD_FACTOR) {
+        resizeIndex(this.capacity * 2);
+        slot = findSlot(id);
+      }
+
+      long offset = appendRecord(id, version, payload);
+      if (!exists) {
+        this.size++;
+        this.index.putInt(SIZE_OFFSET, this.size);
+      }
+      writeSlot(slot, id, offset, version);
+      this.index.putLong(DATA_SIZE_OFFSET, this.dataSize);
+      return true;
+    }
+  }
+
+  /**
+   * This method reads the stored content with the given ID.
+   *
+   * @param id The unique identifier of the content.
+   * @return The stored content, or an empty optional if no content with the ID is stored.
+   * @throws IOException If the content could not be read from the mirror.
+   */
+  public Optional<Content> get(String id) throws IOException {
+    long key = parseId(id);
+    if (key <= 0) {
+      return Optional.empty();
+    }
+
+    long offset;
+    synchronized (this) {
+      int slot = findSlot(key);
+      if (getSlotId(slot) == 0) {
+        return Optional.empty();
+      }
+      offset = this.index.getLong(slotPosition(slot) + SLOT_OFFSET_OFFSET);
+    }
+
+    // Records are never modified once they have been appended, so they can be read without a lock
+    Record record = readRecord(offset);
+    if (record == null || record.id != key) {
+      throw new IOException("The record for content " + id + " is corrupt");
+    }
+    return Optional.of(this.codec.decode(record.payload));
+  }
+
+  /**
+   * This method returns the version of the stored content with the given ID, without reading the
+   * content itself.
+   *
+   * @param id The unique identifier of the content.
+   * @return The stored version number, or an empty optional if no content with the ID is stored.
+   */
+  public synchronized Optional<Integer> getVersion(String id) {
+    long key = parseId(id);
+    if (key <= 0) {
+      return Optional.empty();
+    }
+
+    int slot = findSlot(key);
+    if (getSlotId(slot) == 0) {
+      return Optional.empty();
+    }
+    return Optional.of(this.index.getInt(slotPosition(slot) + SLOT_VERSION_OFFSET));
+  }
+
+  /**
+   * This method returns the number of pieces of content that are stored.
+   *
+   * @return The number of stored pieces of content.
+   */
+  public synchronized int size() {
+    return this.size;
+  }
+
+  /**
+   * This method returns the number of pieces of content that were received from the client but not
+   * stored, either because too much content was waiting to be written or because writing it
+   * failed.
+   *
+   * @return The number of dropped pieces of content.
+   */
+  public long getDroppedCount() {
+    synchronized (this.pendingLock) {
+      return this.droppedCount;
+    }
+  }
+
+  /**
+   * This method waits for the content that was received from the client to be written, and then
+   * forces every stored piece of content to be written to the disk, so that it survives a failure
+   * of the operating system as well as of the process.
+   *
+   * @throws IOException If the files could not be written.
+   */
+  public void flush() throws IOException {
+    try {
+      // The writer runs one task at a time, so this waits for any write that was queued before it
+      this.writer.submit(this::writePendingContent).get();
+    } catch (RejectedExecutionException e) {
+      // The mirror is closing, and its remaining content has already been written
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting for content to be written", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to write the received content", e.getCause());
+    }
+    forceFiles();
+  }
+
+  /**
+   * This method writes the content that was received from the client, flushes the stored content
+   * to the disk, and closes the data file. Content that is received after this method is called is
+   * dropped.
+   *
+   * @throws IOException If the files could not be written.
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this.pendingLock) {
+      this.closed = true;
+    }
+    this.writer.shutdown();
+    try {
+      while (!this.writer.awaitTermination(1, TimeUnit.MINUTES)) {
+        // Keep waiting, as the queued content must be written before the files are closed
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    synchronized (this) {
+      try {
+        forceFiles();
+      } finally {
+        this.dataChannel.close();
+      }
+    }
+  }
+
+  /**
+   * This method forces the data file and the index to be written to the disk.
+   *
+   * @throws IOException If the files could not be written.
+   */
+  private synchronized void forceFiles() throws IOException {
+    this.dataChannel.force(false);
+    this.index.force();
+  }
+
+  /**
+   * This method takes an exclusive lock on the data file, which is held until the data file is
+   * closed.
+   *
+   * @throws IOException If the lock could not be taken, including because another mirror holds
+   * it.
+   */
+  private void lockDataFile() throws IOException {
+    FileLock lock;
+    try {
+      lock = this.dataChannel.tryLock();
+    } catch (OverlappingFileLockException e) {
+      lock = null;
+    }
+
+    if (lock == null) {
+      throw new IOException("The mirror in " + this.directory + " is already open");
+    }
+  }
+
+  /**
+   * This method maps the existing index file, if it is valid and covers the whole data file.
+   *
+   * @return True if the index was opened, or false if it needs to be rebuilt.
+   * @throws IOException If the index file could not be read.
+   */
+  private boolean openIndex() throws IOException {
+    Path indexFile = this.directory.resolve(INDEX_FILE_NAME);
+    if (!Files.exists(indexFile)) {
+      return false;
+    }
+
+    try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      long fileSize = indexChannel.size();
+      if (fileSize < INDEX_HEADER_SIZE) {
+        return false;
+      }
+
+      MappedByteBuffer mappedIndex = indexChannel.map(MapMode.READ_WRITE, 0, fileSize);
+      int mappedCapacity = mappedIndex.getInt(CAPACITY_OFFSET);
+      if (mappedIndex.getInt(0) != INDEX_MAGIC || Integer.bitCount(mappedCapacity) != 1
+          || fileSize != INDEX_HEADER_SIZE + (long) mappedCapacity * SLOT_SIZE
+          || mappedIndex.getLong(DATA_SIZE_OFFSET) != this.dataSize) {
+        return false;
+      }
+
+      this.index = mappedIndex;
+      this.capacity = mappedCapacity;
+      this.size = mappedIndex.getInt(SIZE_OFFSET);
+      return true;
+    }
+  }
+
+  /**
+   * This method creates a new index from the records in the data file, discarding any incomplete
+   * record at the end of it.
+   *
+   * @param initialCapacity The minimum number of slots in the new index.
+   * @throws IOException If the files could not be read or written.
+   */
+  private void rebuildIndex(int initialCapacity) throws IOException {
+    this.index = createIndex(initialCapacity);
+    this.capacity = initialCapacity;
+    this.size = 0;
+
+    // The index only covers the records that have been added to it, so that it is rebuilt again
+    // if the process stops before the rebuild completes
+    long offset = 0;
+    long fileSize = this.dataSize;
+    this.dataSize = 0;
+    while (offset < fileSize) {
+      Record record = readRecord(offset);
+      if (record == null) {
+        break;
+      }
+
+      int slot = findSlot(record.id);
+      if (getSlotId(slot) == 0) {
+        if (this.size + 1 > this.capacity * MAX_LOAD_FACTOR) {
+          resizeIndex(this.capacity * 2);
+          slot = findSlot(record.id);
+        }
+        this.size++;
+      }
+      writeSlot(slot, record.id, offset, record.version);
+      offset += RECORD_HEADER_SIZE + record.payload.length;
+      this.dataSize = offset;
+    }
+
+    if (offset < fileSize) {
+      this.dataChannel.truncate(offset);
+    }
+    this.index.putInt(SIZE_OFFSET, this.size);
+    this.index.putLong(DATA_SIZE_OFFSET, this.dataSize);
+    replaceIndexFile();
+  }
+
+  /**
+   * This method moves every entry of the index into a new index with the given capacity.
+   *
+   * @param newCapacity The number of slots in the new index.
+   * @throws IOException If the new index could not be written.
+   */
+  private void resizeIndex(int newCapacity) throws IOException {
+    MappedByteBuffer oldIndex = this.index;
+    int oldCapacity = this.capacity;
+    this.index = createIndex(newCapacity);
+    this.capacity = newCapacity;
+    for (int i = 0; i < oldCapacity; i++) {
+      int oldPosition = INDEX_HEADER_SIZE + i * SLOT_SIZE;
+      long id = oldIndex.getLong(oldPosition);
+      if (id != 0) {
+        writeSlot(findSlot(id), id, oldIndex.getLong(oldPosition + SLOT_OFFSET_OFFSET),
+            oldIndex.getInt(oldPosition + SLOT_VERSION_OFFSET));
+      }
+    }
+    this.index.putInt(SIZE_OFFSET, this.size);
+    this.index.putLong(DATA_SIZE_OFFSET, this.dataSize);
+    replaceIndexFile();
+  }
+
+  /**
+   * This method creates an empty index with the given capacity in a temporary file, which replaces
+   * the index file once it has been filled.
+   *
+   * @param newCapacity The number of slots in the index, which must be a power of two.
+   * @return The mapped index.
+   * @throws IOException If the temporary file could not be created.
+   */
+  private MappedByteBuffer createIndex(int newCapacity) throws IOException {
+    Path temporaryFile = getTemporaryIndexFile();
+    Files.deleteIfExists(temporaryFile);
+    try (FileChannel indexChannel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      MappedByteBuffer newIndex = indexChannel.map(MapMode.READ_WRITE, 0,
+          INDEX_HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+      newIndex.putInt(0, INDEX_MAGIC);
+      newIndex.putInt(CAPACITY_OFFSET, newCapacity);
+      return newIndex;
+    }
+  }
+
+  /**
+   * This method replaces the index file with the temporary file that the current index was created
+   * in, once its contents are on disk.
+   *
+   * @throws IOException If the index file could not be replaced.
+   */
+  private void replaceIndexFile() throws IOException {
+    this.index.force();
+    AtomicFiles.replace(getTemporaryIndexFile(), this.directory.resolve(INDEX_FILE_NAME));
+  }
+
+  private Path getTemporaryIndexFile() {
+    return this.directory.resolve(INDEX_FILE_NAME + ".tmp");
+  }
+
+  /**
+   * This method appends a record to the end of the data file.
+   *
+   * @param id The ID of the content.
+   * @param version The version of the content.
+   * @param payload The encoded content.
+   * @return The position of the record in the data file.
+   * @throws IOException If the record could not be written.
+   */
+  private long appendRecord(long id, int version, byte[] payload) throws IOException {
+    CRC32 checksum = new CRC32();
+    checksum.update(payload);
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+    record.putInt(payload.length)
+        .putInt((int) checksum.getValue())
+        .putLong(id)
+        .putInt(version)
+        .put(payload)
+        .flip();
+
+    long offset = this.dataSize;
+    long position = offset;
+    while (record.hasRemaining()) {
+      position += this.dataChannel.write(record, position);
+    }
+    this.dataSize = position;
+    return offset;
+  }
+
+  /**
+   * This method reads the record at the given position in the data file.
+   *
+   * @param offset The position of the record.
+   * @return The record, or null if the record is incomplete or does not match its checksum.
+   * @throws IOException If the data file could not be read.
+   */
+  private Record readRecord(long offset) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+    if (!readFully(header, offset)) {
+      return null;
+    }
+
+    int length = header.getInt(0);
+    if (length < 0 || offset + RECORD_HEADER_SIZE + length > this.dataChannel.size()) {
+      return null;
+    }
+
+    ByteBuffer payload = ByteBuffer.allocate(length);
+    if (!readFully(payload, offset + RECORD_HEADER_SIZE)) {
+      return null;
+    }
+
+    CRC32 checksum = new CRC32();
+    checksum.update(payload.array());
+    if ((int) checksum.getValue() != header.getInt(4)) {
+      return null;
+    }
+    return new Record(header.getLong(8), header.getInt(16), payload.array());
+  }
+
+  /**
+   * This method determines whether the given content has more of its properties than the content
+   * that is stored in the given slot. Stored content that cannot be read is always replaced.
+   *
+   * @param content The content to compare.
+   * @param slot The slot of the stored content.
+   * @return True if the given content has more properties than the stored content.
+   * @throws IOException If the data file could not be read.
+   */
+  private boolean hasMorePropertiesThanStored(Content content, int slot) throws IOException {
+    Record record = readRecord(this.index.getLong(slotPosition(slot) + SLOT_OFFSET_OFFSET));
+    if (record == null) {
+      return true;
+    }
+
+    try {
+      return countProperties(content) > countProperties(this.codec.decode(record.payload));
+    } catch (IOException e) {
+      return true;
+    }
+  }
+
+  /**
+   * This method determines whether the given content should replace the other content with the
+   * same ID, because it is a newer version, or the same version with more of its properties.
+   *
+   * @param content The content that was received.
+   * @param other The content that it may replace.
+   * @return True if the content should replace the other content.
+   */
+  private static boolean supersedes(Content content, Content other) {
+    int version = content.getVersion().getNumber();
+    int otherVersion = other.getVersion().getNumber();
+    return version > otherVersion
+        || version == otherVersion && countProperties(content) > countProperties(other);
+  }
+
+  /**
+   * This method counts the properties of the given content that depend on how it was retrieved,
+   * such as its body, which are missing from content that was retrieved with only its version.
+   *
+   * @param content The content to count the properties of.
+   * @return The number of properties that the content has.
+   */
+  private static int countProperties(Content content) {
+    Object[] properties = {content.getTitle(), content.getSpace(), content.getAncestors(),
+        content.getBody(), content.getMetadata()};
+    int count = 0;
+    for (Object property : properties) {
+      if (property != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+    long nextPosition = position;
+    while (buffer.hasRemaining()) {
+      int read = this.dataChannel.read(buffer, nextPosition);
+      if (read < 0) {
+        return false;
+      }
+      nextPosition += read;
+    }
+    return true;
+  }
+
+  /**
+   * This method returns the slot that holds the given ID, or the empty slot that it would be
+   * stored in, using linear probing.
+   *
+   * @param id The ID to find.
+   * @return The index of the slot.
+   */
+  private int findSlot(long id) {
+    int mask = this.capacity - 1;
+    int slot = hash(id) & mask;
+    while (true) {
+      long slotId = getSlotId(slot);
+      if (slotId == 0 || slotId == id) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private long getSlotId(int slot) {
+    return this.index.getLong(slotPosition(slot));
+  }
+
+  private void writeSlot(int slot, long id, long offset, int version) {
+    int position = slotPosition(slot);
+    this.index.putLong(position + SLOT_OFFSET_OFFSET, offset);
+    this.index.putInt(position + SLOT_VERSION_OFFSET, version);
+    this.index.putLong(position, id);
+  }
+
+  private static int slotPosition(int slot) {
+    return INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+  }
+
+  private static int hash(long id) {
+    // The finalizer of MurmurHash3, so that sequential IDs are spread across the table
+    long hash = id;
+    hash ^= hash >>> 33;
+    hash *= 0xFF51AFD7ED558CCDL;
+    hash ^= hash >>> 33;
+    return (int) hash;
+  }
+
+  private static long parseId(String id) {
+    if (id == null || id.isEmpty() || id.length() > 18
+        || !id.chars().allMatch(c -> c >= '0' && c <= '9')) {
+      return -1;
+    }
+    return Long.parseLong(id);
+  }
+
+  /**
+   * This class represents a record that was read from the data file.
+   */
+  private static class Record {
+
+    private final long id;
+    private final int version;
+    private final byte[] payload;
+
+    private Record(long id, int version, byte[] payload) {
+      this.id = id;
+      this.version = version;
+      this.payload = payload;
+    }
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link ContentMirror}.
+   */
+  public static class Builder {
+
+    private Path directory;
+    private int initialCapacity = 1024;
+    private ContentCodec codec = new ContentCodec.Builder().build();
+    private int maxPendingContent = 10_000;
+
+    /**
+     * This method sets the directory that the mirror's files are stored in. The directory is
+     * created if it does not exist, and the content that is already stored in it is kept.
+     *
+     * @param directory The directory of the mirror.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setDirectory(Path directory) {
+      this.directory = directory;
+      return this;
+    }
+
+    /**
+     * This method sets the number of slots in a new index, which is doubled whenever the index
+     * becomes too full. This must be a power of two, and defaults to 1024.
+     *
+     * @param initialCapacity The number of slots in a new index.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setInitialCapacity(int initialCapacity) {
+      this.initialCapacity = initialCapacity;
+      return this;
+    }
+
+    /**
+     * This method sets the codec that content is encoded with. Content can only be read by a
+     * mirror with a codec of the same format as the one it was stored with. This defaults to a
+     * codec with the Smile format.
+     *
+     * @param codec The codec that content is encoded with.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setCodec(ContentCodec codec) {
+      this.codec = codec;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of pieces of content received from the client that can
+     * be waiting to be written at once. Any further content is dropped until the waiting content
+     * has been written. This defaults to 10,000.
+     *
+     * @param maxPendingContent The maximum number of pieces of content waiting to be written.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxPendingContent(int maxPendingContent) {
+      this.maxPendingContent = maxPendingContent;
+      return this;
+    }
+
+    /**
+     * This method opens the mirror in the directory that was set on this instance.
+     *
+     * @return A new instance of {@link ContentMirror} with the values set on this instance.
+     * @throws IllegalStateException If the mirror that would be created would be invalid.
+     * @throws IOException If the files of the mirror could not be opened.
+     */
+    public ContentMirror build() throws IllegalStateException, IOException {
+      if (this.directory == null) {
+        throw new IllegalStateException("You must specify the directory of the mirror");
+      }
+
+      if (this.initialCapacity < 2 || Integer.bitCount(this.initialCapacity) != 1) {
+        throw new IllegalStateException("The initial capacity must be a power of two");
+      }
+
+      if (this.codec == null) {
+        throw new IllegalStateException("You must specify the codec to encode content with");
+      }
+
+      if (this.maxPendingContent <= 0) {
+        throw new IllegalStateException("The maximum pending content must be a positive number");
+      }
+
+      return new ContentMirror(this);
+    }
+  }
+}
@@ -16,6 +16,18 @@ public abstract class ConfluenceRequest {
    */
   public abstract String getRelativePath();
 
+  /**
+   * This method returns the path of the request relative to the Confluence wiki root, with any
+   * identifiers replaced by placeholders, such as "rest/api/content/{id}". This identifies the
+   * endpoint of the request without identifying the resource, so that requests to the same endpoint
+   * can be grouped together.
+   *
+   * @return The path template of the request relative to the Confluence wiki root.
+   */
+  public String getPathTemplate() {
+    return getRelativePath();
+  }
+
   /**
    * This method returns the HTTP method used by this request.
    *
@@ -54,6 +54,27 @@ public class CreateContentRequest extends ConfluenceRequest {
         .build();
   }
 
+  private CreateContentRequest(CreateContentRequest request, Content content) {
+    this.responseStatusFilter = request.responseStatusFilter;
+    this.expandedResponseProperties = request.expandedResponseProperties;
+    this.content = content;
+  }
+
+  /**
+   * This method returns a copy of this request that creates the content as a child of the content
+   * with the given ID, for the case where the ID of the parent was not known until after this
+   * request was built.
+   *
+   * @param ancestorId The unique identifier of the parent content.
+   * @return A copy of this request with the given parent.
+   */
+  public CreateContentRequest withAncestor(String ancestorId) {
+    Content ancestor = new Content.Builder().setId(ancestorId).build();
+    return new CreateContentRequest(this, new Content.Builder(this.content)
+        .setAncestors(Collections.singletonList(ancestor))
+        .build());
+  }
+
   /**
    * This method returns the path of the request relative to the Confluence wiki root.
    *
@@ -0,0 +1,216 @@
+package com.github.crob1140.confluence.requests;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentStatus;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.ws.rs.HttpMethod;
+
+/**
+ * This class represents a request to get a single piece of content by its ID from the Confluence
+ * Cloud server.
+ */
+public class GetContentByIdRequest extends ConfluenceRequest {
+
+  private final String id;
+  private final ContentStatus status;
+  private final Integer version;
+  private final ExpandedContentProperties expandedProperties;
+
+  private GetContentByIdRequest(Builder builder) {
+    this.id = builder.id;
+    this.status = builder.status;
+    this.version = builder.version;
+    this.expandedProperties = builder.expandedProperties;
+  }
+
+  /**
+   * This method returns the unique identifier of the requested content.
+   *
+   * @return The unique identifier of the requested content.
+   */
+  public String getId() {
+    return this.id;
+  }
+
+  /**
+   * This method returns the required status of the requested content.
+   *
+   * @return The required status of the requested content, or null if it was not set.
+   */
+  public ContentStatus getStatus() {
+    return this.status;
+  }
+
+  /**
+   * This method returns the version of the requested content.
+   *
+   * @return The version of the requested content, or null if the latest version is requested.
+   */
+  public Integer getVersion() {
+    return this.version;
+  }
+
+  /**
+   * This method returns the properties to be expanded in the requested content.
+   *
+   * @return The properties to be expanded in the requested content, or null if they were not set.
+   */
+  public ExpandedContentProperties getExpandedProperties() {
+    return this.expandedProperties;
+  }
+
+  /**
+   * This method returns the path of the request relative to the Confluence wiki root.
+   *
+   * @return The path of the request relative to the Confluence wiki root.
+   */
+  @Override
+  public String getRelativePath() {
+    return "rest/api/content/" + this.id;
+  }
+
+  /**
+   * This method returns the path template of the request relative to the Confluence wiki root.
+   *
+   * @return The path template of the request relative to the Confluence wiki root.
+   */
+  @Override
+  public String getPathTemplate() {
+    return "rest/api/content/{id}";
+  }
+
+  /**
+   * This method returns the HTTP method used by this request.
+   */
+  @Override
+  public String getMethod() {
+    return HttpMethod.GET;
+  }
+
+  /**
+   * This method returns the query parameters for this request.
+   *
+   * @return The query parameters for this request.
+   */
+  @Override
+  public Map<String, String> getQueryParams() {
+    Map<String, String> queryParams = new HashMap<>();
+
+    if (this.status != null) {
+      queryParams.put("status", this.status.getIdentifier());
+    }
+
+    if (this.version != null) {
+      queryParams.put("version", Integer.toString(this.version));
+    }
+
+    if (this.expandedProperties != null) {
+      queryParams.put("expand", this.expandedProperties.getProperties()
+          .stream().collect(Collectors.joining(",")));
+    }
+
+    return queryParams;
+  }
+
+  /**
+   * This method returns the entity that is sent in the body of the request.
+   *
+   * @return The entity that is sent in the body of the request.
+   */
+  @Override
+  public Optional<Object> getBodyEntity() {
+    return Optional.empty();
+  }
+
+  /**
+   * This method returns the class of the object in the body of the response for this request.
+   *
+   * @return The class of the object in the body of response for this request.
+   */
+  @Override
+  public Class<?> getReturnType() {
+    return Content.class;
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link GetContentByIdRequest}.
+   */
+  public static final class Builder {
+
+    private String id;
+    private ContentStatus status;
+    private Integer version;
+    private ExpandedContentProperties expandedProperties;
+
+    /**
+     * This method sets the unique identifier of the content to retrieve.
+     *
+     * @param id The unique identifier of the content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setId(String id) {
+      this.id = id;
+      return this;
+    }
+
+    /**
+     * This method sets the required status of the content. The content will only be returned if it
+     * has the given status.
+     *
+     * @param status The status of the content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setStatus(ContentStatus status) {
+      this.status = status;
+      return this;
+    }
+
+    /**
+     * This method sets the version of the content to retrieve. The latest version is retrieved if
+     * this is not set.
+     *
+     * @param version The version of the content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setVersion(Integer version) {
+      this.version = version;
+      return this;
+    }
+
+    /**
+     * This method sets the properties to be expanded in the content returned by this request.
+     *
+     * @param expandedProperties the properties to expand in the content returned by this request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExpandedProperties(ExpandedContentProperties expandedProperties) {
+      this.expandedProperties = expandedProperties;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link GetContentByIdRequest} using the values that were
+     * set on this instance.
+     *
+     * @return A new instance of {@link GetContentByIdRequest} with the values set on this
+     * instance.
+     * @throws IllegalStateException If the request that would be created would be invalid.
+     */
+    public GetContentByIdRequest build() throws IllegalStateException {
+      if (this.id == null || this.id.isEmpty()) {
+        throw new IllegalStateException(
+            "You must specify the ID of the content you are trying to retrieve");
+      }
+
+      if (this.version != null && this.version <= 0) {
+        throw new IllegalStateException("The version must be a positive number");
+      }
+
+      return new GetContentByIdRequest(this);
+    }
+  }
+}
@@ -44,6 +44,24 @@ public class GetContentRequest extends ConfluenceRequest {
     expandedProperties = builder.expandedProperties;
   }
 
+  /**
+   * This method returns the pagination start position for the request.
+   *
+   * @return The pagination start position for the request, or null if it was not set.
+   */
+  public Integer getStartPosition() {
+    return this.start;
+  }
+
+  /**
+   * This method returns the maximum number of results for the request.
+   *
+   * @return The maximum number of results for the request, or null if it was not set.
+   */
+  public Integer getLimit() {
+    return this.limit;
+  }
+
   /**
    * This method returns the path of the request relative to the Confluence wiki root.
    *
@@ -152,6 +170,32 @@ public class GetContentRequest extends ConfluenceRequest {
     private String type;
     private ExpandedContentProperties expandedProperties;
 
+    /**
+     * This constructor creates a builder with no values set.
+     */
+    public Builder() {
+    }
+
+    /**
+     * This constructor creates a builder with all of the values set on the given request, so that
+     * a modified copy of the request can be created.
+     *
+     * @param request The request to copy the values of.
+     */
+    public Builder(GetContentRequest request) {
+      this.limit = request.limit;
+      this.orderByField = request.orderByField;
+      this.orderByDirection = request.orderByDirection;
+      this.postingDay = request.postingDay;
+      this.spaceKey = request.spaceKey;
+      this.start = request.start;
+      this.status = request.status;
+      this.title = request.title;
+      this.trigger = request.trigger;
+      this.type = request.type;
+      this.expandedProperties = request.expandedProperties;
+    }
+
     /**
      * This method sets the maximum number of results for the request.
      *
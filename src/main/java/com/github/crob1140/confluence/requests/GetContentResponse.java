@@ -3,6 +3,7 @@ package com.github.crob1140.confluence.requests;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.github.crob1140.confluence.content.Content;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -19,6 +20,8 @@ public class GetContentResponse {
   private Integer limit;
   @JsonProperty
   private Integer size;
+  @JsonProperty("_links")
+  private ResponseLinks links;
 
   @SuppressWarnings("unused")
   private GetContentResponse() {
@@ -34,6 +37,23 @@ public class GetContentResponse {
     this.results = results;
   }
 
+  /**
+   * This constructor initialises a response with the given pagination details, but without the
+   * results themselves, for the case where the results were consumed as they were parsed.
+   *
+   * @param start The pagination start position of the response.
+   * @param limit The maximum number of results that could have been contained in the response.
+   * @param size The number of results that were contained in the response.
+   * @param links The links returned alongside the response.
+   */
+  GetContentResponse(Integer start, Integer limit, Integer size, ResponseLinks links) {
+    this.results = Collections.emptyList();
+    this.start = start;
+    this.limit = limit;
+    this.size = size;
+    this.links = links;
+  }
+
   /**
    * This method returns the matching content contained in the response to a {@link
    * GetContentRequest}.
@@ -43,4 +63,62 @@ public class GetContentResponse {
   public List<Content> getResults() {
     return this.results;
   }
+
+  /**
+   * This method returns the pagination start position of the response.
+   *
+   * @return The pagination start position of the response.
+   */
+  public Integer getStart() {
+    return this.start;
+  }
+
+  /**
+   * This method returns the maximum number of results that could have been contained in the
+   * response.
+   *
+   * @return The maximum number of results that could have been contained in the response.
+   */
+  public Integer getLimit() {
+    return this.limit;
+  }
+
+  /**
+   * This method returns the number of results contained in the response.
+   *
+   * @return The number of results contained in the response.
+   */
+  public Integer getSize() {
+    return this.size;
+  }
+
+  /**
+   * This method returns the links returned alongside the response.
+   *
+   * @return The links returned alongside the response.
+   */
+  public ResponseLinks getLinks() {
+    return this.links;
+  }
+
+  /**
+   * This method returns whether or not there are more results after the ones contained in this
+   * response. If the server did not return any links, this is inferred from whether or not the
+   * page was full.
+   *
+   * @return True if there are more results after the ones contained in this response.
+   */
+  public boolean hasNextPage() {
+    int resultCount = this.results != null && !this.results.isEmpty() ? this.results.size()
+        : this.size != null ? this.size : 0;
+    if (resultCount == 0) {
+      return false;
+    }
+
+    if (this.links != null) {
+      return this.links.getNext() != null;
+    }
+
+    return this.limit != null && resultCount >= this.limit;
+  }
 }
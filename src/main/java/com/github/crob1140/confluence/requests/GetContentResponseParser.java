@@ -0,0 +1,96 @@
+package com.github.crob1140.confluence.requests;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.crob1140.confluence.content.Content;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * <p>This class incrementally parses the JSON representation of a {@link GetContentResponse}.</p>
+ *
+ * <p>Rather than collecting every result into a list, each result is handed to a consumer as soon
+ * as it has been parsed, so that only a single result needs to be held in memory at a time.</p>
+ */
+public class GetContentResponseParser {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private GetContentResponseParser() {
+    // This class only contains static methods
+  }
+
+  /**
+   * This method parses the JSON representation of a {@link GetContentResponse} from the given
+   * stream, passing each result to the given consumer as soon as it has been parsed.
+   *
+   * @param inputStream The stream containing the JSON representation of the response.
+   * @param consumer The consumer to pass each result to.
+   * @return The response, containing the pagination details but not the results themselves.
+   * @throws IOException If the stream could not be read or did not contain a valid response.
+   */
+  public static GetContentResponse parse(InputStream inputStream,
+      Consumer<? super Content> consumer) throws IOException {
+    Integer start = null;
+    Integer limit = null;
+    Integer size = null;
+    ResponseLinks links = null;
+    int resultCount = 0;
+
+    try (JsonParser parser = MAPPER.getFactory().createParser(inputStream)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Expected the response to be a JSON object");
+      }
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.getCurrentName();
+        JsonToken valueToken = parser.nextToken();
+        switch (fieldName) {
+          case "results":
+            if (valueToken == JsonToken.START_ARRAY) {
+              while (parser.nextToken() == JsonToken.START_OBJECT) {
+                consumer.accept(MAPPER.readValue(parser, Content.class));
+                resultCount++;
+              }
+            }
+            break;
+          case "start":
+            start = readInteger(parser, valueToken);
+            break;
+          case "limit":
+            limit = readInteger(parser, valueToken);
+            break;
+          case "size":
+            size = readInteger(parser, valueToken);
+            break;
+          case "_links":
+            links = MAPPER.readValue(parser, ResponseLinks.class);
+            break;
+          default:
+            parser.skipChildren();
+        }
+      }
+    }
+
+    return new GetContentResponse(start, limit, size != null ? size : resultCount, links);
+  }
+
+  /**
+   * This method reads the current value as an integer, if it is one.
+   *
+   * @param parser The parser positioned at the value.
+   * @param valueToken The token of the value.
+   * @return The value as an integer, or null if it is not an integer.
+   * @throws IOException If the value could not be read.
+   */
+  private static Integer readInteger(JsonParser parser, JsonToken valueToken) throws IOException {
+    if (valueToken == JsonToken.VALUE_NUMBER_INT) {
+      return parser.getIntValue();
+    }
+    parser.skipChildren();
+    return null;
+  }
+}
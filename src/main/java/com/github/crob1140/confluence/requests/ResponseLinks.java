@@ -0,0 +1,57 @@
+package com.github.crob1140.confluence.requests;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * This class represents the links that are returned alongside a paginated response from the
+ * Confluence Cloud server.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ResponseLinks {
+
+  @JsonProperty
+  private String base;
+  @JsonProperty
+  private String context;
+  @JsonProperty
+  private String next;
+  @JsonProperty
+  private String self;
+
+  /**
+   * This method returns the base URL of the Confluence Cloud server.
+   *
+   * @return The base URL of the Confluence Cloud server.
+   */
+  public String getBase() {
+    return this.base;
+  }
+
+  /**
+   * This method returns the context path of the Confluence Cloud server.
+   *
+   * @return The context path of the Confluence Cloud server.
+   */
+  public String getContext() {
+    return this.context;
+  }
+
+  /**
+   * This method returns the link to the next page of results, if there is one.
+   *
+   * @return The link to the next page of results, or null if this is the last page.
+   */
+  public String getNext() {
+    return this.next;
+  }
+
+  /**
+   * This method returns the link to the current page of results.
+   *
+   * @return The link to the current page of results.
+   */
+  public String getSelf() {
+    return this.self;
+  }
+}
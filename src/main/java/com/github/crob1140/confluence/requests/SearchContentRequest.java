@@ -0,0 +1,253 @@
+package com.github.crob1140.confluence.requests;
+
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.ws.rs.HttpMethod;
+
+/**
+ * This class represents a request to search for content in the Confluence Cloud server using a
+ * Confluence Query Language (CQL) query.
+ */
+public class SearchContentRequest extends ConfluenceRequest {
+
+  private final String cql;
+  private final String cqlContext;
+  private final Integer start;
+  private final Integer limit;
+  private final ExpandedContentProperties expandedProperties;
+
+  private SearchContentRequest(Builder builder) {
+    this.cql = builder.cql;
+    this.cqlContext = builder.cqlContext;
+    this.start = builder.start;
+    this.limit = builder.limit;
+    this.expandedProperties = builder.expandedProperties;
+  }
+
+  /**
+   * This method returns the CQL query that the content must match.
+   *
+   * @return The CQL query that the content must match.
+   */
+  public String getCql() {
+    return this.cql;
+  }
+
+  /**
+   * This method returns the context in which the CQL query is executed.
+   *
+   * @return The context of the CQL query, or null if it was not set.
+   */
+  public String getCqlContext() {
+    return this.cqlContext;
+  }
+
+  /**
+   * This method returns the pagination start position of the request.
+   *
+   * @return The pagination start position of the request, or null if it was not set.
+   */
+  public Integer getStartPosition() {
+    return this.start;
+  }
+
+  /**
+   * This method returns the maximum number of results for the request.
+   *
+   * @return The maximum number of results for the request, or null if it was not set.
+   */
+  public Integer getLimit() {
+    return this.limit;
+  }
+
+  /**
+   * This method returns the properties to be expanded in the results of the request.
+   *
+   * @return The properties to be expanded in the results, or null if they were not set.
+   */
+  public ExpandedContentProperties getExpandedProperties() {
+    return this.expandedProperties;
+  }
+
+  /**
+   * This method returns the path of the request relative to the Confluence wiki root.
+   *
+   * @return The path of the request relative to the Confluence wiki root.
+   */
+  @Override
+  public String getRelativePath() {
+    return "rest/api/content/search";
+  }
+
+  /**
+   * This method returns the HTTP method used by this request.
+   */
+  @Override
+  public String getMethod() {
+    return HttpMethod.GET;
+  }
+
+  /**
+   * This method returns the query parameters for this request.
+   *
+   * @return The query parameters for this request.
+   */
+  @Override
+  public Map<String, String> getQueryParams() {
+    Map<String, String> queryParams = new HashMap<>();
+    queryParams.put("cql", this.cql);
+
+    if (this.cqlContext != null) {
+      queryParams.put("cqlcontext", this.cqlContext);
+    }
+
+    if (this.start != null) {
+      queryParams.put("start", Integer.toString(this.start));
+    }
+
+    if (this.limit != null) {
+      queryParams.put("limit", Integer.toString(this.limit));
+    }
+
+    if (this.expandedProperties != null) {
+      queryParams.put("expand", this.expandedProperties.getProperties()
+          .stream().collect(Collectors.joining(",")));
+    }
+
+    return queryParams;
+  }
+
+  /**
+   * This method returns the entity that is sent in the body of the request.
+   *
+   * @return The entity that is sent in the body of the request.
+   */
+  @Override
+  public Optional<Object> getBodyEntity() {
+    return Optional.empty();
+  }
+
+  /**
+   * This method returns the class of the object in the body of the response for this request.
+   *
+   * @return The class of the object in the body of response for this request.
+   */
+  @Override
+  public Class<?> getReturnType() {
+    return GetContentResponse.class;
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link SearchContentRequest}.
+   */
+  public static final class Builder {
+
+    private String cql;
+    private String cqlContext;
+    private Integer start;
+    private Integer limit;
+    private ExpandedContentProperties expandedProperties;
+
+    /**
+     * This constructor creates a builder with no values set.
+     */
+    public Builder() {
+    }
+
+    /**
+     * This constructor creates a builder with all of the values set on the given request, so that
+     * a modified copy of the request can be created.
+     *
+     * @param request The request to copy the values of.
+     */
+    public Builder(SearchContentRequest request) {
+      this.cql = request.cql;
+      this.cqlContext = request.cqlContext;
+      this.start = request.start;
+      this.limit = request.limit;
+      this.expandedProperties = request.expandedProperties;
+    }
+
+    /**
+     * This method sets the CQL query that the content must match.
+     *
+     * @param cql The CQL query.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setCql(String cql) {
+      this.cql = cql;
+      return this;
+    }
+
+    /**
+     * This method sets the context in which the CQL query is executed, such as the space that
+     * relative functions in the query refer to.
+     *
+     * @param cqlContext The JSON representation of the context of the query.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setCqlContext(String cqlContext) {
+      this.cqlContext = cqlContext;
+      return this;
+    }
+
+    /**
+     * This method sets the pagination start position of the request.
+     *
+     * @param start The pagination start position.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setStartPosition(Integer start) {
+      this.start = start;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of results for the request.
+     *
+     * @param limit The maximum number of results.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setLimit(Integer limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * This method sets the properties to be expanded in the results of this request.
+     *
+     * @param expandedProperties The properties to expand in the results of this request.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExpandedProperties(ExpandedContentProperties expandedProperties) {
+      this.expandedProperties = expandedProperties;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link SearchContentRequest} using the values that were
+     * set on this instance.
+     *
+     * @return A new instance of {@link SearchContentRequest} with the values set on this instance.
+     * @throws IllegalStateException If the request that would be created would be invalid.
+     */
+    public SearchContentRequest build() throws IllegalStateException {
+      if (this.cql == null || this.cql.isEmpty()) {
+        throw new IllegalStateException("You must specify the CQL query to search with");
+      }
+
+      if (this.limit != null && this.limit <= 0) {
+        throw new IllegalStateException("The limit must be a positive number");
+      }
+
+      if (this.start != null && this.start < 0) {
+        throw new IllegalStateException("The start position must not be negative");
+      }
+
+      return new SearchContentRequest(this);
+    }
+  }
+}
@@ -24,9 +24,11 @@ public class UpdateContentRequest extends ConfluenceRequest {
 
   private String id;
   private Content content;
+  private boolean nextVersion;
 
   private UpdateContentRequest(Builder builder) {
     this.id = builder.id;
+    this.nextVersion = builder.nextVersion;
 
     Content.Builder contentBuilder = new Content.Builder();
     if (builder.ancestorId != null) {
@@ -42,14 +44,62 @@ public class UpdateContentRequest extends ConfluenceRequest {
       contentBuilder.setMetadata(new Metadata(builder.labels));
     }
 
+    if (builder.versionNumber != null) {
+      contentBuilder.setVersion(new Version(builder.versionNumber));
+    }
+
     this.content = contentBuilder
         .setTitle(builder.title)
         .setStatus(builder.status)
         .setType(builder.type)
-        .setVersion(new Version(builder.versionNumber))
         .build();
   }
 
+  private UpdateContentRequest(UpdateContentRequest request, int versionNumber) {
+    this.id = request.id;
+    this.content = new Content.Builder(request.content)
+        .setVersion(new Version(versionNumber))
+        .build();
+  }
+
+  /**
+   * This method returns the unique identifier of the content to be updated.
+   *
+   * @return The unique identifier of the content to be updated.
+   */
+  public String getId() {
+    return this.id;
+  }
+
+  /**
+   * This method returns the new version number of the content.
+   *
+   * @return The new version number of the content, or null if the content should be updated to
+   * the version after its latest version.
+   */
+  public Integer getVersionNumber() {
+    return this.content.getVersion() != null ? this.content.getVersion().getNumber() : null;
+  }
+
+  /**
+   * This method returns whether or not the content should be updated to the version after its
+   * latest version, which is determined by the client when the request is sent.
+   *
+   * @return True if the new version number is determined when the request is sent.
+   */
+  public boolean isNextVersion() {
+    return this.nextVersion;
+  }
+
+  /**
+   * This method returns a copy of this request that updates the content to the given version.
+   *
+   * @param versionNumber The new version number of the content.
+   * @return A copy of this request with the given version number.
+   */
+  public UpdateContentRequest withVersion(int versionNumber) {
+    return new UpdateContentRequest(this, versionNumber);
+  }
 
   /**
    * This method returns the path of the request relative to the Confluence wiki root.
@@ -61,6 +111,16 @@ public class UpdateContentRequest extends ConfluenceRequest {
     return "rest/api/content/" + id;
   }
 
+  /**
+   * This method returns the path template of the request relative to the Confluence wiki root.
+   *
+   * @return The path template of the request relative to the Confluence wiki root.
+   */
+  @Override
+  public String getPathTemplate() {
+    return "rest/api/content/{id}";
+  }
+
   /**
    * This method returns the HTTP method used by this request.
    */
@@ -107,6 +167,7 @@ public class UpdateContentRequest extends ConfluenceRequest {
     private String id;
     private String ancestorId;
     private Integer versionNumber;
+    private boolean nextVersion;
     private String type;
     private ContentStatus status;
     private ContentBodyType bodyType;
@@ -144,6 +205,25 @@ public class UpdateContentRequest extends ConfluenceRequest {
      */
     public Builder setVersion(int versionNumber) {
       this.versionNumber = versionNumber;
+      this.nextVersion = false;
+      return this;
+    }
+
+    /**
+     * <p>This method sets the version of the content to the version after its latest version,
+     * instead of a fixed version number.</p>
+     *
+     * <p>The latest version is determined by the client when the request is sent, from the
+     * versions of the content that it has already received if it has a {@link
+     * com.github.crob1140.confluence.cache.VersionRegistry}, or by requesting it otherwise. If the
+     * server rejects the update because the version has since changed, the latest version is
+     * requested and the update is sent once more.</p>
+     *
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setNextVersion() {
+      this.versionNumber = null;
+      this.nextVersion = true;
       return this;
     }
 
@@ -251,7 +331,7 @@ public class UpdateContentRequest extends ConfluenceRequest {
             "You must specify the type of content you are trying to update");
       }
 
-      if (this.versionNumber == null) {
+      if (this.versionNumber == null && !this.nextVersion) {
         throw new IllegalStateException("You must specify the new version of the content");
       }
 
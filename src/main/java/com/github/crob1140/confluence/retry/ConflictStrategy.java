@@ -0,0 +1,145 @@
+package com.github.crob1140.confluence.retry;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+/**
+ * <p>This class defines how an update to content should be resolved when the server responds that
+ * it conflicts with a newer version of the content, such as when another editor has changed the
+ * content since its version was read.</p>
+ *
+ * <p>When an update conflicts, the latest state of the content is requested, and the merge function
+ * is given both that content and the original update, so that it can reapply the change on top of
+ * the latest state (for example by adding labels to the latest labels, or by replacing a section of
+ * the latest body). The update it returns is sent with the version following the latest version.
+ * This is repeated until the update succeeds, the merge function gives up by returning null, or the
+ * maximum number of attempts is reached, in which case the last conflict is reported.</p>
+ */
+public class ConflictStrategy {
+
+  private final BiFunction<Content, UpdateContentRequest, UpdateContentRequest> mergeFunction;
+  private final int maxAttempts;
+  private final ExpandedContentProperties expandedProperties;
+
+  private ConflictStrategy(Builder builder) {
+    this.mergeFunction = builder.mergeFunction;
+    this.maxAttempts = builder.maxAttempts;
+    this.expandedProperties = new ExpandedContentProperties.Builder(builder.expandedProperties)
+        .addVersion()
+        .build();
+  }
+
+  /**
+   * This method returns the maximum number of times an update is sent, including the first
+   * attempt.
+   *
+   * @return The maximum number of attempts.
+   */
+  public int getMaxAttempts() {
+    return this.maxAttempts;
+  }
+
+  /**
+   * This method returns the properties to expand when the latest state of conflicting content is
+   * requested. These always include the version of the content.
+   *
+   * @return The properties to expand in the latest state of the content.
+   */
+  public ExpandedContentProperties getExpandedProperties() {
+    return this.expandedProperties;
+  }
+
+  /**
+   * This method reapplies the given update on top of the latest state of its content.
+   *
+   * @param latestContent The latest state of the content, with the expanded properties of this
+   * strategy.
+   * @param request The update that conflicted, as it was originally given.
+   * @return The update to send instead, or an empty optional if the conflict cannot be resolved.
+   * The version of the update that is returned is replaced with the version following the latest
+   * version, so the merge function can build it with {@link
+   * UpdateContentRequest.Builder#setNextVersion()}.
+   */
+  public Optional<UpdateContentRequest> merge(Content latestContent,
+      UpdateContentRequest request) {
+    return Optional.ofNullable(this.mergeFunction.apply(latestContent, request));
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link ConflictStrategy}.
+   */
+  public static class Builder {
+
+    private BiFunction<Content, UpdateContentRequest, UpdateContentRequest> mergeFunction;
+    private int maxAttempts = 3;
+    private ExpandedContentProperties expandedProperties =
+        new ExpandedContentProperties.Builder().build();
+
+    /**
+     * This method sets the function that reapplies a conflicting update on top of the latest state
+     * of its content. The function is given the latest content and the original update, and
+     * returns the update to send instead, or null to give up. This must be set, as only the caller
+     * knows how to combine their update with the changes made by other editors.
+     *
+     * @param mergeFunction The function that resolves each conflict.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMergeFunction(
+        BiFunction<Content, UpdateContentRequest, UpdateContentRequest> mergeFunction) {
+      this.mergeFunction = mergeFunction;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of times an update is sent, including the first attempt.
+     * This defaults to 3.
+     *
+     * @param maxAttempts The maximum number of attempts.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * This method sets the properties to expand when the latest state of conflicting content is
+     * requested, such as its body or labels, so that the merge function can reapply the update to
+     * them. The version of the content is always expanded. By default, only the version is
+     * expanded.
+     *
+     * @param expandedProperties The properties to expand in the latest state of the content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExpandedProperties(ExpandedContentProperties expandedProperties) {
+      this.expandedProperties = expandedProperties;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link ConflictStrategy} using the values that were set on
+     * this instance.
+     *
+     * @return A new instance of {@link ConflictStrategy} with the values set on this instance.
+     * @throws IllegalStateException If the strategy that would be created would be invalid.
+     */
+    public ConflictStrategy build() throws IllegalStateException {
+      if (this.mergeFunction == null) {
+        throw new IllegalStateException("You must specify the function to merge conflicts with");
+      }
+
+      if (this.maxAttempts <= 0) {
+        throw new IllegalStateException("The maximum number of attempts must be positive");
+      }
+
+      if (this.expandedProperties == null) {
+        throw new IllegalStateException("You must specify the properties to expand");
+      }
+
+      return new ConflictStrategy(this);
+    }
+  }
+}
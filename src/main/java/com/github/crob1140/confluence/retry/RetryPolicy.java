@@ -0,0 +1,265 @@
+package com.github.crob1140.confluence.retry;
+
+import com.github.crob1140.confluence.requests.ConfluenceRequest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+/**
+ * <p>This class defines when, and after how long, a failed request to the Confluence Cloud server
+ * should be retried.</p>
+ *
+ * <p>A request is retried if its method is retryable and it either failed to receive a response,
+ * or received a response with a retryable status code. By default only GET requests are retried,
+ * as retrying other requests may apply the same change more than once.</p>
+ *
+ * <p>The delay before each retry is chosen at random between zero and an exponentially increasing
+ * upper bound ("full jitter"), so that clients that failed at the same time do not all retry at
+ * the same time. If the server indicates how long to wait, through the "Retry-After" header or the
+ * "X-RateLimit-Reset" header of an exhausted rate limit, the delay is at least that long.</p>
+ */
+public class RetryPolicy {
+
+  static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+  static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+  private final int maxAttempts;
+  private final Duration baseDelay;
+  private final Duration maxDelay;
+  private final Set<Integer> retryableStatusCodes;
+  private final Set<String> retryableMethods;
+
+  private RetryPolicy(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.baseDelay = builder.baseDelay;
+    this.maxDelay = builder.maxDelay;
+    this.retryableStatusCodes = builder.retryableStatusCodes;
+    this.retryableMethods = builder.retryableMethods;
+  }
+
+  /**
+   * This method returns the maximum number of times a request is attempted, including the first
+   * attempt.
+   *
+   * @return The maximum number of attempts.
+   */
+  public int getMaxAttempts() {
+    return this.maxAttempts;
+  }
+
+  /**
+   * <p>This method returns how long to wait before retrying the given request, if it should be
+   * retried at all.</p>
+   *
+   * <p>The request is not retried if its method is not retryable, if it has already been attempted
+   * the maximum number of times, if the response does not have a retryable status code, or if the
+   * server asked for a longer delay than the maximum delay of this policy.</p>
+   *
+   * @param request The request that failed.
+   * @param attempt The number of times the request has been attempted so far, starting from one.
+   * @param response The response to the last attempt, or null if no response was received.
+   * @return The delay before the request should be retried, or an empty optional if the request
+   * should not be retried.
+   */
+  public Optional<Duration> getRetryDelay(ConfluenceRequest request, int attempt,
+      Response response) {
+    if (attempt >= this.maxAttempts || !this.retryableMethods.contains(request.getMethod())) {
+      return Optional.empty();
+    }
+
+    if (response != null && !this.retryableStatusCodes.contains(response.getStatus())) {
+      return Optional.empty();
+    }
+
+    Duration serverDelay = response != null ? getServerDelay(response) : Duration.ZERO;
+    if (serverDelay.compareTo(this.maxDelay) > 0) {
+      return Optional.empty();
+    }
+
+    Duration backoffDelay = getBackoffDelay(attempt);
+    return Optional.of(serverDelay.compareTo(backoffDelay) > 0 ? serverDelay : backoffDelay);
+  }
+
+  /**
+   * This method returns a random delay between zero and the exponential backoff bound for the
+   * given attempt, which doubles with each attempt up to the maximum delay.
+   *
+   * @param attempt The number of times the request has been attempted so far.
+   * @return The delay before the next attempt.
+   */
+  Duration getBackoffDelay(int attempt) {
+    long maxMillis = this.maxDelay.toMillis();
+    long boundMillis = this.baseDelay.toMillis();
+    for (int i = 1; i < attempt && boundMillis < maxMillis; i++) {
+      boundMillis *= 2;
+    }
+    boundMillis = Math.min(boundMillis, maxMillis);
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+  }
+
+  /**
+   * This method returns how long the server asked the client to wait before retrying, through
+   * either the "Retry-After" header, or the "X-RateLimit-Reset" header if no requests remain in the
+   * current rate limit window.
+   *
+   * @param response The response returned from the server.
+   * @return The delay requested by the server, or zero if the server did not request one.
+   */
+  static Duration getServerDelay(Response response) {
+    String retryAfter = response.getHeaderString(HttpHeaders.RETRY_AFTER);
+    if (retryAfter != null) {
+      try {
+        return Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim())));
+      } catch (NumberFormatException e) {
+        Optional<Instant> retryAt = parseInstant(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME);
+        if (retryAt.isPresent()) {
+          return untilInstant(retryAt.get());
+        }
+      }
+    }
+
+    String rateLimitReset = response.getHeaderString(RATE_LIMIT_RESET);
+    if (rateLimitReset != null && "0".equals(response.getHeaderString(RATE_LIMIT_REMAINING))) {
+      Optional<Instant> resetAt = parseInstant(rateLimitReset, DateTimeFormatter.ISO_DATE_TIME);
+      if (resetAt.isPresent()) {
+        return untilInstant(resetAt.get());
+      }
+    }
+
+    return Duration.ZERO;
+  }
+
+  /**
+   * This method parses the given timestamp with the given format.
+   *
+   * @param timestamp The timestamp to parse.
+   * @param formatter The format of the timestamp.
+   * @return The parsed instant, or an empty optional if the timestamp could not be parsed.
+   */
+  private static Optional<Instant> parseInstant(String timestamp, DateTimeFormatter formatter) {
+    try {
+      return Optional.of(ZonedDateTime.parse(timestamp.trim(), formatter).toInstant());
+    } catch (DateTimeParseException e) {
+      try {
+        return Optional.of(OffsetDateTime.parse(timestamp.trim()).toInstant());
+      } catch (DateTimeParseException ignored) {
+        return Optional.empty();
+      }
+    }
+  }
+
+  /**
+   * This method returns the amount of time until the given instant, or zero if it has passed.
+   *
+   * @param instant The instant to wait until.
+   * @return The amount of time until the given instant.
+   */
+  private static Duration untilInstant(Instant instant) {
+    Duration delay = Duration.between(Instant.now(), instant);
+    return delay.isNegative() ? Duration.ZERO : delay;
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link RetryPolicy}.
+   */
+  public static class Builder {
+
+    private int maxAttempts = 3;
+    private Duration baseDelay = Duration.ofMillis(500);
+    private Duration maxDelay = Duration.ofSeconds(30);
+    private Set<Integer> retryableStatusCodes = new HashSet<>(Arrays.asList(429, 502, 503, 504));
+    private Set<String> retryableMethods = new HashSet<>(Arrays.asList(HttpMethod.GET));
+
+    /**
+     * This method sets the maximum number of times a request is attempted, including the first
+     * attempt. This defaults to 3.
+     *
+     * @param maxAttempts The maximum number of attempts.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * This method sets the upper bound of the delay before the first retry, which doubles with each
+     * subsequent retry. This defaults to 500 milliseconds.
+     *
+     * @param baseDelay The upper bound of the delay before the first retry.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setBaseDelay(Duration baseDelay) {
+      this.baseDelay = baseDelay;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum delay before any retry. If the server asks the client to wait
+     * for longer than this, the request is not retried. This defaults to 30 seconds.
+     *
+     * @param maxDelay The maximum delay before any retry.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setMaxDelay(Duration maxDelay) {
+      this.maxDelay = maxDelay;
+      return this;
+    }
+
+    /**
+     * This method sets the response status codes that cause a request to be retried. This defaults
+     * to 429, 502, 503 and 504.
+     *
+     * @param statusCodes The status codes that cause a request to be retried.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setRetryableStatusCodes(Integer... statusCodes) {
+      this.retryableStatusCodes = new HashSet<>(Arrays.asList(statusCodes));
+      return this;
+    }
+
+    /**
+     * This method sets the HTTP methods of the requests that may be retried. This defaults to only
+     * GET, and should only include other methods if it is safe for the corresponding requests to
+     * be applied more than once, such as PUT requests to update content.
+     *
+     * @param methods The HTTP methods of the requests that may be retried.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setRetryableMethods(String... methods) {
+      this.retryableMethods = new HashSet<>(Arrays.asList(methods));
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link RetryPolicy} using the values that were set on
+     * this instance.
+     *
+     * @return A new instance of {@link RetryPolicy} with the values set on this instance.
+     * @throws IllegalStateException If the policy that would be created would be invalid.
+     */
+    public RetryPolicy build() throws IllegalStateException {
+      if (this.maxAttempts <= 0) {
+        throw new IllegalStateException("The maximum number of attempts must be positive");
+      }
+
+      if (this.baseDelay.isNegative() || this.maxDelay.compareTo(this.baseDelay) < 0) {
+        throw new IllegalStateException(
+            "The base delay must not be negative, and must not exceed the maximum delay");
+      }
+
+      return new RetryPolicy(this);
+    }
+  }
+}
@@ -0,0 +1,298 @@
+package com.github.crob1140.confluence.sync;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.requests.GetContentResponse;
+import com.github.crob1140.confluence.requests.SearchContentRequest;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.ws.rs.ProcessingException;
+
+/**
+ * <p>This class retrieves only the content that has changed since it was last run, so that a copy
+ * of the content can be kept up to date without retrieving all of it each time.</p>
+ *
+ * <p>Each sync searches for content whose "lastmodified" date is no earlier than the latest change
+ * recorded in the checkpoint file, in the order in which it was modified, and passes each changed
+ * piece of content to a consumer. The checkpoint file is replaced after each page of changes has
+ * been consumed, so that a sync that is stopped part way resumes from the last complete page.</p>
+ *
+ * <p>CQL only compares dates to the minute, and the search index may lag slightly behind recent
+ * changes, so each sync reads back over a short overlap before the checkpoint. Content that has
+ * already been passed on within the overlap is recognised by when it was last modified, and is
+ * not passed on again. A change may still be passed on more than once if a sync is stopped
+ * part way through a page, so the consumer should tolerate repeated changes.</p>
+ *
+ * <p>Pages are requested by the modification date of the last result of the previous page rather
+ * than by position alone, so that content that is modified during the sync, which moves to the end
+ * of the results, does not cause other results to be skipped.</p>
+ */
+public class IncrementalContentSync {
+
+  private static final DateTimeFormatter CQL_DATE_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+  private final ConfluenceClient client;
+  private final Path checkpointFile;
+  private final String filter;
+  private final ExpandedContentProperties expandedProperties;
+  private final int pageSize;
+  private final Duration overlap;
+  private final ZoneId timeZone;
+
+  private IncrementalContentSync(Builder builder) {
+    this.client = builder.client;
+    this.checkpointFile = builder.checkpointFile;
+    this.filter = builder.filter;
+    this.expandedProperties = new ExpandedContentProperties.Builder(builder.expandedProperties)
+        .addVersion()
+        .build();
+    this.pageSize = builder.pageSize;
+    this.overlap = builder.overlap;
+    this.timeZone = builder.timeZone;
+  }
+
+  /**
+   * This method retrieves the content that has changed since the checkpoint, passes each changed
+   * piece of content to the given consumer in the order in which it was modified, and advances
+   * the checkpoint past it.
+   *
+   * @param consumer The consumer to pass each changed piece of content to. If the consumer throws
+   * an exception, the sync stops and the checkpoint is not advanced past the page being consumed.
+   * @return The number of changed pieces of content that were passed to the consumer.
+   * @throws ConfluenceRequestException If an error response is returned from the server.
+   * @throws IOException If the checkpoint file could not be read or written.
+   */
+  public long sync(Consumer<? super Content> consumer)
+      throws ConfluenceRequestException, IOException {
+    SyncCheckpoint checkpoint = SyncCheckpoint.read(this.checkpointFile);
+    Instant lastModified = checkpoint.getLastModified().orElse(null);
+    Map<String, Instant> recentChanges = checkpoint.getRecentChanges();
+
+    String cursor = toCqlDate(lastModified != null ? lastModified.minus(this.overlap)
+        : Instant.EPOCH);
+    int start = 0;
+    long changedCount = 0;
+    while (true) {
+      GetContentResponse page = this.client.searchContent(new SearchContentRequest.Builder()
+          .setCql(toQuery(cursor))
+          .setStartPosition(start)
+          .setLimit(this.pageSize)
+          .setExpandedProperties(this.expandedProperties)
+          .build());
+
+      List<Content> results = page.getResults();
+      for (Content content : results) {
+        Instant when = getLastModified(content);
+        Instant previousChange = recentChanges.get(content.getId());
+        if (previousChange != null && !when.isAfter(previousChange)) {
+          continue;
+        }
+
+        consumer.accept(content);
+        changedCount++;
+        recentChanges.put(content.getId(), when);
+        if (lastModified == null || when.isAfter(lastModified)) {
+          lastModified = when;
+        }
+      }
+
+      if (lastModified != null) {
+        // Queries start at the beginning of a minute, so changes are kept for a minute longer
+        Instant horizon = lastModified.minus(this.overlap).minus(Duration.ofMinutes(1));
+        recentChanges.values().removeIf(when -> when.isBefore(horizon));
+        new SyncCheckpoint(lastModified, recentChanges).write(this.checkpointFile);
+      }
+
+      if (!page.hasNextPage() || results.isEmpty()) {
+        return changedCount;
+      }
+
+      // Restart from the minute of the last result once it moves on, rather than skipping ahead
+      String lastResultDate = toCqlDate(getLastModified(results.get(results.size() - 1)));
+      if (lastResultDate.compareTo(cursor) > 0) {
+        cursor = lastResultDate;
+        start = 0;
+      } else {
+        start += results.size();
+      }
+    }
+  }
+
+  /**
+   * This method creates the CQL query for the content modified no earlier than the given date.
+   *
+   * @param cursor The earliest modification date, in the format used by CQL.
+   * @return The CQL query.
+   */
+  private String toQuery(String cursor) {
+    String condition = "lastmodified >= \"" + cursor + "\"";
+    if (this.filter != null) {
+      condition = "(" + this.filter + ") and " + condition;
+    }
+    return condition + " order by lastmodified asc";
+  }
+
+  private String toCqlDate(Instant instant) {
+    return CQL_DATE_FORMAT.format(instant.atZone(this.timeZone));
+  }
+
+  private static Instant getLastModified(Content content) {
+    if (content.getVersion() == null || content.getVersion().getWhen() == null) {
+      throw new ProcessingException("The version of content " + content.getId()
+          + " was not returned");
+    }
+
+    try {
+      return OffsetDateTime.parse(content.getVersion().getWhen()).toInstant();
+    } catch (DateTimeParseException e) {
+      throw new ProcessingException("The version of content " + content.getId()
+          + " has an invalid date", e);
+    }
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link IncrementalContentSync}.
+   */
+  public static class Builder {
+
+    private ConfluenceClient client;
+    private Path checkpointFile;
+    private String filter;
+    private ExpandedContentProperties expandedProperties =
+        new ExpandedContentProperties.Builder().build();
+    private int pageSize = 100;
+    private Duration overlap = Duration.ofMinutes(5);
+    private ZoneId timeZone = ZoneOffset.UTC;
+
+    /**
+     * This method sets the client that retrieves the changed content.
+     *
+     * @param client The client that retrieves the changed content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setClient(ConfluenceClient client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * This method sets the file that the checkpoint is stored in. If the file does not exist, the
+     * first sync retrieves all matching content.
+     *
+     * @param checkpointFile The file that the checkpoint is stored in.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setCheckpointFile(Path checkpointFile) {
+      this.checkpointFile = checkpointFile;
+      return this;
+    }
+
+    /**
+     * This method sets the CQL condition that limits which content is synced, such as {@code space
+     * = "SAMPLE" and type = page}. By default, all content that the user can see is synced.
+     *
+     * @param filter The CQL condition that changed content must match.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setFilter(String filter) {
+      this.filter = filter;
+      return this;
+    }
+
+    /**
+     * This method sets the properties to expand in the changed content. The version of the content
+     * is always expanded, as it records when the content was modified.
+     *
+     * @param expandedProperties The properties to expand in the changed content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExpandedProperties(ExpandedContentProperties expandedProperties) {
+      this.expandedProperties = expandedProperties;
+      return this;
+    }
+
+    /**
+     * This method sets the number of changes to request in each page. This defaults to 100.
+     *
+     * @param pageSize The number of changes in each page.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setPageSize(int pageSize) {
+      this.pageSize = pageSize;
+      return this;
+    }
+
+    /**
+     * This method sets how far before the checkpoint each sync reads back, to allow for changes
+     * that were added to the search index after later changes. This defaults to 5 minutes.
+     *
+     * @param overlap The amount of time before the checkpoint to read back over.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setOverlap(Duration overlap) {
+      this.overlap = overlap;
+      return this;
+    }
+
+    /**
+     * This method sets the time zone that the server interprets CQL dates in, which is the time
+     * zone of the user that the client is authenticated as. This defaults to UTC.
+     *
+     * @param timeZone The time zone of the dates in the CQL query.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setTimeZone(ZoneId timeZone) {
+      this.timeZone = timeZone;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link IncrementalContentSync} using the values that were
+     * set on this instance.
+     *
+     * @return A new instance of {@link IncrementalContentSync} with the values set on this
+     * instance.
+     * @throws IllegalStateException If the sync that would be created would be invalid.
+     */
+    public IncrementalContentSync build() throws IllegalStateException {
+      if (this.client == null) {
+        throw new IllegalStateException("You must specify the client to retrieve content with");
+      }
+
+      if (this.checkpointFile == null) {
+        throw new IllegalStateException("You must specify the file to store the checkpoint in");
+      }
+
+      if (this.expandedProperties == null) {
+        throw new IllegalStateException("You must specify the properties to expand");
+      }
+
+      if (this.pageSize <= 0) {
+        throw new IllegalStateException("The page size must be a positive number");
+      }
+
+      if (this.overlap == null || this.overlap.isNegative()) {
+        throw new IllegalStateException("The overlap must not be negative");
+      }
+
+      if (this.timeZone == null) {
+        throw new IllegalStateException("You must specify the time zone of the server");
+      }
+
+      return new IncrementalContentSync(this);
+    }
+  }
+}
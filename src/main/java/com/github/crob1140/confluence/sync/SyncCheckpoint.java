@@ -0,0 +1,111 @@
+package com.github.crob1140.confluence.sync;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.crob1140.confluence.io.AtomicFiles;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * <p>This class represents how far an {@link IncrementalContentSync} has progressed through the
+ * changes to content.</p>
+ *
+ * <p>The checkpoint records the time of the latest change that has been passed on, along with when
+ * each piece of content that changed shortly before then was last modified. The latter is used to
+ * recognise changes that have already been passed on when the next sync reads back over the
+ * preceding few minutes.</p>
+ */
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class SyncCheckpoint {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @JsonProperty
+  private String lastModified;
+  @JsonProperty
+  private Map<String, String> recentChanges;
+
+  @SuppressWarnings("unused")
+  private SyncCheckpoint() {
+    // Required for Jackson deserialization
+  }
+
+  /**
+   * This constructor creates a checkpoint with the given progress.
+   *
+   * @param lastModified The time of the latest change that has been passed on, or null if no
+   * changes have been passed on.
+   * @param recentChanges When each piece of content that changed shortly before the latest change
+   * was last modified, keyed by the ID of the content.
+   */
+  SyncCheckpoint(Instant lastModified, Map<String, Instant> recentChanges) {
+    this.lastModified = lastModified != null ? lastModified.toString() : null;
+    this.recentChanges = new HashMap<>();
+    recentChanges.forEach((id, when) -> this.recentChanges.put(id, when.toString()));
+  }
+
+  /**
+   * This method returns the time of the latest change that has been passed on.
+   *
+   * @return The time of the latest change, or an empty optional if no changes have been passed on.
+   */
+  @JsonIgnore
+  public Optional<Instant> getLastModified() {
+    return Optional.ofNullable(this.lastModified).map(Instant::parse);
+  }
+
+  /**
+   * This method returns when each piece of content that changed shortly before the latest change
+   * was last modified.
+   *
+   * @return The time of the last modification of each recently changed piece of content, keyed by
+   * the ID of the content.
+   */
+  Map<String, Instant> getRecentChanges() {
+    Map<String, Instant> changes = new HashMap<>();
+    if (this.recentChanges != null) {
+      this.recentChanges.forEach((id, when) -> changes.put(id, Instant.parse(when)));
+    }
+    return changes;
+  }
+
+  /**
+   * This method reads the checkpoint stored in the given file.
+   *
+   * @param file The file that the checkpoint is stored in.
+   * @return The stored checkpoint, or an empty checkpoint if the file does not exist.
+   * @throws IOException If the file could not be read.
+   */
+  public static SyncCheckpoint read(Path file) throws IOException {
+    try {
+      return MAPPER.readValue(Files.readAllBytes(file), SyncCheckpoint.class);
+    } catch (NoSuchFileException e) {
+      return new SyncCheckpoint(null, Collections.emptyMap());
+    }
+  }
+
+  /**
+   * This method stores this checkpoint in the given file, which always holds either the previous
+   * checkpoint or this one in full, even if the process is stopped part way.
+   *
+   * @param file The file to store the checkpoint in.
+   * @throws IOException If the file could not be written.
+   */
+  void write(Path file) throws IOException {
+    byte[] contents = MAPPER.writeValueAsBytes(this);
+    AtomicFiles.write(file, output -> output.write(contents));
+  }
+
+}
@@ -0,0 +1,257 @@
+package com.github.crob1140.confluence.sync;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.batch.ContentBatchResult;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.errors.UncheckedConfluenceRequestException;
+import com.github.crob1140.confluence.requests.GetContentRequest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * <p>This class brings a local copy of a listing of content up to date, while only retrieving the
+ * expanded properties of content that is new or has changed.</p>
+ *
+ * <p>Each sync runs in two phases. The first phase lists the content with only its version
+ * expanded, and compares each version with the version that was last recorded locally. The second
+ * phase retrieves the new and changed content by ID, with the full set of expanded properties
+ * such as the body, in batches that are requested while the listing continues. As unchanged
+ * content is never retrieved with its expanded properties, re-listing a large space that has
+ * barely changed transfers little more than the ID and version of each piece of content.</p>
+ *
+ * <p>Content that changes between the two phases is retrieved in its latest state, and the version
+ * that is recorded is the version that was retrieved.</p>
+ */
+public class TwoPhaseContentSync {
+
+  private final ConfluenceClient client;
+  private final GetContentRequest listingRequest;
+  private final ExpandedContentProperties expandedProperties;
+  private final int batchSize;
+  private final int parallelism;
+
+  private TwoPhaseContentSync(Builder builder) {
+    this.client = builder.client;
+    this.listingRequest = new GetContentRequest.Builder(builder.request)
+        .setExpandedProperties(new ExpandedContentProperties.Builder().addVersion().build())
+        .build();
+    this.expandedProperties = new ExpandedContentProperties.Builder(builder.expandedProperties)
+        .addVersion()
+        .build();
+    this.batchSize = builder.batchSize;
+    this.parallelism = builder.parallelism;
+  }
+
+  /**
+   * This method lists the content, retrieves each piece of content whose version differs from its
+   * local version, and passes it to the given consumer. If the sync fails, including because the
+   * consumer throws an exception, any batches that are still being retrieved are cancelled.
+   *
+   * @param localVersions The version of each piece of content that was last synced, keyed by the
+   * ID of the content. The version of each piece of content is recorded in this map once it has
+   * been passed to the consumer, so the same map can be given to the next sync.
+   * @param consumer The consumer to pass each new or changed piece of content to. The consumer is
+   * always called from the thread that called this method.
+   * @return The number of listed and changed pieces of content, and the IDs of any content that
+   * was not listed.
+   * @throws ConfluenceRequestException If an error response is returned from the server.
+   */
+  public TwoPhaseSyncResult sync(Map<String, Integer> localVersions,
+      Consumer<? super Content> consumer) throws ConfluenceRequestException {
+    Set<String> removedIds = new HashSet<>(localVersions.keySet());
+    Deque<CompletableFuture<ContentBatchResult>> pendingBatches = new ArrayDeque<>();
+    List<String> changedIds = new ArrayList<>();
+    long listedCount = 0;
+    long changedCount = 0;
+
+    // Batches that are still being retrieved when the sync fails are not needed
+    try {
+      try (Stream<Content> listing = this.client.streamContent(this.listingRequest)) {
+        Iterator<Content> iterator = listing.iterator();
+        while (iterator.hasNext()) {
+          Content content = iterator.next();
+          listedCount++;
+          removedIds.remove(content.getId());
+
+          Integer localVersion = localVersions.get(content.getId());
+          if (localVersion != null && content.getVersion() != null
+              && localVersion.equals(content.getVersion().getNumber())) {
+            continue;
+          }
+
+          changedIds.add(content.getId());
+          if (changedIds.size() >= this.batchSize) {
+            if (pendingBatches.size() >= this.parallelism) {
+              changedCount += consume(pendingBatches.poll(), localVersions, consumer);
+            }
+            pendingBatches.add(this.client.getContentByIdsAsync(changedIds,
+                this.expandedProperties));
+            changedIds = new ArrayList<>();
+          }
+        }
+      } catch (UncheckedConfluenceRequestException e) {
+        throw e.getCause();
+      }
+
+      if (!changedIds.isEmpty()) {
+        pendingBatches.add(this.client.getContentByIdsAsync(changedIds, this.expandedProperties));
+      }
+      while (!pendingBatches.isEmpty()) {
+        changedCount += consume(pendingBatches.poll(), localVersions, consumer);
+      }
+    } finally {
+      pendingBatches.forEach(batch -> batch.cancel(false));
+    }
+
+    return new TwoPhaseSyncResult(listedCount, changedCount, removedIds);
+  }
+
+  /**
+   * This method waits for the given batch to be retrieved, and passes each piece of content in it
+   * to the given consumer.
+   *
+   * @param pendingBatch The batch to consume.
+   * @param localVersions The map to record the version of each consumed piece of content in.
+   * @param consumer The consumer to pass each piece of content to.
+   * @return The number of pieces of content that were consumed.
+   * @throws ConfluenceRequestException If an error response was returned for the batch.
+   */
+  private static long consume(CompletableFuture<ContentBatchResult> pendingBatch,
+      Map<String, Integer> localVersions, Consumer<? super Content> consumer)
+      throws ConfluenceRequestException {
+    ContentBatchResult batch;
+    try {
+      batch = pendingBatch.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ConfluenceRequestException) {
+        throw (ConfluenceRequestException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+
+    // Content that was deleted after it was listed is missing from the batch, and is skipped
+    for (Content content : batch.getContent().values()) {
+      consumer.accept(content);
+      if (content.getVersion() != null && content.getVersion().getNumber() != null) {
+        localVersions.put(content.getId(), content.getVersion().getNumber());
+      }
+    }
+    return batch.getContent().size();
+  }
+
+  /**
+   * This class can be used to construct an instance of {@link TwoPhaseContentSync}.
+   */
+  public static class Builder {
+
+    private ConfluenceClient client;
+    private GetContentRequest request;
+    private ExpandedContentProperties expandedProperties =
+        new ExpandedContentProperties.Builder().build();
+    private int batchSize = 100;
+    private int parallelism = 4;
+
+    /**
+     * This method sets the client that lists and retrieves the content.
+     *
+     * @param client The client that lists and retrieves the content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setClient(ConfluenceClient client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * This method sets the request that lists the content to sync, such as the pages of a space.
+     * Any properties that the request expands are replaced with the version of the content.
+     *
+     * @param request The request that lists the content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setRequest(GetContentRequest request) {
+      this.request = request;
+      return this;
+    }
+
+    /**
+     * This method sets the properties to expand in the new and changed content, such as its body.
+     * The version of the content is always expanded.
+     *
+     * @param expandedProperties The properties to expand in the changed content.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setExpandedProperties(ExpandedContentProperties expandedProperties) {
+      this.expandedProperties = expandedProperties;
+      return this;
+    }
+
+    /**
+     * This method sets the number of changed pieces of content to retrieve in each batch. This
+     * defaults to 100.
+     *
+     * @param batchSize The number of pieces of content in each batch.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * This method sets the maximum number of batches to retrieve at once. This defaults to 4.
+     *
+     * @param parallelism The maximum number of batches in progress at once.
+     * @return This instance, for the purposes of method chaining.
+     */
+    public Builder setParallelism(int parallelism) {
+      this.parallelism = parallelism;
+      return this;
+    }
+
+    /**
+     * This method creates an instance of {@link TwoPhaseContentSync} using the values that were
+     * set on this instance.
+     *
+     * @return A new instance of {@link TwoPhaseContentSync} with the values set on this instance.
+     * @throws IllegalStateException If the sync that would be created would be invalid.
+     */
+    public TwoPhaseContentSync build() throws IllegalStateException {
+      if (this.client == null) {
+        throw new IllegalStateException("You must specify the client to retrieve content with");
+      }
+
+      if (this.request == null) {
+        throw new IllegalStateException("You must specify the request to list content with");
+      }
+
+      if (this.expandedProperties == null) {
+        throw new IllegalStateException("You must specify the properties to expand");
+      }
+
+      if (this.batchSize <= 0) {
+        throw new IllegalStateException("The batch size must be a positive number");
+      }
+
+      if (this.parallelism <= 0) {
+        throw new IllegalStateException("The parallelism must be a positive number");
+      }
+
+      return new TwoPhaseContentSync(this);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package com.github.crob1140.confluence.sync;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * This class represents the outcome of a single run of a {@link TwoPhaseContentSync}.
+ */
+public class TwoPhaseSyncResult {
+
+  private final long listedCount;
+  private final long changedCount;
+  private final Set<String> removedIds;
+
+  /**
+   * This constructor creates a result with the given counts.
+   *
+   * @param listedCount The number of pieces of content that were listed.
+   * @param changedCount The number of new or changed pieces of content that were retrieved.
+   * @param removedIds The IDs in the local versions that were not listed.
+   */
+  TwoPhaseSyncResult(long listedCount, long changedCount, Set<String> removedIds) {
+    this.listedCount = listedCount;
+    this.changedCount = changedCount;
+    this.removedIds = Collections.unmodifiableSet(removedIds);
+  }
+
+  /**
+   * This method returns the number of pieces of content that were listed in the first phase.
+   *
+   * @return The number of listed pieces of content.
+   */
+  public long getListedCount() {
+    return this.listedCount;
+  }
+
+  /**
+   * This method returns the number of new or changed pieces of content that were retrieved in the
+   * second phase and passed to the consumer.
+   *
+   * @return The number of changed pieces of content.
+   */
+  public long getChangedCount() {
+    return this.changedCount;
+  }
+
+  /**
+   * This method returns the IDs that had a local version but were not listed, which is content
+   * that has been deleted, or has moved out of the listing, since the local versions were
+   * recorded.
+   *
+   * @return The IDs of the content that was not listed.
+   */
+  public Set<String> getRemovedIds() {
+    return this.removedIds;
+  }
+}
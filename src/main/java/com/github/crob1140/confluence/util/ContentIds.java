@@ -0,0 +1,29 @@
+package com.github.crob1140.confluence.util;
+
+/**
+ * <p>This class validates the IDs of content before they are sent to the Confluence Cloud
+ * server.</p>
+ *
+ * <p>This class is used by the other packages of this library, and is not intended to be used
+ * directly.</p>
+ */
+public final class ContentIds {
+
+  private ContentIds() {
+    // Static utility class
+  }
+
+  /**
+   * This method checks that the given content ID is numeric, as every content ID that is assigned
+   * by the server is. IDs that are placed in a CQL query must be checked, so that they cannot alter
+   * the meaning of the query.
+   *
+   * @param id The ID of the content.
+   * @throws IllegalArgumentException If the ID is not numeric.
+   */
+  public static void validate(String id) throws IllegalArgumentException {
+    if (id == null || id.isEmpty() || !id.chars().allMatch(c -> c >= '0' && c <= '9')) {
+      throw new IllegalArgumentException("The content ID '" + id + "' is not numeric");
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.github.crob1140.confluence.util;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * <p>This class contains helpers for the futures that are returned by the asynchronous operations
+ * of this library.</p>
+ *
+ * <p>This class is used by the other packages of this library, and is not intended to be used
+ * directly.</p>
+ */
+public final class Futures {
+
+  private Futures() {
+    // Static utility class
+  }
+
+  /**
+   * <p>This method creates a copy of the given future, which completes in the same way as the
+   * given future once it completes.</p>
+   *
+   * <p>A future that is shared between several callers, or that the library completes itself,
+   * should only ever be returned to a caller as a copy. Completing or cancelling the copy does not
+   * affect the given future, so one caller cannot complete the future for the others, or for the
+   * library.</p>
+   *
+   * @param future The future to copy.
+   * @param <T> The type of the result of the future.
+   * @return A new future that completes with the same result or exception as the given future.
+   */
+  public static <T> CompletableFuture<T> copy(CompletableFuture<T> future) {
+    CompletableFuture<T> copy = new CompletableFuture<>();
+    future.whenComplete((result, error) -> {
+      if (error != null) {
+        copy.completeExceptionally(error);
+      } else {
+        copy.complete(result);
+      }
+    });
+    return copy;
+  }
+}
@@ -1,22 +1,74 @@
 package com.github.crob1140.confluence;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.findAll;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.crob1140.confluence.batch.BulkCreateItem;
+import com.github.crob1140.confluence.batch.BulkCreateResult;
+import com.github.crob1140.confluence.batch.ContentBatchResult;
+import com.github.crob1140.confluence.cache.ContentCache;
+import com.github.crob1140.confluence.cache.ValidatorCache;
+import com.github.crob1140.confluence.cache.VersionRegistry;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.StandardContentType;
+import com.github.crob1140.confluence.content.Version;
+import com.github.crob1140.confluence.content.expand.ExpandedBodyFormatProperties;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
 import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.limiter.AdaptiveConcurrencyLimiter;
+import com.github.crob1140.confluence.metrics.HistogramRequestListener;
+import com.github.crob1140.confluence.metrics.RequestMetrics;
+import com.github.crob1140.confluence.requests.CreateContentRequest;
+import com.github.crob1140.confluence.requests.GetContentByIdRequest;
+import com.github.crob1140.confluence.requests.GetContentRequest;
+import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import com.github.crob1140.confluence.retry.ConflictStrategy;
+import com.github.crob1140.confluence.retry.RetryPolicy;
 import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.ContextResolver;
 import org.junit.Assert;
 import org.junit.ClassRule;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * This class performs tests against the methods of {@link ConfluenceClient}.
@@ -31,6 +83,9 @@ public class TestConfluenceClient {
   @Rule
   public WireMockClassRule instanceRule = wireMockRule;
 
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
   private ConfluenceClient client;
 
   public TestConfluenceClient() {
@@ -119,4 +174,939 @@ public class TestConfluenceClient {
       Assert.assertEquals(404, ((ConfluenceRequestException) e).getStatusCode().longValue());
     }
   }
+
+  /**
+   * This test asserts that the client is able to asynchronously perform a {@link
+   * com.github.crob1140.confluence.requests.ConfluenceRequest} and de-serialize the response object
+   * when the server returns a HTTP status code indicating success.
+   */
+  @Test
+  public void testAsyncSuccess() throws Exception {
+    stubFor(get(urlEqualTo("/test/path"))
+        .withHeader("Accept", equalTo(MediaType.APPLICATION_JSON))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{" +
+                " \"name\": \"test\"," +
+                " \"value\": \"TEST\"" +
+                "}")));
+
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.GET, "/test/path",
+        TestConfluenceResponse.class);
+    TestConfluenceResponse expectedResponse = new TestConfluenceResponse("test", "TEST");
+    Object actualResponse = client.performRequestAsync(request).get();
+
+    Assert.assertEquals(expectedResponse, actualResponse);
+  }
+
+  /**
+   * This test asserts that the future returned for an asynchronous request completes exceptionally
+   * with a {@link ConfluenceRequestException} if the HTTP status code indicates failure.
+   */
+  @Test
+  public void testAsyncJSONError() throws InterruptedException {
+    stubFor(post(urlEqualTo("/test/path"))
+        .withHeader("Accept", equalTo(MediaType.APPLICATION_JSON))
+        .willReturn(aResponse()
+            .withStatus(400)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{" +
+                " \"statusCode\" : 400," +
+                " \"message\": \"Illegal argument\"" +
+                "}")));
+
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.POST, "/test/path",
+        String.class);
+    try {
+      client.performRequestAsync(request).get();
+      Assert.fail("Should have thrown ExecutionException but didn't");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof ConfluenceRequestException);
+      Assert.assertEquals("Illegal argument", e.getCause().getMessage());
+      Assert.assertEquals(400,
+          ((ConfluenceRequestException) e.getCause()).getStatusCode().longValue());
+    }
+  }
+
+  /**
+   * This test asserts that asynchronous requests report every failure through the returned future,
+   * whether the request could not be sent at all or an error was thrown while reading its
+   * response, rather than throwing it or leaving the future incomplete.
+   */
+  @Test
+  public void testAsyncFailuresCompleteFuture() throws Exception {
+    ConfluenceClient closedClient = new ConfluenceClient.Builder()
+        .setWikiUrl("http://localhost:" + WIRE_MOCK_PORT)
+        .build();
+    closedClient.close();
+    try {
+      closedClient.createContentAsync(createPageRequest("Closed")).get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have thrown ExecutionException but didn't");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    stubFor(get(urlEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 1}}")));
+    ConfluenceClient failingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .addContentObserver(content -> {
+          throw new AssertionError("Observer failed");
+        })
+        .build();
+    try {
+      failingClient.getContentByIdAsync(new GetContentByIdRequest.Builder().setId("123").build())
+          .get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have thrown ExecutionException but didn't");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof AssertionError);
+    }
+  }
+
+  /**
+   * This test asserts that an exception thrown by a content observer does not fail the request
+   * that returned the content.
+   */
+  @Test
+  public void testFailingObserverIgnored() throws ConfluenceRequestException {
+    stubFor(get(urlEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 1}}")));
+    ConfluenceClient observedClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .addContentObserver(content -> {
+          throw new IllegalStateException("Disk full");
+        })
+        .build();
+
+    Assert.assertEquals("123", observedClient.getContentById(
+        new GetContentByIdRequest.Builder().setId("123").build()).getId());
+  }
+
+  /**
+   * This test asserts that streaming the results of a {@link GetContentRequest} requests each page
+   * of results in turn, until the server indicates that there are no more pages.
+   */
+  @Test
+  public void testStreamContent() {
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .withQueryParam("limit", equalTo("2"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{" +
+                " \"results\": [{\"id\": \"1\"}, {\"id\": \"2\"}]," +
+                " \"start\": 0, \"limit\": 2, \"size\": 2," +
+                " \"_links\": {\"next\": \"/rest/api/content?limit=2&start=2\"}" +
+                "}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .withQueryParam("limit", equalTo("2"))
+        .withQueryParam("start", equalTo("2"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{" +
+                " \"results\": [{\"id\": \"3\"}]," +
+                " \"start\": 2, \"limit\": 2, \"size\": 1," +
+                " \"_links\": {}" +
+                "}")));
+
+    List<String> ids = client.streamContent(new GetContentRequest.Builder().setLimit(2).build())
+        .map(Content::getId)
+        .collect(Collectors.toList());
+
+    Assert.assertEquals(Arrays.asList("1", "2", "3"), ids);
+  }
+
+  /**
+   * This test asserts that streaming the results of a {@link GetContentRequest} with several pages
+   * requested concurrently returns every result in page order, and ignores any pages that were
+   * requested past the end of the results.
+   */
+  @Test
+  public void testStreamContentInParallel() {
+    stubContentPages();
+
+    List<String> ids = client.streamContent(new GetContentRequest.Builder().setLimit(2).build(), 3)
+        .map(Content::getId)
+        .collect(Collectors.toList());
+
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5"), ids);
+  }
+
+  /**
+   * This test asserts that streaming the results of a {@link GetContentRequest} with several pages
+   * requested concurrently, without preserving the page order, returns every result exactly once.
+   */
+  @Test
+  public void testStreamContentUnordered() {
+    stubContentPages();
+
+    List<String> ids = client.streamContentUnordered(
+        new GetContentRequest.Builder().setLimit(2).build(), 3)
+        .map(Content::getId)
+        .sorted()
+        .collect(Collectors.toList());
+
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5"), ids);
+  }
+
+  /**
+   * This test asserts that content retrieved by ID is read from the cache of the client once it has
+   * been retrieved from the server.
+   */
+  @Test
+  public void testGetContentByIdCached() throws ConfluenceRequestException {
+    stubFor(get(urlEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 1}}")));
+
+    ContentCache cache = new ContentCache.Builder().build();
+    ConfluenceClient cachingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setContentCache(cache)
+        .build();
+    GetContentByIdRequest request = new GetContentByIdRequest.Builder().setId("123").build();
+
+    Content firstContent = cachingClient.getContentById(request);
+    Content secondContent = cachingClient.getContentById(request);
+
+    Assert.assertSame(firstContent, secondContent);
+    Assert.assertEquals(1, cache.getHitCount());
+    verify(1, getRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that content loaded into the cache from a snapshot is only returned once its
+   * version has been revalidated, and that it is requested in full when it is out of date.
+   */
+  @Test
+  public void testGetContentByIdFromSnapshot() throws Exception {
+    ContentCache previousCache = new ContentCache.Builder().build();
+    previousCache.put(new Content.Builder()
+        .setId("123").setTitle("Cached").setVersion(new Version(2)).build(), null);
+    previousCache.put(new Content.Builder()
+        .setId("456").setTitle("Cached").setVersion(new Version(1)).build(), null);
+    Path snapshotFile = this.folder.getRoot().toPath().resolve("cache.snapshot");
+    previousCache.saveSnapshot(snapshotFile);
+
+    stubFor(get(urlEqualTo("/rest/api/content/123?expand=version"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 2}}")));
+    stubFor(get(urlEqualTo("/rest/api/content/456?expand=version"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"456\", \"version\": {\"number\": 3}}")));
+    stubFor(get(urlEqualTo("/rest/api/content/456"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"456\", \"title\": \"Updated\","
+                + " \"version\": {\"number\": 3}}")));
+
+    ContentCache cache = new ContentCache.Builder().build();
+    Assert.assertEquals(2, cache.loadSnapshot(snapshotFile));
+    ConfluenceClient cachingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setContentCache(cache)
+        .build();
+
+    GetContentByIdRequest request = new GetContentByIdRequest.Builder().setId("123").build();
+    Assert.assertEquals("Cached", cachingClient.getContentById(request).getTitle());
+    Assert.assertEquals("Cached", cachingClient.getContentByIdAsync(request).get().getTitle());
+    Assert.assertEquals("Updated", cachingClient.getContentByIdAsync(
+        new GetContentByIdRequest.Builder().setId("456").build()).get().getTitle());
+
+    verify(1, getRequestedFor(urlEqualTo("/rest/api/content/123?expand=version")));
+    verify(0, getRequestedFor(urlEqualTo("/rest/api/content/123")));
+    verify(1, getRequestedFor(urlEqualTo("/rest/api/content/456")));
+  }
+
+  /**
+   * This test asserts that content is retrieved by its IDs with a single search query, that any
+   * pages of results that the server splits the query into are followed, and that the IDs of any
+   * content that was not returned are reported as missing.
+   */
+  @Test
+  public void testGetContentByIds() throws ConfluenceRequestException {
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (3,2,1)"))
+        .withQueryParam("limit", equalTo("3"))
+        .withQueryParam("start", absent())
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [{\"id\": \"1\"}], \"start\": 0, \"limit\": 1," +
+                " \"size\": 1, \"_links\": {\"next\": \"/rest/api/content/search?start=1\"}}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (3,2,1)"))
+        .withQueryParam("start", equalTo("1"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [{\"id\": \"3\"}], \"start\": 1, \"limit\": 1," +
+                " \"size\": 1, \"_links\": {}}")));
+
+    ContentBatchResult result = client.getContentByIds(Arrays.asList("3", "2", "1", "3"), null);
+
+    Assert.assertEquals(Arrays.asList("3", "1"), new ArrayList<>(result.getContent().keySet()));
+    Assert.assertEquals(Collections.singleton("2"), result.getMissingIds());
+    verify(2, getRequestedFor(urlPathEqualTo("/rest/api/content/search")));
+  }
+
+  /**
+   * This test asserts that retrieving content by its IDs stops at a page without any results, even
+   * if the page reports a size and links to a next page, since the next page would start at the
+   * same position.
+   */
+  @Test(timeout = 30000)
+  public void testGetContentByIdsEmptyPage() throws ConfluenceRequestException {
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (1,2)"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [], \"start\": 0, \"limit\": 2, \"size\": 2," +
+                " \"_links\": {\"next\": \"/rest/api/content/search?start=0\"}}")));
+
+    ContentBatchResult result = client.getContentByIds(Arrays.asList("1", "2"), null);
+
+    Assert.assertTrue(result.getContent().isEmpty());
+    Assert.assertEquals(new LinkedHashSet<>(Arrays.asList("1", "2")), result.getMissingIds());
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/search")));
+  }
+
+  /**
+   * This test asserts that bulk creation creates each parent before its children, under the
+   * content that was created for the parent, and that a failure only affects the failed item and
+   * the items that depend on it.
+   */
+  @Test
+  public void testCreateContentInBulk() {
+    stubCreateContent("Parent", 201, "{\"id\": \"10\"}");
+    stubCreateContent("Child", 201, "{\"id\": \"11\"}");
+    stubCreateContent("Broken", 400, "{\"statusCode\": 400, \"message\": \"Invalid\"}");
+
+    List<BulkCreateResult> results = client.createContentInBulk(Stream.of(
+        new BulkCreateItem("child", "parent", createPageRequest("Child")),
+        new BulkCreateItem("parent", createPageRequest("Parent")),
+        new BulkCreateItem("broken", createPageRequest("Broken")),
+        new BulkCreateItem(null, "broken", createPageRequest("Grandchild")),
+        new BulkCreateItem(null, "unknown", createPageRequest("Orphan"))), 2);
+
+    Assert.assertEquals("11", results.get(0).getContent().map(Content::getId).orElse(null));
+    Assert.assertEquals("10", results.get(1).getContent().map(Content::getId).orElse(null));
+    Assert.assertTrue(results.get(2).getError().orElse(null) instanceof ConfluenceRequestException);
+    Assert.assertTrue(results.get(3).getError().orElse(null) instanceof IllegalStateException);
+    Assert.assertTrue(results.get(4).getError().orElse(null) instanceof IllegalStateException);
+    verify(postRequestedFor(urlEqualTo("/rest/api/content"))
+        .withRequestBody(matchingJsonPath("$.ancestors[0].id", equalTo("10"))));
+    verify(3, postRequestedFor(urlEqualTo("/rest/api/content")));
+  }
+
+  /**
+   * This test asserts that a bulk creation completes when a long run of items fail without being
+   * sent, rather than nesting deeper for each failure until the stack overflows.
+   */
+  @Test
+  public void testCreateContentInBulkFailingImmediately() throws Exception {
+    ConfluenceClient closedClient = new ConfluenceClient.Builder()
+        .setWikiUrl("http://localhost:" + WIRE_MOCK_PORT)
+        .build();
+    closedClient.close();
+
+    List<BulkCreateResult> results = closedClient.createContentInBulkAsync(
+        Stream.generate(() -> new BulkCreateItem(createPageRequest("Closed"))).limit(20000),
+        1).get(30, TimeUnit.SECONDS);
+
+    Assert.assertEquals(20000, results.size());
+    Assert.assertTrue(results.stream().allMatch(
+        result -> result.getError().orElse(null) instanceof IllegalStateException));
+  }
+
+  /**
+   * This test asserts that an update to the next version uses the version recorded from content
+   * that was previously returned, and that a conflicting update is retried once with the latest
+   * version of the content.
+   */
+  @Test
+  public void testUpdateNextVersion() throws ConfluenceRequestException {
+    stubFor(get(urlPathEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 5}}")));
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .withRequestBody(matchingJsonPath("$.version.number", equalTo("4")))
+        .willReturn(aResponse()
+            .withStatus(409)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"statusCode\": 409, \"message\": \"Version conflict\"}")));
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .withRequestBody(matchingJsonPath("$.version.number", equalTo("6")))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 6}}")));
+
+    VersionRegistry registry = new VersionRegistry.Builder().build();
+    registry.onContentReceived(new Content.Builder()
+        .setId("123")
+        .setVersion(new Version(3))
+        .build());
+    ConfluenceClient versioningClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setVersionRegistry(registry)
+        .build();
+
+    Content updatedContent = versioningClient.updateContent(new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setNextVersion()
+        .build());
+
+    Assert.assertEquals(Integer.valueOf(6), updatedContent.getVersion().getNumber());
+    Assert.assertEquals(Optional.of(6), registry.getVersion("123"));
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/123"))
+        .withQueryParam("expand", equalTo("version")));
+    verify(2, putRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that an asynchronous update to the next version requests the latest version
+   * of the content when it is not already known.
+   */
+  @Test
+  public void testUpdateNextVersionAsync() throws Exception {
+    stubFor(get(urlPathEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 5}}")));
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .withRequestBody(matchingJsonPath("$.version.number", equalTo("6")))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 6}}")));
+
+    Content updatedContent = client.updateContentAsync(new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setNextVersion()
+        .build()).get();
+
+    Assert.assertEquals(Integer.valueOf(6), updatedContent.getVersion().getNumber());
+    verify(1, putRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that an update that conflicts with a newer version is merged with the latest
+   * state of the content and sent again with the following version.
+   */
+  @Test
+  public void testUpdateWithConflictStrategy() throws ConfluenceRequestException {
+    stubFor(get(urlPathEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"title\": \"Renamed\", "
+                + "\"version\": {\"number\": 5}}")));
+    stubConflictingUpdate();
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .withRequestBody(matchingJsonPath("$.version.number", equalTo("6")))
+        .withRequestBody(matchingJsonPath("$.title", equalTo("Renamed (reviewed)")))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 6}}")));
+
+    ConflictStrategy strategy = new ConflictStrategy.Builder()
+        .setExpandedProperties(new ExpandedContentProperties.Builder().addBody(
+            ContentBodyType.STORAGE, new ExpandedBodyFormatProperties.Builder().addValue().build())
+            .build())
+        .setMergeFunction((latestContent, request) -> new UpdateContentRequest.Builder()
+            .setId(latestContent.getId())
+            .setType(StandardContentType.PAGE)
+            .setTitle(latestContent.getTitle() + " (reviewed)")
+            .setNextVersion()
+            .build())
+        .build();
+    Content updatedContent = client.updateContent(new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setTitle("Original (reviewed)")
+        .setVersion(4)
+        .build(), strategy);
+
+    Assert.assertEquals(Integer.valueOf(6), updatedContent.getVersion().getNumber());
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/123"))
+        .withQueryParam("expand", containing("body.storage.value")));
+    verify(2, putRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that the conflict is reported without sending the update again when the
+   * merge function gives up.
+   */
+  @Test
+  public void testUpdateWithConflictStrategyGivesUp() throws InterruptedException {
+    stubFor(get(urlPathEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 5}}")));
+    stubConflictingUpdate();
+
+    ConflictStrategy strategy = new ConflictStrategy.Builder()
+        .setMergeFunction((latestContent, request) -> null)
+        .build();
+    try {
+      client.updateContentAsync(new UpdateContentRequest.Builder()
+          .setId("123")
+          .setType(StandardContentType.PAGE)
+          .setVersion(4)
+          .build(), strategy).get();
+      Assert.fail("Expected the conflict to be reported");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof ConfluenceRequestException);
+      Assert.assertEquals(Integer.valueOf(409),
+          ((ConfluenceRequestException) e.getCause()).getStatusCode());
+    }
+
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/123")));
+    verify(1, putRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that updates to the same content are sent one at a time when writes are
+   * serialized per content.
+   */
+  @Test
+  public void testSerializeWritesPerContent() throws Exception {
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withFixedDelay(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\"}")));
+
+    ConfluenceClient serialClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setSerializeWritesPerContent(true)
+        .build();
+    UpdateContentRequest request = new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setVersion(2)
+        .build();
+
+    long startTime = System.nanoTime();
+    CompletableFuture<Content> first = serialClient.updateContentAsync(request);
+    CompletableFuture<Content> second = serialClient.updateContentAsync(request);
+    CompletableFuture.allOf(first, second).get();
+
+    Assert.assertTrue(Duration.ofNanos(System.nanoTime() - startTime).toMillis() >= 400);
+    verify(2, putRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that a GET request is made conditional on the validators of a previous
+   * response to the same request, and that the previous response is reused if the server responds
+   * that it has not been modified.
+   */
+  @Test
+  public void testConditionalRequest() throws ConfluenceRequestException {
+    stubFor(get(urlEqualTo("/test/path"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withHeader("ETag", "\"v1\"")
+            .withBody("{\"name\": \"test\", \"value\": \"TEST\"}")));
+    stubFor(get(urlEqualTo("/test/path"))
+        .withHeader("If-None-Match", equalTo("\"v1\""))
+        .willReturn(aResponse().withStatus(304)));
+
+    ValidatorCache validatorCache = new ValidatorCache(10);
+    ConfluenceClient revalidatingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setValidatorCache(validatorCache)
+        .build();
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.GET, "/test/path",
+        TestConfluenceResponse.class);
+
+    Object firstResponse = revalidatingClient.performRequest(request);
+    Object secondResponse = revalidatingClient.performRequest(request);
+
+    Assert.assertEquals(new TestConfluenceResponse("test", "TEST"), firstResponse);
+    Assert.assertSame(firstResponse, secondResponse);
+    Assert.assertEquals(1, validatorCache.getRevalidationCount());
+  }
+
+  /**
+   * This test asserts that content requests whose results are streamed are not made conditional
+   * on a previously cached response, as there would be no results to pass on if the server
+   * responded that it had not been modified.
+   */
+  @Test
+  public void testStreamedRequestNotConditional() throws ConfluenceRequestException {
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withHeader("ETag", "\"v1\"")
+            .withBody("{\"results\": [{\"id\": \"1\"}], \"start\": 0, \"_links\": {}}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .withHeader("If-None-Match", equalTo("\"v1\""))
+        .willReturn(aResponse().withStatus(304)));
+
+    ConfluenceClient revalidatingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setValidatorCache(new ValidatorCache(10))
+        .build();
+    GetContentRequest request = new GetContentRequest.Builder().setSpaceKey("SAMPLE").build();
+
+    Assert.assertEquals(1, revalidatingClient.getContent(request).size());
+    List<Content> streamedResults = new ArrayList<>();
+    revalidatingClient.getContent(request, streamedResults::add);
+
+    Assert.assertEquals("1", streamedResults.get(0).getId());
+    verify(0, getRequestedFor(urlPathEqualTo("/rest/api/content"))
+        .withHeader("If-None-Match", equalTo("\"v1\"")));
+  }
+
+  /**
+   * This test asserts that a request that receives a retryable error response is retried, both
+   * synchronously and asynchronously, and returns the response to the successful attempt.
+   */
+  @Test
+  public void testRetry() throws Exception {
+    ConfluenceClient retryingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setRetryPolicy(new RetryPolicy.Builder()
+            .setBaseDelay(Duration.ofMillis(10))
+            .setMaxDelay(Duration.ofSeconds(2))
+            .build())
+        .build();
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.GET, "/test/path",
+        TestConfluenceResponse.class);
+
+    stubUnavailableOnce("sync");
+    Assert.assertEquals(new TestConfluenceResponse("test", "TEST"),
+        retryingClient.performRequest(request));
+    verify(2, getRequestedFor(urlEqualTo("/test/path")));
+
+    stubUnavailableOnce("async");
+    Assert.assertEquals(new TestConfluenceResponse("test", "TEST"),
+        retryingClient.performRequestAsync(request).get());
+
+    verify(2, getRequestedFor(urlEqualTo("/test/path")));
+    retryingClient.close();
+  }
+
+  /**
+   * This test asserts that a client with a concurrency limiter releases its permits once responses
+   * are received, and decreases the limit when the server rejects a request.
+   */
+  @Test
+  public void testConcurrencyLimiter() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter.Builder()
+        .setInitialLimit(8)
+        .build();
+    ConfluenceClient limitedClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setConcurrencyLimiter(limiter)
+        .build();
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.GET, "/test/path",
+        TestConfluenceResponse.class);
+
+    stubFor(get(urlEqualTo("/test/path"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"name\": \"test\", \"value\": \"TEST\"}")));
+    limitedClient.performRequest(request);
+    limitedClient.performRequestAsync(request).get();
+    Assert.assertEquals(0, limiter.getInFlight());
+    Assert.assertEquals(8, limiter.getLimit());
+
+    stubFor(get(urlEqualTo("/test/path"))
+        .willReturn(aResponse().withStatus(429)));
+    try {
+      limitedClient.performRequest(request);
+      Assert.fail("Expected the rejected request to throw an exception");
+    } catch (ConfluenceRequestException e) {
+      Assert.assertEquals(0, limiter.getInFlight());
+      Assert.assertEquals(4, limiter.getLimit());
+    }
+    limitedClient.close();
+  }
+
+  /**
+   * This test asserts that identical GET requests made while one of them is in progress share the
+   * result of a single request to the server, whether it succeeds or fails.
+   */
+  @Test
+  public void testRequestCoalescing() throws Exception {
+    ConfluenceClient coalescingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setRequestCoalescing(true)
+        .build();
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.GET, "/test/path",
+        TestConfluenceResponse.class);
+
+    stubFor(get(urlEqualTo("/test/path"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withFixedDelay(500)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"name\": \"test\", \"value\": \"TEST\"}")));
+    List<CompletableFuture<Object>> results = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      results.add(coalescingClient.performRequestAsync(request));
+    }
+    for (CompletableFuture<Object> result : results) {
+      Assert.assertSame(results.get(0).get(), result.get());
+    }
+    verify(1, getRequestedFor(urlEqualTo("/test/path")));
+
+    stubFor(get(urlEqualTo("/test/path"))
+        .willReturn(aResponse()
+            .withStatus(404)
+            .withFixedDelay(500)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"statusCode\": 404, \"message\": \"Not found\"}")));
+    CompletableFuture<Object> failedResult = coalescingClient.performRequestAsync(request);
+    try {
+      coalescingClient.performRequest(request);
+      Assert.fail("Expected the coalesced request to throw an exception");
+    } catch (ConfluenceRequestException e) {
+      try {
+        failedResult.get();
+        Assert.fail("Expected the coalesced request to complete exceptionally");
+      } catch (ExecutionException executionException) {
+        Assert.assertSame(e, executionException.getCause());
+      }
+    }
+    verify(2, getRequestedFor(urlEqualTo("/test/path")));
+    coalescingClient.close();
+  }
+
+  /**
+   * This test asserts that the request listeners of a client are notified of each request with the
+   * endpoint, status code and sizes of the request and response.
+   */
+  @Test
+  public void testRequestListener() throws Exception {
+    List<RequestMetrics> requests = Collections.synchronizedList(new ArrayList<>());
+    HistogramRequestListener histogramListener = new HistogramRequestListener();
+    ConfluenceClient listeningClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .addRequestListener(requests::add)
+        .addRequestListener(histogramListener)
+        .build();
+
+    String contentBody = "{\"id\": \"123\", \"version\": {\"number\": 2}}";
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody(contentBody)));
+    stubFor(get(urlPathEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(404)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"statusCode\": 404, \"message\": \"Not found\"}")));
+
+    listeningClient.updateContent(new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setTitle("Title")
+        .setVersion(2)
+        .build());
+    try {
+      listeningClient.getContentByIdAsync(new GetContentByIdRequest.Builder()
+          .setId("123")
+          .setExpandedProperties(new ExpandedContentProperties.Builder().addVersion().build())
+          .build()).get();
+      Assert.fail("Expected the request for missing content to fail");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof ConfluenceRequestException);
+    }
+
+    Assert.assertEquals(2, requests.size());
+    RequestMetrics update = requests.get(0);
+    Assert.assertEquals(HttpMethod.PUT, update.getMethod());
+    Assert.assertEquals("rest/api/content/{id}", update.getPathTemplate());
+    Assert.assertEquals(Integer.valueOf(200), update.getStatusCode());
+    Assert.assertEquals(1, update.getAttempts());
+    Assert.assertTrue(update.getBytesSent() > 0);
+    Assert.assertEquals(contentBody.length(), update.getBytesReceived());
+    Assert.assertFalse(update.getError().isPresent());
+
+    RequestMetrics get = requests.get(1);
+    Assert.assertEquals(HttpMethod.GET, get.getMethod());
+    Assert.assertEquals("version", get.getExpand());
+    Assert.assertEquals(Integer.valueOf(404), get.getStatusCode());
+    Assert.assertEquals(0, get.getBytesSent());
+    Assert.assertTrue(get.getError().get() instanceof ConfluenceRequestException);
+
+    Assert.assertEquals(1, histogramListener.getHistogram(HttpMethod.GET,
+        "rest/api/content/{id}", "version").getCount());
+    Assert.assertEquals(1, histogramListener.getHistogram(HttpMethod.PUT,
+        "rest/api/content/{id}", null).getCount());
+    listeningClient.close();
+  }
+  /**
+   * This test asserts that measuring a request does not change how its body is serialized, so that
+   * any Jackson configuration registered on the HTTP client still applies, and that the measured
+   * size is the size of the body that was sent.
+   */
+  @Test
+  public void testMeasuredBodyUsesClientConfiguration() throws ConfluenceRequestException {
+    List<RequestMetrics> requests = new ArrayList<>();
+    ConfluenceClient listeningClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient()
+            .register(new IndentingMapperResolver())
+            .target("http://localhost:" + WIRE_MOCK_PORT))
+        .addRequestListener(requests::add)
+        .build();
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"123\", \"version\": {\"number\": 2}}")));
+
+    listeningClient.updateContent(new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setTitle("Title")
+        .setVersion(2)
+        .build());
+
+    LoggedRequest sentRequest = findAll(putRequestedFor(urlEqualTo("/rest/api/content/123")))
+        .get(0);
+    Assert.assertTrue(sentRequest.getBodyAsString().contains("\n"));
+    Assert.assertEquals(sentRequest.getBody().length, requests.get(0).getBytesSent());
+  }
+
+
+  /**
+   * This method stubs a response indicating that the server is unavailable for the first request,
+   * followed by a successful response.
+   *
+   * @param scenarioName The name of the scenario.
+   */
+  private static void stubUnavailableOnce(String scenarioName) {
+    wireMockRule.resetAll();
+    stubFor(get(urlEqualTo("/test/path")).inScenario(scenarioName)
+        .whenScenarioStateIs(Scenario.STARTED)
+        .willReturn(aResponse().withStatus(503).withHeader("Retry-After", "0"))
+        .willSetStateTo("available"));
+    stubFor(get(urlEqualTo("/test/path")).inScenario(scenarioName)
+        .whenScenarioStateIs("available")
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"name\": \"test\", \"value\": \"TEST\"}")));
+  }
+
+  /**
+   * This method stubs the server to respond to an update of content 123 to version 4 with a
+   * version conflict.
+   */
+  private static void stubConflictingUpdate() {
+    stubFor(put(urlEqualTo("/rest/api/content/123"))
+        .withRequestBody(matchingJsonPath("$.version.number", equalTo("4")))
+        .willReturn(aResponse()
+            .withStatus(409)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"statusCode\": 409, \"message\": \"Version conflict\"}")));
+  }
+
+  /**
+   * This method stubs the response to a request to create the content with the given title.
+   *
+   * @param title The title of the content.
+   * @param status The status code of the response.
+   * @param body The body of the response.
+   */
+  private static void stubCreateContent(String title, int status, String body) {
+    stubFor(post(urlEqualTo("/rest/api/content"))
+        .withRequestBody(matchingJsonPath("$.title", equalTo(title)))
+        .willReturn(aResponse()
+            .withStatus(status)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody(body)));
+  }
+
+  /**
+   * This method creates a request to create a page with the given title.
+   *
+   * @param title The title of the page.
+   * @return The request to create the page.
+   */
+  private static CreateContentRequest createPageRequest(String title) {
+    return new CreateContentRequest.Builder()
+        .setType(StandardContentType.PAGE)
+        .setSpaceKey("SAMPLE")
+        .setTitle(title)
+        .build();
+  }
+
+  /**
+   * This method stubs three pages of content with two results per page, followed by empty pages
+   * for any later start position.
+   */
+  private static void stubContentPages() {
+    Map<Integer, String> pages = new HashMap<>();
+    pages.put(2, "[{\"id\": \"3\"}, {\"id\": \"4\"}]");
+    pages.put(4, "[{\"id\": \"5\"}]");
+    pages.put(6, "[]");
+
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [], \"limit\": 2}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .withQueryParam("start", absent())
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [{\"id\": \"1\"}, {\"id\": \"2\"}]," +
+                " \"start\": 0, \"limit\": 2, \"size\": 2}")));
+    pages.forEach((start, results) -> stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .withQueryParam("start", equalTo(start.toString()))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": " + results + ", \"start\": " + start + "," +
+                " \"limit\": 2}"))));
+  }
+
+  /**
+   * This class provides an {@link ObjectMapper} that indents the JSON that it writes.
+   */
+  private static class IndentingMapperResolver implements ContextResolver<ObjectMapper> {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Override
+    public ObjectMapper getContext(Class<?> type) {
+      return this.mapper;
+    }
+  }
 }
@@ -0,0 +1,125 @@
+package com.github.crob1140.confluence;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+
+import com.github.crob1140.confluence.auth.TokenAuth;
+import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.metrics.RequestMetrics;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.MediaType;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * This class performs tests against {@link ConfluenceClient.Builder}.
+ */
+public class TestConfluenceClientBuilder {
+
+  private static final String WIKI_URL = "http://localhost:" + TestConfluenceClient.WIRE_MOCK_PORT;
+
+  @ClassRule
+  public static WireMockClassRule wireMockRule = new WireMockClassRule(
+      TestConfluenceClient.WIRE_MOCK_PORT);
+
+  @Rule
+  public WireMockClassRule instanceRule = wireMockRule;
+
+  /**
+   * This test asserts that a client created with a wiki URL is able to send requests through its
+   * own pooled HTTP client, reusing connections between requests.
+   */
+  @Test
+  public void testPooledClient() throws ConfluenceRequestException {
+    stubFor(get(urlEqualTo("/test/path"))
+        .withHeader("Authorization", equalTo("Bearer token"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"name\": \"test\", \"value\": \"TEST\"}")));
+
+    TestConfluenceRequest request = new TestConfluenceRequest(HttpMethod.GET, "/test/path",
+        TestConfluenceResponse.class);
+    try (ConfluenceClient client = new ConfluenceClient.Builder()
+        .setWikiUrl(WIKI_URL)
+        .setAuthMethod(new TokenAuth("token"))
+        .setMaxConnections(2)
+        .setMaxConnectionsPerRoute(2)
+        .setConnectTimeout(Duration.ofSeconds(1))
+        .setReadTimeout(Duration.ofSeconds(5))
+        .setIdleConnectionTimeout(Duration.ofSeconds(5))
+        .build()) {
+      for (int i = 0; i < 5; i++) {
+        Assert.assertEquals(new TestConfluenceResponse("test", "TEST"),
+            client.performRequest(request));
+      }
+    }
+  }
+
+  /**
+   * This test asserts that a client cannot be created without a wiki URL or target.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testMissingWikiLocation() {
+    new ConfluenceClient.Builder().build();
+  }
+
+  /**
+   * This test asserts that a client cannot be created with both a wiki URL and target.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testConflictingWikiLocation() {
+    new ConfluenceClient.Builder()
+        .setWikiUrl(WIKI_URL)
+        .setWikiTarget(ClientBuilder.newClient().target(WIKI_URL))
+        .build();
+  }
+
+  /**
+   * This test asserts that a client cannot be created with a non-positive connection limit.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testInvalidMaxConnections() {
+    new ConfluenceClient.Builder().setWikiUrl(WIKI_URL).setMaxConnections(0).build();
+  }
+
+  /**
+   * This test asserts that a client created with a target measures its requests without
+   * registering anything on the target that it was given, which may be shared with other code.
+   */
+  @Test
+  public void testGivenTargetUnchanged() throws ConfluenceRequestException {
+    String body = "{\"name\": \"test\", \"value\": \"TEST\"}";
+    stubFor(get(urlEqualTo("/wiki/test/path"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody(body)));
+
+    WebTarget target = ClientBuilder.newClient().target(WIKI_URL + "/wiki");
+    List<RequestMetrics> requests = new ArrayList<>();
+    ConfluenceClient client = new ConfluenceClient.Builder()
+        .setWikiTarget(target)
+        .addRequestListener(requests::add)
+        .build();
+    new ConfluenceClient(target);
+
+    Object response = client.performRequest(new TestConfluenceRequest(HttpMethod.GET,
+        "/test/path", TestConfluenceResponse.class));
+
+    Assert.assertEquals(new TestConfluenceResponse("test", "TEST"), response);
+    Assert.assertEquals(body.length(), requests.get(0).getBytesReceived());
+    Assert.assertFalse(target.getConfiguration().isRegistered(ByteCountingInterceptor.class));
+  }
+}
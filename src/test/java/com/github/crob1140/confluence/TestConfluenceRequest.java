@@ -24,7 +24,7 @@ public class TestConfluenceRequest extends ConfluenceRequest {
    * @param path The path to use for the request.
    * @param returnType The type to use when de-serializing the response for this request.
    */
-  TestConfluenceRequest(String method, String path, Class<?> returnType) {
+  public TestConfluenceRequest(String method, String path, Class<?> returnType) {
     this.method = method;
     this.path = path;
     this.returnType = returnType;
@@ -0,0 +1,57 @@
+package com.github.crob1140.confluence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link ContentBatchFetcher}.
+ */
+public class TestContentBatchFetcher {
+
+  /**
+   * This test asserts that the IDs are split into chunks of at most the maximum number of IDs,
+   * preserving their order.
+   */
+  @Test
+  public void testChunkByCount() {
+    List<List<String>> chunks = ContentBatchFetcher.chunk(
+        Arrays.asList("1", "2", "3", "4", "5"), 2, 1000);
+
+    Assert.assertEquals(Arrays.asList(Arrays.asList("1", "2"), Arrays.asList("3", "4"),
+        Collections.singletonList("5")), chunks);
+  }
+
+  /**
+   * This test asserts that a chunk is ended before its encoded query would exceed the maximum
+   * length, and that an ID is never left out because its own query is too long.
+   */
+  @Test
+  public void testChunkByQueryLength() {
+    // "id%20in%20%28" and "%29" make up 16 characters, and each separator "%2C" adds 3 more
+    List<List<String>> chunks = ContentBatchFetcher.chunk(
+        Arrays.asList("1234", "5678", "9012", "123456789"), 100, 27);
+
+    Assert.assertEquals(Arrays.asList(Arrays.asList("1234", "5678"),
+        Collections.singletonList("9012"), Collections.singletonList("123456789")), chunks);
+  }
+
+  /**
+   * This test asserts that the query for a chunk matches each of its IDs.
+   */
+  @Test
+  public void testToQuery() {
+    Assert.assertEquals("id in (1,22,333)",
+        ContentBatchFetcher.toQuery(Arrays.asList("1", "22", "333")));
+  }
+
+  /**
+   * This test asserts that IDs that could alter the meaning of the query are rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testNonNumericId() {
+    new ContentBatchFetcher(null).fetch(Arrays.asList("1", "2) or (type = page"), null);
+  }
+}
@@ -0,0 +1,110 @@
+package com.github.crob1140.confluence;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link KeyedSerialExecutor}.
+ */
+public class TestKeyedSerialExecutor {
+
+  /**
+   * This test asserts that an operation does not start until the operation before it for the same
+   * key has completed, even if that operation failed.
+   */
+  @Test
+  public void testSameKeySerialized() throws Exception {
+    KeyedSerialExecutor executor = new KeyedSerialExecutor();
+    CompletableFuture<String> firstOperation = new CompletableFuture<>();
+    CompletableFuture<String> secondOperation = new CompletableFuture<>();
+    CompletableFuture<String> thirdOperation = CompletableFuture.completedFuture("third");
+    boolean[] started = new boolean[3];
+
+    CompletableFuture<String> first = executor.submit("1", () -> {
+      started[0] = true;
+      return firstOperation;
+    });
+    CompletableFuture<String> second = executor.submit("1", () -> {
+      started[1] = true;
+      return secondOperation;
+    });
+    CompletableFuture<String> third = executor.submit("1", () -> {
+      started[2] = true;
+      return thirdOperation;
+    });
+
+    Assert.assertTrue(started[0]);
+    Assert.assertFalse(started[1]);
+
+    firstOperation.completeExceptionally(new IllegalStateException("Conflict"));
+    Assert.assertTrue(started[1]);
+    Assert.assertFalse(started[2]);
+
+    secondOperation.complete("second");
+    Assert.assertEquals("second", second.get());
+    Assert.assertEquals("third", third.get());
+    try {
+      first.get();
+      Assert.fail("The result of a failed operation should fail");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+    Assert.assertEquals(0, executor.getActiveKeyCount());
+  }
+
+  /**
+   * This test asserts that operations for different keys run concurrently.
+   */
+  @Test
+  public void testDifferentKeysConcurrent() {
+    KeyedSerialExecutor executor = new KeyedSerialExecutor();
+    CompletableFuture<String> firstOperation = new CompletableFuture<>();
+    boolean[] started = new boolean[1];
+
+    executor.submit("1", () -> firstOperation);
+    executor.submit("2", () -> {
+      started[0] = true;
+      return CompletableFuture.completedFuture("2");
+    });
+
+    Assert.assertTrue(started[0]);
+    Assert.assertEquals(1, executor.getActiveKeyCount());
+    firstOperation.complete("1");
+    Assert.assertEquals(0, executor.getActiveKeyCount());
+  }
+
+  /**
+   * This test asserts that a long queue of operations for the same key that fail straight away
+   * runs to completion, rather than nesting deeper for each operation until the stack overflows.
+   */
+  @Test(timeout = 30000)
+  public void testOperationsFailingImmediately() throws Exception {
+    KeyedSerialExecutor executor = new KeyedSerialExecutor();
+    CompletableFuture<String> firstOperation = new CompletableFuture<>();
+    executor.submit("1", () -> firstOperation);
+
+    List<CompletableFuture<String>> results = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      results.add(executor.submit("1", () -> {
+        CompletableFuture<String> failedOperation = new CompletableFuture<>();
+        failedOperation.completeExceptionally(new IllegalStateException("Closed"));
+        return failedOperation;
+      }));
+    }
+    firstOperation.complete("first");
+
+    for (CompletableFuture<String> result : results) {
+      try {
+        result.get();
+        Assert.fail("The result of a failed operation should fail");
+      } catch (ExecutionException e) {
+        Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+      }
+    }
+    Assert.assertEquals(0, executor.getActiveKeyCount());
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.crob1140.confluence;
+
+import com.github.crob1140.confluence.errors.ConfluenceRequestException;
+import com.github.crob1140.confluence.metrics.ConfluenceRequestEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.ws.rs.HttpMethod;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link RequestEventRecorder}.
+ */
+public class TestRequestEventRecorder {
+
+  /**
+   * This test asserts that no event is created while no recording enables it.
+   */
+  @Test
+  public void testDisabled() {
+    Assert.assertNull(RequestEventRecorder.begin());
+    RequestEventRecorder.commit(null, new TestConfluenceRequest(HttpMethod.GET, "test/path",
+        String.class), 200, 1, 0, 0, null);
+  }
+
+  /**
+   * This test asserts that an event describing the request is committed while a recording enables
+   * it. This is skipped on runtimes that do not support custom events, such as some builds of Java
+   * 8.
+   */
+  @Test
+  public void testRecorded() throws Exception {
+    Path recordingFile = Files.createTempFile("confluence-request", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(ConfluenceRequestEvent.class);
+      recording.start();
+      Object event = RequestEventRecorder.begin();
+      Assume.assumeNotNull(event);
+
+      RequestEventRecorder.commit(event, new TestConfluenceRequest(HttpMethod.GET, "test/path",
+          String.class), 404, 2, 0, 128, new ConfluenceRequestException(404, "Not found"));
+      recording.stop();
+      recording.dump(recordingFile);
+
+      List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+          .filter(recorded -> recorded.getEventType().getName()
+              .equals("com.github.crob1140.confluence.Request"))
+          .collect(Collectors.toList());
+      Assert.assertEquals(1, events.size());
+      RecordedEvent recorded = events.get(0);
+      Assert.assertEquals(HttpMethod.GET, recorded.getString("method"));
+      Assert.assertEquals("test/path", recorded.getString("path"));
+      Assert.assertEquals(404, recorded.getInt("statusCode"));
+      Assert.assertEquals(2, recorded.getInt("attempts"));
+      Assert.assertEquals(128, recorded.getLong("bytesReceived"));
+      Assert.assertEquals(ConfluenceRequestException.class.getName(),
+          recorded.getString("error"));
+    } finally {
+      Files.deleteIfExists(recordingFile);
+    }
+  }
+}
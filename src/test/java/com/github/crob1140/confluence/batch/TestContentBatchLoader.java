@@ -0,0 +1,117 @@
+package com.github.crob1140.confluence.batch;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.content.Content;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link ContentBatchLoader}.
+ */
+public class TestContentBatchLoader {
+
+  private static final int WIRE_MOCK_PORT = 8888;
+
+  @ClassRule
+  public static WireMockClassRule wireMockRule = new WireMockClassRule(WIRE_MOCK_PORT);
+
+  @Rule
+  public WireMockClassRule instanceRule = wireMockRule;
+
+  private final ConfluenceClient client = new ConfluenceClient(
+      ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT));
+
+  /**
+   * This test asserts that lookups made within the same window are retrieved by a single request,
+   * that lookups of the same ID share a result, and that content that is not found is completed
+   * with an empty optional.
+   */
+  @Test
+  public void testBatchWindow() throws Exception {
+    stubSearch("id in (1,2)", "[{\"id\": \"1\"}]");
+
+    try (ContentBatchLoader loader = new ContentBatchLoader.Builder()
+        .setClient(this.client)
+        .setBatchWindow(Duration.ofMillis(200))
+        .build()) {
+      CompletableFuture<Optional<Content>> first = loader.load("1");
+      CompletableFuture<Optional<Content>> second = loader.load("2");
+      CompletableFuture<Optional<Content>> duplicate = loader.load("1");
+
+      Assert.assertEquals("1", first.get().map(Content::getId).orElse(null));
+      Assert.assertFalse(second.get().isPresent());
+      Assert.assertEquals("1", duplicate.get().map(Content::getId).orElse(null));
+    }
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/search")));
+  }
+
+  /**
+   * This test asserts that a batch is retrieved as soon as it reaches the maximum batch size,
+   * without waiting for its window to end.
+   */
+  @Test
+  public void testMaxBatchSize() throws Exception {
+    stubSearch("id in (1,2)", "[{\"id\": \"1\"}, {\"id\": \"2\"}]");
+
+    try (ContentBatchLoader loader = new ContentBatchLoader.Builder()
+        .setClient(this.client)
+        .setBatchWindow(Duration.ofHours(1))
+        .setMaxBatchSize(2)
+        .build()) {
+      loader.load("1");
+      Optional<Content> content = loader.load("2").get();
+
+      Assert.assertEquals("2", content.map(Content::getId).orElse(null));
+    }
+  }
+
+  /**
+   * This test asserts that closing the loader retrieves any batch that is still collecting
+   * lookups, and that lookups made after it is closed fail.
+   */
+  @Test
+  public void testClose() throws Exception {
+    stubSearch("id in (3)", "[{\"id\": \"3\"}]");
+
+    ContentBatchLoader loader = new ContentBatchLoader.Builder()
+        .setClient(this.client)
+        .setBatchWindow(Duration.ofHours(1))
+        .build();
+    CompletableFuture<Optional<Content>> pendingContent = loader.load("3");
+    loader.close();
+
+    Assert.assertTrue(pendingContent.get().isPresent());
+    try {
+      loader.load("4").get();
+      Assert.fail("Lookups made after the loader is closed should fail");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  private static void stubSearch(String cql, String results) {
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo(cql))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": " + results + ", \"start\": 0, \"_links\": {}}")));
+  }
+}
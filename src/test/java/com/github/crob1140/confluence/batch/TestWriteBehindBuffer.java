@@ -0,0 +1,131 @@
+package com.github.crob1140.confluence.batch;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.put;
+import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.StandardContentType;
+import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link WriteBehindBuffer}.
+ */
+public class TestWriteBehindBuffer {
+
+  private static final int WIRE_MOCK_PORT = 8888;
+
+  @ClassRule
+  public static WireMockClassRule wireMockRule = new WireMockClassRule(WIRE_MOCK_PORT);
+
+  @Rule
+  public WireMockClassRule instanceRule = wireMockRule;
+
+  private final ConfluenceClient client = new ConfluenceClient(
+      ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT));
+
+  /**
+   * This test asserts that repeated updates to the same content are sent as a single update
+   * containing the latest values, and that every caller receives its result.
+   */
+  @Test
+  public void testUpdatesCoalesced() throws Exception {
+    stubUpdate("123", "Third");
+
+    try (WriteBehindBuffer buffer = new WriteBehindBuffer.Builder()
+        .setClient(this.client)
+        .setFlushInterval(Duration.ofHours(1))
+        .build()) {
+      CompletableFuture<Content> first = buffer.submit(createRequest("123", "First"));
+      CompletableFuture<Content> second = buffer.submit(createRequest("123", "Second"));
+      CompletableFuture<Content> third = buffer.submit(createRequest("123", "Third"));
+      buffer.flush();
+
+      Assert.assertEquals("Third", first.get().getTitle());
+      Assert.assertEquals("Third", second.get().getTitle());
+      Assert.assertEquals("Third", third.get().getTitle());
+      Assert.assertEquals(3, buffer.getSubmittedCount());
+      Assert.assertEquals(1, buffer.getSentCount());
+    }
+    verify(1, putRequestedFor(urlEqualTo("/rest/api/content/123")));
+  }
+
+  /**
+   * This test asserts that pending updates are sent periodically, and that updates to different
+   * content are sent separately.
+   */
+  @Test
+  public void testPeriodicFlush() throws Exception {
+    stubUpdate("1", "One");
+    stubUpdate("2", "Two");
+
+    try (WriteBehindBuffer buffer = new WriteBehindBuffer.Builder()
+        .setClient(this.client)
+        .setFlushInterval(Duration.ofMillis(50))
+        .build()) {
+      CompletableFuture<Content> first = buffer.submit(createRequest("1", "One"));
+      CompletableFuture<Content> second = buffer.submit(createRequest("2", "Two"));
+
+      Assert.assertEquals("One", first.get().getTitle());
+      Assert.assertEquals("Two", second.get().getTitle());
+    }
+  }
+
+  /**
+   * This test asserts that closing the buffer sends any pending updates, and that updates
+   * submitted after it is closed fail.
+   */
+  @Test
+  public void testClose() throws Exception {
+    stubUpdate("123", "Final");
+
+    WriteBehindBuffer buffer = new WriteBehindBuffer.Builder()
+        .setClient(this.client)
+        .setFlushInterval(Duration.ofHours(1))
+        .build();
+    CompletableFuture<Content> pendingContent = buffer.submit(createRequest("123", "Final"));
+    buffer.close();
+
+    Assert.assertEquals("Final", pendingContent.get().getTitle());
+    try {
+      buffer.submit(createRequest("123", "Late")).get();
+      Assert.fail("Updates submitted after the buffer is closed should fail");
+    } catch (ExecutionException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  private static UpdateContentRequest createRequest(String id, String title) {
+    return new UpdateContentRequest.Builder()
+        .setId(id)
+        .setType(StandardContentType.PAGE)
+        .setTitle(title)
+        .setVersion(2)
+        .build();
+  }
+
+  private static void stubUpdate(String id, String title) {
+    stubFor(put(urlEqualTo("/rest/api/content/" + id))
+        .withRequestBody(matchingJsonPath("$.title", equalTo(title)))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"id\": \"" + id + "\", \"title\": \"" + title + "\"}")));
+  }
+}
@@ -0,0 +1,157 @@
+package com.github.crob1140.confluence.cache;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentBody;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.Version;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class performs tests against the methods of {@link ContentCache}.
+ */
+public class TestContentCache {
+
+  private static final ExpandedContentProperties VERSION = new ExpandedContentProperties.Builder()
+      .addVersion()
+      .build();
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * This test asserts that content is only returned for the expanded properties that it was cached
+   * with, regardless of the order in which those properties were added.
+   */
+  @Test
+  public void testKeyedByExpandedProperties() {
+    ContentCache cache = new ContentCache.Builder().build();
+    cache.put(createContent("1", 1, ""), new ExpandedContentProperties.Builder()
+        .addVersion()
+        .addSpace()
+        .build());
+
+    Assert.assertTrue(cache.get("1", new ExpandedContentProperties.Builder()
+        .addSpace()
+        .addVersion()
+        .build()).isPresent());
+    Assert.assertFalse(cache.get("1", VERSION).isPresent());
+    Assert.assertFalse(cache.get("1", null).isPresent());
+    Assert.assertEquals(1, cache.getHitCount());
+    Assert.assertEquals(2, cache.getMissCount());
+  }
+
+  /**
+   * This test asserts that the least recently used entry is evicted once the maximum number of
+   * entries is exceeded.
+   */
+  @Test
+  public void testEvictionBySize() {
+    ContentCache cache = new ContentCache.Builder().setMaximumSize(2).build();
+    cache.put(createContent("1", 1, ""), VERSION);
+    cache.put(createContent("2", 1, ""), VERSION);
+    cache.get("1", VERSION);
+    cache.put(createContent("3", 1, ""), VERSION);
+
+    Assert.assertEquals(2, cache.size());
+    Assert.assertTrue(cache.get("1", VERSION).isPresent());
+    Assert.assertFalse(cache.get("2", VERSION).isPresent());
+    Assert.assertTrue(cache.get("3", VERSION).isPresent());
+  }
+
+  /**
+   * This test asserts that the least recently used entries are evicted once the maximum weight is
+   * exceeded, and that content heavier than the maximum weight is never cached.
+   */
+  @Test
+  public void testEvictionByWeight() {
+    ContentCache cache = new ContentCache.Builder().setMaximumWeight(20).build();
+    cache.put(createContent("1", 1, "123456789"), VERSION);
+    cache.put(createContent("2", 1, "123456789"), VERSION);
+    Assert.assertEquals(20, cache.getWeight());
+
+    cache.put(createContent("3", 1, "1"), VERSION);
+    Assert.assertFalse(cache.get("1", VERSION).isPresent());
+    Assert.assertEquals(12, cache.getWeight());
+
+    cache.put(createContent("4", 1, "12345678901234567890"), VERSION);
+    Assert.assertFalse(cache.get("4", VERSION).isPresent());
+    Assert.assertEquals(2, cache.size());
+  }
+
+  /**
+   * This test asserts that entries for older versions of some content are invalidated when a newer
+   * version of that content is created or updated, and are not cached again afterwards.
+   */
+  @Test
+  public void testInvalidationByVersion() {
+    ContentCache cache = new ContentCache.Builder().build();
+    cache.put(createContent("1", 1, ""), VERSION);
+    cache.onContentModified(createContent("1", 1, ""));
+    Assert.assertTrue(cache.get("1", VERSION).isPresent());
+
+    cache.onContentModified(createContent("1", 2, ""));
+    Assert.assertFalse(cache.get("1", VERSION).isPresent());
+
+    cache.put(createContent("1", 1, ""), VERSION);
+    Assert.assertFalse(cache.get("1", VERSION).isPresent());
+
+    cache.put(createContent("1", 2, ""), VERSION);
+    Assert.assertTrue(cache.get("1", VERSION).isPresent());
+  }
+
+  /**
+   * This test asserts that entries are no longer returned once they have expired.
+   */
+  @Test
+  public void testExpiry() throws InterruptedException {
+    ContentCache cache = new ContentCache.Builder().setTimeToLive(Duration.ofMillis(1)).build();
+    cache.put(createContent("1", 1, ""), VERSION);
+    Thread.sleep(5);
+
+    Assert.assertFalse(cache.get("1", VERSION).isPresent());
+    Assert.assertEquals(0, cache.size());
+  }
+
+  /**
+   * This test asserts that entries loaded from a snapshot keep their expanded properties, are only
+   * returned once they have been revalidated, and are invalidated if they are out of date.
+   */
+  @Test
+  public void testSnapshot() throws Exception {
+    ContentCache previousCache = new ContentCache.Builder().build();
+    previousCache.put(createContent("1", 2, "First"), VERSION);
+    previousCache.put(createContent("2", 1, "Second"), VERSION);
+    previousCache.put(createContent("3", 1, "Third"), null);
+    Path snapshotFile = this.folder.getRoot().toPath().resolve("cache.snapshot");
+    Assert.assertEquals(3, previousCache.saveSnapshot(snapshotFile));
+
+    ContentCache cache = new ContentCache.Builder().build();
+    Assert.assertEquals(0, cache.loadSnapshot(this.folder.getRoot().toPath().resolve("missing")));
+    Assert.assertEquals(3, cache.loadSnapshot(snapshotFile));
+    Assert.assertEquals(3, cache.size());
+    Assert.assertFalse(cache.get("1", VERSION).isPresent());
+    Assert.assertTrue(cache.needsRevalidation("1", VERSION));
+    Assert.assertFalse(cache.needsRevalidation("3", VERSION));
+
+    Assert.assertEquals("First", cache.revalidate("1", VERSION, 2).get().getBody()
+        .getFormat(ContentBodyType.STORAGE).getValue());
+    Assert.assertTrue(cache.get("1", VERSION).isPresent());
+    Assert.assertFalse(cache.revalidate("2", VERSION, 2).isPresent());
+    Assert.assertFalse(cache.needsRevalidation("2", VERSION));
+    Assert.assertEquals(2, cache.size());
+  }
+
+  private static Content createContent(String id, int version, String body) {
+    return new Content.Builder()
+        .setId(id)
+        .setVersion(new Version(version))
+        .setBody(new ContentBody(ContentBodyType.STORAGE, body))
+        .build();
+  }
+}
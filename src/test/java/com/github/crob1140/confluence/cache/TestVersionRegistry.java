@@ -0,0 +1,59 @@
+package com.github.crob1140.confluence.cache;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.Version;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link VersionRegistry}.
+ */
+public class TestVersionRegistry {
+
+  /**
+   * This test asserts that the recorded version of content only ever increases, so that receiving
+   * an older version of the content does not cause updates to conflict.
+   */
+  @Test
+  public void testLatestVersionKept() {
+    VersionRegistry registry = new VersionRegistry.Builder().build();
+    registry.onContentReceived(createContent("1", 3));
+    registry.onContentReceived(createContent("1", 2));
+
+    Assert.assertEquals(Optional.of(3), registry.getVersion("1"));
+    Assert.assertEquals(Optional.empty(), registry.getVersion("2"));
+  }
+
+  /**
+   * This test asserts that content that was returned without its version is not recorded.
+   */
+  @Test
+  public void testContentWithoutVersionIgnored() {
+    VersionRegistry registry = new VersionRegistry.Builder().build();
+    registry.onContentReceived(new Content.Builder().setId("1").build());
+
+    Assert.assertEquals(0, registry.size());
+  }
+
+  /**
+   * This test asserts that the least recently used versions are forgotten once the maximum size
+   * is exceeded.
+   */
+  @Test
+  public void testMaximumSize() {
+    VersionRegistry registry = new VersionRegistry.Builder().setMaximumSize(2).build();
+    registry.onContentReceived(createContent("1", 1));
+    registry.onContentReceived(createContent("2", 1));
+    registry.getVersion("1");
+    registry.onContentReceived(createContent("3", 1));
+
+    Assert.assertTrue(registry.getVersion("1").isPresent());
+    Assert.assertFalse(registry.getVersion("2").isPresent());
+    Assert.assertTrue(registry.getVersion("3").isPresent());
+  }
+
+  private static Content createContent(String id, int version) {
+    return new Content.Builder().setId(id).setVersion(new Version(version)).build();
+  }
+}
@@ -0,0 +1,101 @@
+package com.github.crob1140.confluence.codec;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link ContentCodec}.
+ */
+public class TestContentCodec {
+
+  private static final ContentCodec JSON_CODEC = new ContentCodec.Builder()
+      .setFormat(CodecFormat.JSON)
+      .build();
+
+  /**
+   * This test asserts that content that was read from the server can be encoded and decoded again
+   * with all of its properties in each format.
+   */
+  @Test
+  public void testRoundTrip() throws Exception {
+    Content original = JSON_CODEC.decode(content("123").getBytes(StandardCharsets.UTF_8));
+    ContentCodec[] codecs = {
+        JSON_CODEC,
+        new ContentCodec.Builder().build(),
+        new ContentCodec.Builder().setSharedStrings(true).build()
+    };
+
+    for (ContentCodec codec : codecs) {
+      Content content = codec.decode(codec.encode(original));
+      Assert.assertEquals("123", content.getId());
+      Assert.assertEquals("Page 123", content.getTitle());
+      Assert.assertEquals("SAMPLE", content.getSpace().getKey());
+      Assert.assertEquals("<p>Body of 123</p>",
+          content.getBody().getFormat(ContentBodyType.STORAGE).getValue());
+      Assert.assertEquals("reviewed", content.getMetadata().getLabels().get(0).getName());
+      Assert.assertEquals(Integer.valueOf(7), content.getVersion().getNumber());
+      Assert.assertEquals("2019-06-01T10:15:30.000Z", content.getVersion().getWhen());
+      Assert.assertEquals("Sample User", content.getVersion().getBy().getDisplayName());
+    }
+  }
+
+  /**
+   * This test asserts that a sequence of content is decoded in the order that it was encoded, and
+   * that the Smile format is smaller than JSON, especially when shared strings are enabled.
+   */
+  @Test
+  public void testSequence() throws Exception {
+    List<Content> contents = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      contents.add(JSON_CODEC.decode(content(String.valueOf(i)).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    byte[] json = encodeAll(JSON_CODEC, contents);
+    byte[] smile = encodeAll(new ContentCodec.Builder().build(), contents);
+    ContentCodec sharedCodec = new ContentCodec.Builder().setSharedStrings(true).build();
+    byte[] shared = encodeAll(sharedCodec, contents);
+    Assert.assertTrue(smile.length < json.length);
+    Assert.assertTrue(shared.length < smile.length);
+
+    List<Content> decoded = new ArrayList<>();
+    sharedCodec.decodeAll(new ByteArrayInputStream(shared), Content.class, decoded::add);
+    Assert.assertEquals(contents.size(), decoded.size());
+    for (int i = 0; i < contents.size(); i++) {
+      Assert.assertEquals(String.valueOf(i), decoded.get(i).getId());
+      Assert.assertEquals("SAMPLE", decoded.get(i).getSpace().getKey());
+    }
+  }
+
+  /**
+   * This test asserts that shared strings cannot be enabled for the JSON format.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testSharedStringsRequireSmile() {
+    new ContentCodec.Builder().setFormat(CodecFormat.JSON).setSharedStrings(true).build();
+  }
+
+  private static byte[] encodeAll(ContentCodec codec, List<Content> contents) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    codec.encodeAll(contents.iterator(), output);
+    return output.toByteArray();
+  }
+
+  private static String content(String id) {
+    return "{\"id\": \"" + id + "\", \"type\": \"page\", \"status\": \"current\","
+        + " \"title\": \"Page " + id + "\","
+        + " \"space\": {\"key\": \"SAMPLE\", \"name\": \"Sample space\"},"
+        + " \"body\": {\"storage\": {\"representation\": \"storage\","
+        + " \"value\": \"<p>Body of " + id + "</p>\"}},"
+        + " \"metadata\": {\"labels\": [{\"prefix\": \"global\", \"name\": \"reviewed\"}]},"
+        + " \"version\": {\"number\": 7, \"when\": \"2019-06-01T10:15:30.000Z\","
+        + " \"by\": {\"type\": \"known\", \"username\": \"sample\","
+        + " \"displayName\": \"Sample User\"}}}";
+  }
+}
@@ -0,0 +1,146 @@
+package com.github.crob1140.confluence.limiter;
+
+import com.github.crob1140.confluence.limiter.AdaptiveConcurrencyLimiter.Permit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link AdaptiveConcurrencyLimiter}.
+ */
+public class TestAdaptiveConcurrencyLimiter {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  /**
+   * This test asserts that callers wait in a queue once the limit is reached, and are given a
+   * permit in order as permits are released.
+   */
+  @Test
+  public void testQueueing() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = createLimiter(2, 0.5);
+    Permit first = limiter.acquire();
+    Permit second = limiter.acquire();
+    CompletableFuture<Permit> third = limiter.acquireAsync();
+    CompletableFuture<Permit> fourth = limiter.acquireAsync();
+
+    Assert.assertEquals(2, limiter.getInFlight());
+    Assert.assertEquals(2, limiter.getQueueDepth());
+    Assert.assertFalse(third.isDone());
+
+    first.onIgnore();
+    first.onIgnore();
+    Assert.assertTrue(third.isDone());
+    Assert.assertFalse(fourth.isDone());
+    Assert.assertEquals(1, limiter.getQueueDepth());
+
+    fourth.cancel(false);
+    second.onIgnore();
+    Assert.assertEquals(1, limiter.getInFlight());
+    Assert.assertEquals(0, limiter.getQueueDepth());
+  }
+
+  /**
+   * This test asserts that the limit grows gradually with each round of successful requests that
+   * use the whole limit, and does not grow past the maximum limit.
+   */
+  @Test
+  public void testAdditiveIncrease() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = createLimiter(4, 0.5);
+    for (int round = 0; round < 3; round++) {
+      List<Permit> permits = acquireAll(limiter);
+      advance(10);
+      permits.forEach(Permit::onSuccess);
+    }
+    Assert.assertEquals(5, limiter.getLimit());
+
+    for (int round = 0; round < 10; round++) {
+      List<Permit> permits = acquireAll(limiter);
+      advance(10);
+      permits.forEach(Permit::onSuccess);
+    }
+    Assert.assertEquals(10, limiter.getLimit());
+  }
+
+  /**
+   * This test asserts that the limit is decreased once for a burst of rejected requests that were
+   * all sent before the first rejection, and is not decreased past the minimum limit.
+   */
+  @Test
+  public void testMultiplicativeDecrease() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = createLimiter(8, 0.5);
+    List<Permit> permits = acquireAll(limiter);
+    advance(10);
+    permits.forEach(Permit::onDropped);
+    Assert.assertEquals(4, limiter.getLimit());
+
+    for (int round = 0; round < 5; round++) {
+      Permit permit = limiter.acquire();
+      advance(10);
+      permit.onDropped();
+    }
+    Assert.assertEquals(2, limiter.getLimit());
+  }
+
+  /**
+   * This test asserts that a request that takes much longer than the average latency decreases the
+   * limit, in the same way that a rejected request does.
+   */
+  @Test
+  public void testLatencySpike() throws Exception {
+    AdaptiveConcurrencyLimiter limiter = createLimiter(8, 0.5);
+    Permit permit = limiter.acquire();
+    advance(10);
+    permit.onSuccess();
+    Assert.assertEquals(8, limiter.getLimit());
+
+    permit = limiter.acquire();
+    advance(100);
+    permit.onSuccess();
+    Assert.assertEquals(4, limiter.getLimit());
+  }
+
+  /**
+   * This method creates a limiter that uses the clock of this test, with an initial limit of the
+   * given size and a maximum limit of 10.
+   *
+   * @param initialLimit The initial limit of the limiter.
+   * @param backoffRatio The ratio that the limit is multiplied by when a request is rejected.
+   * @return The created limiter.
+   */
+  private AdaptiveConcurrencyLimiter createLimiter(int initialLimit, double backoffRatio) {
+    AdaptiveConcurrencyLimiter.Builder builder = new AdaptiveConcurrencyLimiter.Builder()
+        .setInitialLimit(initialLimit)
+        .setMinLimit(2)
+        .setMaxLimit(10)
+        .setBackoffRatio(backoffRatio);
+    return new AdaptiveConcurrencyLimiter(builder, this.clock::get);
+  }
+
+  /**
+   * This method acquires as many permits as the current limit of the given limiter allows.
+   *
+   * @param limiter The limiter to acquire the permits from.
+   * @return The acquired permits.
+   */
+  private static List<Permit> acquireAll(AdaptiveConcurrencyLimiter limiter) throws Exception {
+    List<Permit> permits = new ArrayList<>();
+    while (limiter.getInFlight() < limiter.getLimit()) {
+      permits.add(limiter.acquire());
+    }
+    return permits;
+  }
+
+  /**
+   * This method moves the clock of this test forward by the given number of milliseconds.
+   *
+   * @param millis The number of milliseconds to move the clock forward by.
+   */
+  private void advance(long millis) {
+    this.clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+}
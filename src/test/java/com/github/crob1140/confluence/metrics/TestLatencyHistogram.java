@@ -0,0 +1,63 @@
+package com.github.crob1140.confluence.metrics;
+
+import java.time.Duration;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link LatencyHistogram}.
+ */
+public class TestLatencyHistogram {
+
+  /**
+   * This test asserts that every value is counted by a bucket whose upper bound is no less than the
+   * value, and no more than a sixteenth larger than it.
+   */
+  @Test
+  public void testBucketBounds() {
+    long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456_789, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = LatencyHistogram.getBucketIndex(value);
+      long upperBound = LatencyHistogram.getBucketUpperBound(index);
+      Assert.assertTrue(upperBound >= value);
+      Assert.assertTrue(upperBound - value <= value / 16);
+    }
+  }
+
+  /**
+   * This test asserts that the percentiles, mean and maximum of the recorded durations are
+   * estimated to within the precision of the buckets.
+   */
+  @Test
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(Duration.ofMillis(i));
+    }
+
+    Assert.assertEquals(1000, histogram.getCount());
+    Assert.assertEquals(Duration.ofMillis(1000), histogram.getMax());
+    Assert.assertEquals(Duration.ofNanos(500_500_000), histogram.getMean());
+    assertWithinPrecision(Duration.ofMillis(1), histogram.getPercentile(0));
+    assertWithinPrecision(Duration.ofMillis(500), histogram.getPercentile(50));
+    assertWithinPrecision(Duration.ofMillis(990), histogram.getPercentile(99));
+    Assert.assertEquals(Duration.ofMillis(1000), histogram.getPercentile(100));
+  }
+
+  /**
+   * This test asserts that an empty histogram reports zero for every statistic.
+   */
+  @Test
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0, histogram.getCount());
+    Assert.assertEquals(Duration.ZERO, histogram.getMean());
+    Assert.assertEquals(Duration.ZERO, histogram.getPercentile(99));
+  }
+
+  private static void assertWithinPrecision(Duration expected, Duration actual) {
+    long difference = actual.toNanos() - expected.toNanos();
+    Assert.assertTrue("Expected " + expected + " but was " + actual,
+        difference >= 0 && difference <= expected.toNanos() / 16);
+  }
+}
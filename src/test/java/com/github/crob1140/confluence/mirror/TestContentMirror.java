@@ -0,0 +1,216 @@
+package com.github.crob1140.confluence.mirror;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentBody;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.Label;
+import com.github.crob1140.confluence.content.LabelPrefix;
+import com.github.crob1140.confluence.content.Metadata;
+import com.github.crob1140.confluence.content.StandardContentType;
+import com.github.crob1140.confluence.content.Version;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class performs tests against the methods of {@link ContentMirror}.
+ */
+public class TestContentMirror {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * This test asserts that stored content can be read back with all of its properties, including
+   * after the mirror has been reopened.
+   */
+  @Test
+  public void testReadAfterReopen() throws Exception {
+    Path directory = this.folder.getRoot().toPath();
+    try (ContentMirror mirror = open(directory, 1024)) {
+      Assert.assertTrue(mirror.put(new Content.Builder()
+          .setId("123")
+          .setType(StandardContentType.PAGE)
+          .setTitle("Sample page")
+          .setSpaceKey("SAMPLE")
+          .setAncestors(Collections.singletonList(new Content.Builder().setId("100").build()))
+          .setBody(new ContentBody(ContentBodyType.STORAGE, "<p>Body</p>"))
+          .setMetadata(new Metadata(Collections.singletonList(
+              new Label(LabelPrefix.GLOBAL, "reviewed"))))
+          .setVersion(new Version(4))
+          .build()));
+    }
+
+    try (ContentMirror mirror = open(directory, 1024)) {
+      Content content = mirror.get("123").get();
+      Assert.assertEquals("Sample page", content.getTitle());
+      Assert.assertEquals("SAMPLE", content.getSpace().getKey());
+      Assert.assertEquals("100", content.getAncestors().get(0).getId());
+      Assert.assertEquals("<p>Body</p>",
+          content.getBody().getFormat(ContentBodyType.STORAGE).getValue());
+      Assert.assertEquals("reviewed", content.getMetadata().getLabels().get(0).getName());
+      Assert.assertEquals(Optional.of(4), mirror.getVersion("123"));
+      Assert.assertFalse(mirror.get("456").isPresent());
+    }
+  }
+
+  /**
+   * This test asserts that content is only replaced by newer versions of it.
+   */
+  @Test
+  public void testOnlyNewerVersionsStored() throws Exception {
+    try (ContentMirror mirror = open(this.folder.getRoot().toPath(), 1024)) {
+      Assert.assertTrue(mirror.put(content("123", 2, "Second")));
+      Assert.assertFalse(mirror.put(content("123", 1, "First")));
+      Assert.assertFalse(mirror.put(content("123", 2, "Second again")));
+      Assert.assertTrue(mirror.put(content("123", 3, "Third")));
+      Assert.assertFalse(mirror.put(new Content.Builder().setId("456").build()));
+
+      Assert.assertEquals("Third", mirror.get("123").get().getTitle());
+      Assert.assertEquals(1, mirror.size());
+    }
+  }
+
+  /**
+   * This test asserts that content is replaced by the same version of it with more of its
+   * properties, but not with fewer.
+   */
+  @Test
+  public void testSameVersionWithMorePropertiesStored() throws Exception {
+    try (ContentMirror mirror = open(this.folder.getRoot().toPath(), 1024)) {
+      Content versionOnly = new Content.Builder().setId("123").setVersion(new Version(3)).build();
+      Assert.assertTrue(mirror.put(versionOnly));
+      Assert.assertTrue(mirror.put(new Content.Builder(content("123", 3, "Full"))
+          .setBody(new ContentBody(ContentBodyType.STORAGE, "<p>Body</p>"))
+          .build()));
+      Assert.assertFalse(mirror.put(versionOnly));
+      Assert.assertFalse(mirror.put(content("123", 3, "Title only")));
+
+      Assert.assertEquals("Full", mirror.get("123").get().getTitle());
+      Assert.assertEquals(1, mirror.size());
+    }
+  }
+
+  /**
+   * This test asserts that a directory cannot be opened by a second mirror while it is open, and
+   * can be opened again once the first mirror is closed.
+   */
+  @Test
+  public void testDirectoryLocked() throws Exception {
+    Path directory = this.folder.getRoot().toPath();
+    try (ContentMirror mirror = open(directory, 1024)) {
+      mirror.put(content("123", 1, "First"));
+      try {
+        open(directory, 1024).close();
+        Assert.fail("Should have thrown IOException but didn't");
+      } catch (IOException e) {
+        Assert.assertTrue(e.getMessage().contains("already open"));
+      }
+    }
+
+    try (ContentMirror mirror = open(directory, 1024)) {
+      Assert.assertEquals("First", mirror.get("123").get().getTitle());
+    }
+  }
+
+  /**
+   * This test asserts that the index grows as content is added, and that every entry is kept.
+   */
+  @Test
+  public void testIndexGrows() throws Exception {
+    Path directory = this.folder.getRoot().toPath();
+    try (ContentMirror mirror = open(directory, 4)) {
+      for (int i = 1; i <= 500; i++) {
+        mirror.put(content(String.valueOf(i), 1, "Page " + i));
+      }
+    }
+
+    try (ContentMirror mirror = open(directory, 4)) {
+      Assert.assertEquals(500, mirror.size());
+      for (int i = 1; i <= 500; i++) {
+        Assert.assertEquals("Page " + i, mirror.get(String.valueOf(i)).get().getTitle());
+      }
+    }
+  }
+
+  /**
+   * This test asserts that the index is rebuilt from the data file when it does not cover the
+   * whole file, and that an incomplete record at the end of the data file is discarded.
+   */
+  @Test
+  public void testRebuildIndex() throws Exception {
+    Path directory = this.folder.getRoot().toPath();
+    try (ContentMirror mirror = open(directory, 1024)) {
+      mirror.put(content("1", 1, "First"));
+      mirror.put(content("2", 1, "Second"));
+      mirror.put(content("1", 2, "First again"));
+    }
+
+    Path dataFile = directory.resolve(ContentMirror.DATA_FILE_NAME);
+    long completeSize = Files.size(dataFile);
+    try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.APPEND)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 100, 1, 2, 3}));
+    }
+
+    try (ContentMirror mirror = open(directory, 1024)) {
+      Assert.assertEquals(2, mirror.size());
+      Assert.assertEquals("First again", mirror.get("1").get().getTitle());
+      Assert.assertEquals("Second", mirror.get("2").get().getTitle());
+      Assert.assertEquals(completeSize, Files.size(dataFile));
+    }
+
+    Files.delete(directory.resolve(ContentMirror.INDEX_FILE_NAME));
+    try (ContentMirror mirror = open(directory, 1024)) {
+      Assert.assertEquals(Optional.of(2), mirror.getVersion("1"));
+      Assert.assertEquals("Second", mirror.get("2").get().getTitle());
+    }
+  }
+
+  /**
+   * This test asserts that content received from the client is written once it has been flushed,
+   * keeping only its newest version, and that content received after the mirror is closed is
+   * dropped without an error.
+   */
+  @Test
+  public void testReceivedContent() throws Exception {
+    ContentMirror mirror = open(this.folder.getRoot().toPath(), 1024);
+    for (int i = 1; i <= 100; i++) {
+      mirror.onContentReceived(content(String.valueOf(i % 10 + 1), i, "Page " + i));
+    }
+    mirror.onContentReceived(new Content.Builder().setId("11").build());
+    mirror.flush();
+
+    Assert.assertEquals(10, mirror.size());
+    Assert.assertEquals(Optional.of(100), mirror.getVersion("1"));
+    Assert.assertEquals("Page 99", mirror.get("10").get().getTitle());
+    Assert.assertEquals(0, mirror.getDroppedCount());
+
+    mirror.close();
+    mirror.onContentReceived(content("12", 1, "Late"));
+    Assert.assertEquals(1, mirror.getDroppedCount());
+  }
+
+  private static ContentMirror open(Path directory, int initialCapacity) throws Exception {
+    return new ContentMirror.Builder()
+        .setDirectory(directory)
+        .setInitialCapacity(initialCapacity)
+        .build();
+  }
+
+  private static Content content(String id, int version, String title) {
+    return new Content.Builder()
+        .setId(id)
+        .setTitle(title)
+        .setVersion(new Version(version))
+        .build();
+  }
+}
@@ -99,6 +99,29 @@ public class TestCreateContentRequestSuccess extends TestConfluenceRequestSucces
             "       }" +
             "   }" +
             "}"
+    }, {
+        "Copying a request with a new ancestor replaces the ancestor of the content",
+        new CreateContentRequest.Builder()
+            .setType(StandardContentType.PAGE)
+            .setSpaceKey("TESTSPACE")
+            .setTitle("Child")
+            .setAncestor("123")
+            .build()
+            .withAncestor("456"),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.POST,
+        "rest/api/content",
+        new HashMap<>(),
+        "{" +
+            "   \"type\" : \"page\"," +
+            "   \"title\" : \"Child\"," +
+            "   \"space\" : {" +
+            "       \"key\" : \"TESTSPACE\"" +
+            "   }," +
+            "   \"ancestors\" : [{" +
+            "       \"id\" : \"456\"" +
+            "   }]" +
+            "}"
     }, {
         "Any labels that are added should be included in the request",
         new CreateContentRequest.Builder()
@@ -0,0 +1,64 @@
+package com.github.crob1140.confluence.requests;
+
+import com.github.crob1140.confluence.content.ContentStatus;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.MediaType;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class TestGetContentByIdRequestSuccess extends TestConfluenceRequestSuccess {
+
+  public TestGetContentByIdRequestSuccess(String description, GetContentByIdRequest request,
+      MediaType expectedContentType, String expectedMethod, String expectedPath,
+      Map<String, String> expectedQueryParams, String expectedBodyJson) {
+    super(request, expectedContentType, expectedMethod, expectedPath, expectedQueryParams,
+        expectedBodyJson);
+  }
+
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][]{{
+        "Request construction succeeds with just the ID",
+        new GetContentByIdRequest.Builder().setId("123").build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/123",
+        new HashMap<>(),
+        ""
+    }, {
+        "Any status that is provided is added to the query parameters",
+        new GetContentByIdRequest.Builder().setId("123").setStatus(ContentStatus.TRASHED).build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/123",
+        new QueryParamMapBuilder().addEntry("status", "trashed").build(),
+        ""
+    }, {
+        "Any version that is provided is added to the query parameters",
+        new GetContentByIdRequest.Builder().setId("123").setVersion(4).build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/123",
+        new QueryParamMapBuilder().addEntry("version", "4").build(),
+        ""
+    }, {
+        "Any expanded properties that are provided are added to the query parameters",
+        new GetContentByIdRequest.Builder()
+            .setId("123")
+            .setExpandedProperties(new ExpandedContentProperties.Builder().addVersion().build())
+            .build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/123",
+        new QueryParamMapBuilder().addEntry("expand", "version").build(),
+        ""
+    }});
+  }
+}
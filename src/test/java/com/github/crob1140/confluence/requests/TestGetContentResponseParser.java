@@ -0,0 +1,64 @@
+package com.github.crob1140.confluence.requests;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.github.crob1140.confluence.content.Content;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link GetContentResponseParser}.
+ */
+public class TestGetContentResponseParser {
+
+  /**
+   * This test asserts that each result in the response is passed to the consumer, and that the
+   * pagination details of the response are returned.
+   */
+  @Test
+  public void testParse() throws IOException {
+    InputStream inputStream = toStream("{" +
+        " \"results\": [" +
+        "  {\"id\": \"1\", \"title\": \"First\", \"unknown\": {\"nested\": [1, 2]}}," +
+        "  {\"id\": \"2\", \"title\": \"Second\"}" +
+        " ]," +
+        " \"start\": 0," +
+        " \"limit\": 2," +
+        " \"size\": 2," +
+        " \"_links\": {\"next\": \"/rest/api/content?start=2\"}" +
+        "}");
+
+    List<Content> results = new ArrayList<>();
+    GetContentResponse response = GetContentResponseParser.parse(inputStream, results::add);
+
+    Assert.assertEquals(Arrays.asList("1", "2"),
+        results.stream().map(Content::getId).collect(Collectors.toList()));
+    Assert.assertEquals(Arrays.asList("First", "Second"),
+        results.stream().map(Content::getTitle).collect(Collectors.toList()));
+    Assert.assertTrue(response.getResults().isEmpty());
+    Assert.assertEquals(Integer.valueOf(0), response.getStart());
+    Assert.assertEquals(Integer.valueOf(2), response.getLimit());
+    Assert.assertEquals(Integer.valueOf(2), response.getSize());
+    Assert.assertTrue(response.hasNextPage());
+  }
+
+  /**
+   * This test asserts that a response that is not a JSON object is rejected.
+   */
+  @Test(expected = JsonParseException.class)
+  public void testParseInvalidResponse() throws IOException {
+    GetContentResponseParser.parse(toStream("[]"), content -> {
+    });
+  }
+
+  private static InputStream toStream(String json) {
+    return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,68 @@
+package com.github.crob1140.confluence.requests;
+
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.MediaType;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class TestSearchContentRequestSuccess extends TestConfluenceRequestSuccess {
+
+  public TestSearchContentRequestSuccess(String description, SearchContentRequest request,
+      MediaType expectedContentType, String expectedMethod, String expectedPath,
+      Map<String, String> expectedQueryParams, String expectedBodyJson) {
+    super(request, expectedContentType, expectedMethod, expectedPath, expectedQueryParams,
+        expectedBodyJson);
+  }
+
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][]{{
+        "Request construction succeeds with just the CQL query",
+        new SearchContentRequest.Builder().setCql("id in (1,2)").build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/search",
+        new QueryParamMapBuilder().addEntry("cql", "id in (1,2)").build(),
+        ""
+    }, {
+        "Any pagination details that are provided are added to the query parameters",
+        new SearchContentRequest.Builder()
+            .setCql("space = DEV")
+            .setStartPosition(20)
+            .setLimit(10)
+            .build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/search",
+        new QueryParamMapBuilder()
+            .addEntry("cql", "space = DEV")
+            .addEntry("start", "20")
+            .addEntry("limit", "10")
+            .build(),
+        ""
+    }, {
+        "Any CQL context and expanded properties that are provided are added to the query "
+            + "parameters",
+        new SearchContentRequest.Builder()
+            .setCql("space = currentSpace()")
+            .setCqlContext("{\"spaceKey\":\"DEV\"}")
+            .setExpandedProperties(new ExpandedContentProperties.Builder().addVersion().build())
+            .build(),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.GET,
+        "rest/api/content/search",
+        new QueryParamMapBuilder()
+            .addEntry("cql", "space = currentSpace()")
+            .addEntry("cqlcontext", "{\"spaceKey\":\"DEV\"}")
+            .addEntry("expand", "version")
+            .build(),
+        ""
+    }});
+  }
+}
@@ -0,0 +1,56 @@
+package com.github.crob1140.confluence.requests;
+
+import java.util.Arrays;
+import java.util.Collection;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+@RunWith(Parameterized.class)
+public class TestSearchContentRequestValidation {
+
+  @Rule
+  public final ExpectedException exception = ExpectedException.none();
+
+  private SearchContentRequest.Builder requestBuilder;
+  private Class<Exception> expectedExceptionClass;
+  private String expectedExceptionMessage;
+
+  public TestSearchContentRequestValidation(String description,
+      SearchContentRequest.Builder requestBuilder, Class<Exception> expectedExceptionClass,
+      String expectedExceptionMessage) {
+    this.requestBuilder = requestBuilder;
+    this.expectedExceptionClass = expectedExceptionClass;
+    this.expectedExceptionMessage = expectedExceptionMessage;
+  }
+
+  @Parameters(name = "{0}")
+  public static Collection<Object[]> data() {
+    return Arrays.asList(new Object[][]{{
+        "Requests cannot be created without a CQL query",
+        new SearchContentRequest.Builder(),
+        IllegalStateException.class,
+        "You must specify the CQL query to search with"
+    }, {
+        "Requests cannot be created with a limit of zero",
+        new SearchContentRequest.Builder().setCql("type = page").setLimit(0),
+        IllegalStateException.class,
+        "The limit must be a positive number"
+    }, {
+        "Requests cannot be created with negative start positions",
+        new SearchContentRequest.Builder().setCql("type = page").setStartPosition(-1),
+        IllegalStateException.class,
+        "The start position must not be negative"
+    }});
+  }
+
+  @Test
+  public void testExpectedExceptionThrown() {
+    exception.expect(this.expectedExceptionClass);
+    exception.expectMessage(this.expectedExceptionMessage);
+    this.requestBuilder.build();
+  }
+}
@@ -41,6 +41,25 @@ public class TestUpdateContentRequestSuccess extends TestConfluenceRequestSucces
             "     \"number\" : 2" +
             "   }" +
             "}"
+    }, {
+        "Requests for the next version are sent with the version that the client determines",
+        new UpdateContentRequest.Builder()
+            .setId("123")
+            .setNextVersion()
+            .setType(StandardContentType.PAGE)
+            .setTitle("Updated")
+            .build()
+            .withVersion(7),
+        MediaType.APPLICATION_JSON_TYPE,
+        HttpMethod.PUT,
+        "rest/api/content/123",
+        new HashMap<>(),
+        "{" +
+            "   \"title\" : \"Updated\"," +
+            "   \"version\" : {" +
+            "     \"number\" : 7" +
+            "   }" +
+            "}"
     }, {
         "Only the last body set is included in the request",
         new UpdateContentRequest.Builder()
@@ -0,0 +1,85 @@
+package com.github.crob1140.confluence.retry;
+
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.StandardContentType;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.requests.UpdateContentRequest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link ConflictStrategy}.
+ */
+public class TestConflictStrategy {
+
+  /**
+   * This test asserts that the version of the content is always expanded, in addition to any
+   * properties that were set.
+   */
+  @Test
+  public void testVersionAlwaysExpanded() {
+    ConflictStrategy defaultStrategy = new ConflictStrategy.Builder()
+        .setMergeFunction((content, original) -> original)
+        .build();
+    ConflictStrategy strategy = new ConflictStrategy.Builder()
+        .setMergeFunction((content, original) -> original)
+        .setExpandedProperties(new ExpandedContentProperties.Builder().addContainer().build())
+        .build();
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList("version")),
+        defaultStrategy.getExpandedProperties().getProperties());
+    Assert.assertEquals(new HashSet<>(Arrays.asList("container", "version")),
+        strategy.getExpandedProperties().getProperties());
+  }
+
+  /**
+   * This test asserts that the update returned by the merge function is sent instead, and that a
+   * merge function that returns null gives up on the conflict.
+   */
+  @Test
+  public void testMerge() {
+    Content latestContent = new Content.Builder().setId("123").build();
+    UpdateContentRequest request = new UpdateContentRequest.Builder()
+        .setId("123")
+        .setType(StandardContentType.PAGE)
+        .setVersion(2)
+        .build();
+
+    Assert.assertSame(request, new ConflictStrategy.Builder()
+        .setMergeFunction((content, original) -> original)
+        .build()
+        .merge(latestContent, request).get());
+    Assert.assertEquals(Optional.empty(), new ConflictStrategy.Builder()
+        .setMergeFunction((content, original) -> null)
+        .build()
+        .merge(latestContent, request));
+  }
+
+  /**
+   * This test asserts that a strategy cannot be built without a merge function or with a
+   * non-positive number of attempts.
+   */
+  @Test
+  public void testValidation() {
+    assertInvalid(new ConflictStrategy.Builder());
+    assertInvalid(new ConflictStrategy.Builder().setMergeFunction(null));
+    assertInvalid(new ConflictStrategy.Builder()
+        .setMergeFunction((content, original) -> original)
+        .setMaxAttempts(0));
+    assertInvalid(new ConflictStrategy.Builder()
+        .setMergeFunction((content, original) -> original)
+        .setExpandedProperties(null));
+  }
+
+  private static void assertInvalid(ConflictStrategy.Builder builder) {
+    try {
+      builder.build();
+      Assert.fail("Expected the strategy to be invalid");
+    } catch (IllegalStateException e) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.github.crob1140.confluence.retry;
+
+import com.github.crob1140.confluence.TestConfluenceRequest;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * This class performs tests against the methods of {@link RetryPolicy}.
+ */
+public class TestRetryPolicy {
+
+  private final RetryPolicy policy = new RetryPolicy.Builder()
+      .setMaxAttempts(3)
+      .setBaseDelay(Duration.ofMillis(100))
+      .setMaxDelay(Duration.ofSeconds(10))
+      .build();
+
+  /**
+   * This test asserts that requests with a retryable status code are retried after a delay that is
+   * bounded by the exponential backoff for the attempt.
+   */
+  @Test
+  public void testBackoffDelay() {
+    for (int i = 0; i < 100; i++) {
+      Duration firstDelay = policy.getRetryDelay(get(), 1, status(503)).get();
+      Duration secondDelay = policy.getRetryDelay(get(), 2, status(429)).get();
+      Assert.assertTrue(firstDelay.toMillis() <= 100);
+      Assert.assertTrue(secondDelay.toMillis() <= 200);
+    }
+  }
+
+  /**
+   * This test asserts that requests are not retried once the maximum number of attempts is reached,
+   * or if the response status code is not retryable.
+   */
+  @Test
+  public void testNotRetried() {
+    Assert.assertFalse(policy.getRetryDelay(get(), 3, status(503)).isPresent());
+    Assert.assertFalse(policy.getRetryDelay(get(), 1, status(400)).isPresent());
+    Assert.assertFalse(policy.getRetryDelay(get(), 1, status(500)).isPresent());
+  }
+
+  /**
+   * This test asserts that only requests with a retryable method are retried, which by default is
+   * only GET.
+   */
+  @Test
+  public void testRetryableMethods() {
+    Assert.assertFalse(
+        policy.getRetryDelay(request(HttpMethod.PUT), 1, status(503)).isPresent());
+
+    RetryPolicy updatePolicy = new RetryPolicy.Builder()
+        .setRetryableMethods(HttpMethod.GET, HttpMethod.PUT)
+        .build();
+    Assert.assertTrue(updatePolicy
+        .getRetryDelay(request(HttpMethod.PUT), 1, status(503)).isPresent());
+  }
+
+  /**
+   * This test asserts that requests that did not receive a response are retried.
+   */
+  @Test
+  public void testNoResponse() {
+    Assert.assertTrue(policy.getRetryDelay(get(), 1, null).isPresent());
+  }
+
+  /**
+   * This test asserts that the delay requested by the server in the "Retry-After" header is
+   * honoured, unless it exceeds the maximum delay.
+   */
+  @Test
+  public void testRetryAfter() {
+    Response response = Response.status(429).header("Retry-After", "5").build();
+    Assert.assertEquals(Optional.of(Duration.ofSeconds(5)),
+        policy.getRetryDelay(get(), 1, response));
+
+    Response longResponse = Response.status(429).header("Retry-After", "60").build();
+    Assert.assertFalse(policy.getRetryDelay(get(), 1, longResponse).isPresent());
+  }
+
+  /**
+   * This test asserts that the reset time of an exhausted rate limit is honoured.
+   */
+  @Test
+  public void testRateLimitReset() {
+    String resetAt = ZonedDateTime.now().plusSeconds(3)
+        .format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    Response response = Response.status(429)
+        .header("X-RateLimit-Remaining", "0")
+        .header("X-RateLimit-Reset", resetAt)
+        .build();
+
+    Duration delay = policy.getRetryDelay(get(), 1, response).get();
+    Assert.assertTrue(delay.toMillis() > 1000 && delay.toMillis() <= 3000);
+  }
+
+  private static TestConfluenceRequest get() {
+    return request(HttpMethod.GET);
+  }
+
+  private static TestConfluenceRequest request(String method) {
+    return new TestConfluenceRequest(method, "/test/path", String.class);
+  }
+
+  private static Response status(int statusCode) {
+    return Response.status(statusCode).build();
+  }
+}
@@ -0,0 +1,146 @@
+package com.github.crob1140.confluence.sync;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.content.Content;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class performs tests against the methods of {@link IncrementalContentSync}.
+ */
+public class TestIncrementalContentSync {
+
+  private static final int WIRE_MOCK_PORT = 8888;
+
+  @ClassRule
+  public static WireMockClassRule wireMockRule = new WireMockClassRule(WIRE_MOCK_PORT);
+
+  @Rule
+  public WireMockClassRule instanceRule = wireMockRule;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ConfluenceClient client = new ConfluenceClient(
+      ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT));
+
+  /**
+   * This test asserts that the first sync passes on all matching content, and that the next sync
+   * reads back over the overlap without passing on content that has not changed again.
+   */
+  @Test
+  public void testResumeFromCheckpoint() throws Exception {
+    Path checkpointFile = this.folder.getRoot().toPath().resolve("checkpoint.json");
+    IncrementalContentSync sync = new IncrementalContentSync.Builder()
+        .setClient(this.client)
+        .setCheckpointFile(checkpointFile)
+        .setFilter("space = \"SAMPLE\"")
+        .build();
+
+    stubSearch("1970-01-01 00:00", 0, "[" + content("1", "10:00:10") + ", "
+        + content("2", "10:03:00") + "]", false);
+    Assert.assertEquals(Arrays.asList("1", "2"), syncIds(sync));
+    Assert.assertEquals(Optional.of(Instant.parse("2018-05-03T10:03:00Z")),
+        SyncCheckpoint.read(checkpointFile).getLastModified());
+
+    stubSearch("2018-05-03 09:58", 0, "[" + content("2", "10:03:00") + ", "
+        + content("3", "10:04:30") + "]", false);
+    Assert.assertEquals(Arrays.asList("3"), syncIds(sync));
+    Assert.assertEquals(Optional.of(Instant.parse("2018-05-03T10:04:30Z")),
+        SyncCheckpoint.read(checkpointFile).getLastModified());
+  }
+
+  /**
+   * This test asserts that each page is requested from the modification date of the last result
+   * of the previous page, and that results that are read twice are only passed on once.
+   */
+  @Test
+  public void testPageByModificationDate() throws Exception {
+    Path checkpointFile = this.folder.getRoot().toPath().resolve("checkpoint.json");
+    IncrementalContentSync sync = new IncrementalContentSync.Builder()
+        .setClient(this.client)
+        .setCheckpointFile(checkpointFile)
+        .setFilter("space = \"SAMPLE\"")
+        .setPageSize(2)
+        .build();
+
+    stubSearch("1970-01-01 00:00", 0, "[" + content("1", "10:00:10") + ", "
+        + content("2", "10:01:20") + "]", true);
+    stubSearch("2018-05-03 10:01", 0, "[" + content("2", "10:01:20") + ", "
+        + content("3", "10:01:40") + "]", true);
+    stubSearch("2018-05-03 10:01", 2, "[" + content("4", "10:02:00") + "]", false);
+
+    Assert.assertEquals(Arrays.asList("1", "2", "3", "4"), syncIds(sync));
+  }
+
+  /**
+   * This test asserts that the checkpoint is not advanced past a page whose content could not be
+   * consumed.
+   */
+  @Test
+  public void testConsumerFailure() throws Exception {
+    Path checkpointFile = this.folder.getRoot().toPath().resolve("checkpoint.json");
+    IncrementalContentSync sync = new IncrementalContentSync.Builder()
+        .setClient(this.client)
+        .setCheckpointFile(checkpointFile)
+        .setFilter("space = \"SAMPLE\"")
+        .build();
+
+    stubSearch("1970-01-01 00:00", 0, "[" + content("1", "10:00:10") + "]", false);
+    try {
+      sync.sync(content -> {
+        throw new IllegalStateException("Failed to consume " + content.getId());
+      });
+      Assert.fail("Expected the consumer to fail");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Failed to consume 1", e.getMessage());
+    }
+
+    Assert.assertFalse(Files.exists(checkpointFile));
+    Assert.assertEquals(Arrays.asList("1"), syncIds(sync));
+  }
+
+  private static List<String> syncIds(IncrementalContentSync sync) throws Exception {
+    List<Content> changes = new ArrayList<>();
+    sync.sync(changes::add);
+    return changes.stream().map(Content::getId).collect(Collectors.toList());
+  }
+
+  private static String content(String id, String time) {
+    return "{\"id\": \"" + id + "\", \"version\": {\"number\": 1, \"when\": \"2018-05-03T" + time
+        + ".000Z\"}}";
+  }
+
+  private static void stubSearch(String cursor, int start, String results, boolean hasNext) {
+    String query = "(space = \"SAMPLE\") and lastmodified >= \"" + cursor
+        + "\" order by lastmodified asc";
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo(query))
+        .withQueryParam("start", equalTo(String.valueOf(start)))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": " + results + ", \"start\": " + start + ", \"_links\": "
+                + (hasNext ? "{\"next\": \"/rest/api/content/search?next\"}" : "{}") + "}")));
+  }
+}
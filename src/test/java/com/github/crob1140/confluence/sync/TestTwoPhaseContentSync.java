@@ -0,0 +1,284 @@
+package com.github.crob1140.confluence.sync;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+
+import com.github.crob1140.confluence.ConfluenceClient;
+import com.github.crob1140.confluence.cache.ContentCache;
+import com.github.crob1140.confluence.content.Content;
+import com.github.crob1140.confluence.content.ContentBodyType;
+import com.github.crob1140.confluence.content.expand.ExpandedBodyFormatProperties;
+import com.github.crob1140.confluence.content.expand.ExpandedContentProperties;
+import com.github.crob1140.confluence.mirror.ContentMirror;
+import com.github.crob1140.confluence.requests.GetContentRequest;
+import com.github.tomakehurst.wiremock.junit.WireMockClassRule;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.MediaType;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * This class performs tests against the methods of {@link TwoPhaseContentSync}.
+ */
+public class TestTwoPhaseContentSync {
+
+  private static final int WIRE_MOCK_PORT = 8888;
+
+  @ClassRule
+  public static WireMockClassRule wireMockRule = new WireMockClassRule(WIRE_MOCK_PORT);
+
+  @Rule
+  public WireMockClassRule instanceRule = wireMockRule;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private final ConfluenceClient client = new ConfluenceClient(
+      ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT));
+
+  /**
+   * This test asserts that the content is listed with only its version, that only new and changed
+   * content is retrieved with its expanded properties, and that content that is no longer listed is
+   * reported as removed.
+   */
+  @Test
+  public void testOnlyChangedContentRetrieved() throws Exception {
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .withQueryParam("spaceKey", equalTo("SAMPLE"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + content("1", 2) + ", " + content("2", 3) + ", "
+                + content("3", 1) + "], \"start\": 0, \"_links\": {}}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (2,3)"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + content("2", 3) + ", " + content("3", 1)
+                + "], \"start\": 0, \"_links\": {}}")));
+
+    TwoPhaseContentSync sync = new TwoPhaseContentSync.Builder()
+        .setClient(this.client)
+        .setRequest(new GetContentRequest.Builder().setSpaceKey("SAMPLE").build())
+        .setExpandedProperties(new ExpandedContentProperties.Builder().addBody(
+            ContentBodyType.STORAGE, new ExpandedBodyFormatProperties.Builder().addValue().build())
+            .build())
+        .build();
+
+    Map<String, Integer> localVersions = new HashMap<>();
+    localVersions.put("1", 2);
+    localVersions.put("2", 2);
+    localVersions.put("4", 1);
+    List<Content> changes = new ArrayList<>();
+    TwoPhaseSyncResult result = sync.sync(localVersions, changes::add);
+
+    Assert.assertEquals(Arrays.asList("2", "3"),
+        changes.stream().map(Content::getId).collect(Collectors.toList()));
+    Assert.assertEquals(3, result.getListedCount());
+    Assert.assertEquals(2, result.getChangedCount());
+    Assert.assertEquals(Collections.singleton("4"), result.getRemovedIds());
+    Assert.assertEquals(Integer.valueOf(3), localVersions.get("2"));
+    Assert.assertEquals(Integer.valueOf(1), localVersions.get("3"));
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content"))
+        .withQueryParam("expand", equalTo("version")));
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("expand", containing("body.storage.value")));
+  }
+
+  /**
+   * This test asserts that changed content is retrieved in batches of the configured size.
+   */
+  @Test
+  public void testBatches() throws Exception {
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + content("1", 1) + ", " + content("2", 1) + ", "
+                + content("3", 1) + "], \"start\": 0, \"_links\": {}}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (1,2)"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + content("1", 1) + ", " + content("2", 1)
+                + "], \"start\": 0, \"_links\": {}}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (3)"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + content("3", 1) + "], \"start\": 0, \"_links\": {}}")));
+
+    TwoPhaseContentSync sync = new TwoPhaseContentSync.Builder()
+        .setClient(this.client)
+        .setRequest(new GetContentRequest.Builder().setSpaceKey("SAMPLE").build())
+        .setBatchSize(2)
+        .setParallelism(1)
+        .build();
+
+    List<Content> changes = new ArrayList<>();
+    TwoPhaseSyncResult result = sync.sync(new HashMap<>(), changes::add);
+
+    Assert.assertEquals(Arrays.asList("1", "2", "3"),
+        changes.stream().map(Content::getId).collect(Collectors.toList()));
+    Assert.assertEquals(3, result.getChangedCount());
+    verify(2, getRequestedFor(urlPathEqualTo("/rest/api/content/search")));
+  }
+
+  /**
+   * This test asserts that content that changed since it was cached by the client is retrieved
+   * again rather than taken from the cache.
+   */
+  @Test
+  public void testCachedContentRevalidated() throws Exception {
+    ConfluenceClient cachingClient = new ConfluenceClient.Builder()
+        .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+        .setContentCache(new ContentCache.Builder().build())
+        .build();
+    TwoPhaseContentSync sync = new TwoPhaseContentSync.Builder()
+        .setClient(cachingClient)
+        .setRequest(new GetContentRequest.Builder().setSpaceKey("SAMPLE").build())
+        .build();
+    Map<String, Integer> localVersions = new HashMap<>();
+    List<Content> changes = new ArrayList<>();
+
+    stubListing(content("1", 1));
+    stubSearch("id in (1)", titledContent("1", 1, "First"));
+    sync.sync(localVersions, changes::add);
+
+    stubListing(content("1", 2));
+    stubSearch("id in (1)", titledContent("1", 2, "Second"));
+    sync.sync(localVersions, changes::add);
+
+    Assert.assertEquals(Arrays.asList("First", "Second"),
+        changes.stream().map(Content::getTitle).collect(Collectors.toList()));
+    Assert.assertEquals(Integer.valueOf(2), localVersions.get("1"));
+    verify(2, getRequestedFor(urlPathEqualTo("/rest/api/content/search")));
+  }
+
+  /**
+   * This test asserts that a mirror that observes the client stores the full content that is
+   * retrieved for a change, rather than keeping the content that was listed with only its version.
+   */
+  @Test
+  public void testMirroredContentComplete() throws Exception {
+    try (ContentMirror mirror = new ContentMirror.Builder()
+        .setDirectory(this.folder.getRoot().toPath())
+        .build()) {
+      ConfluenceClient mirroredClient = new ConfluenceClient.Builder()
+          .setWikiTarget(ClientBuilder.newClient().target("http://localhost:" + WIRE_MOCK_PORT))
+          .addContentObserver(mirror)
+          .build();
+      TwoPhaseContentSync sync = new TwoPhaseContentSync.Builder()
+          .setClient(mirroredClient)
+          .setRequest(new GetContentRequest.Builder().setSpaceKey("SAMPLE").build())
+          .build();
+
+      stubListing(content("5", 3));
+      stubSearch("id in (5)", "{\"id\": \"5\", \"title\": \"Mirrored\", \"version\": "
+          + "{\"number\": 3}, \"body\": {\"storage\": {\"value\": \"<p>Body</p>\", "
+          + "\"representation\": \"storage\"}}}");
+      sync.sync(new HashMap<>(), content -> {
+      });
+      mirror.flush();
+
+      Content mirrored = mirror.get("5").get();
+      Assert.assertEquals("Mirrored", mirrored.getTitle());
+      Assert.assertEquals("<p>Body</p>",
+          mirrored.getBody().getFormat(ContentBodyType.STORAGE).getValue());
+    }
+  }
+
+  /**
+   * This test asserts that batches that are still being retrieved when the consumer throws an
+   * exception are cancelled, so that none of their following pages are requested.
+   */
+  @Test
+  public void testBatchesCancelledWhenConsumerFails() throws Exception {
+    stubListing(content("1", 1) + ", " + content("2", 1) + ", " + content("3", 1));
+    stubSearch("id in (1)", content("1", 1));
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (2)"))
+        .withQueryParam("start", absent())
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withFixedDelay(300)
+            .withBody("{\"results\": [" + content("2", 1) + "], \"start\": 0, \"limit\": 1,"
+                + " \"_links\": {\"next\": \"/rest/api/content/search?start=1\"}}")));
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (2)"))
+        .withQueryParam("start", equalTo("1"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [], \"start\": 1, \"_links\": {}}")));
+
+    TwoPhaseContentSync sync = new TwoPhaseContentSync.Builder()
+        .setClient(this.client)
+        .setRequest(new GetContentRequest.Builder().setSpaceKey("SAMPLE").build())
+        .setBatchSize(1)
+        .setParallelism(2)
+        .build();
+    try {
+      sync.sync(new HashMap<>(), content -> {
+        throw new IllegalStateException("Consumer failed");
+      });
+      Assert.fail("Should have thrown IllegalStateException but didn't");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals("Consumer failed", e.getMessage());
+    }
+
+    // Wait for the first page of the pending batch, after which its next page would be requested
+    Thread.sleep(1000);
+    verify(1, getRequestedFor(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (2)")));
+    verify(0, getRequestedFor(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo("id in (3)")));
+  }
+
+  private static void stubListing(String results) {
+    stubFor(get(urlPathEqualTo("/rest/api/content"))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + results + "], \"start\": 0, \"_links\": {}}")));
+  }
+
+  private static void stubSearch(String cql, String results) {
+    stubFor(get(urlPathEqualTo("/rest/api/content/search"))
+        .withQueryParam("cql", equalTo(cql))
+        .willReturn(aResponse()
+            .withStatus(200)
+            .withHeader("Content-Type", MediaType.APPLICATION_JSON)
+            .withBody("{\"results\": [" + results + "], \"start\": 0, \"_links\": {}}")));
+  }
+
+  private static String titledContent(String id, int version, String title) {
+    return "{\"id\": \"" + id + "\", \"title\": \"" + title + "\", \"version\": {\"number\": "
+        + version + "}}";
+  }
+
+  private static String content(String id, int version) {
+    return "{\"id\": \"" + id + "\", \"version\": {\"number\": " + version + "}}";
+  }
+}